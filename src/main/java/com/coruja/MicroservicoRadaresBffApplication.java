@@ -2,10 +2,15 @@ package com.coruja;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import com.coruja.config.NativeRuntimeHints;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableCaching
+@EnableScheduling
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class MicroservicoRadaresBffApplication {
 
 	public static void main(String[] args) {
@@ -5,6 +5,7 @@ import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -14,13 +15,28 @@ import java.util.concurrent.TimeUnit;
 @Configuration
 public class CacheConfig {
 
+    // Near cache do serviço de monitoramento: invalidado pelas escritas do BFF e pelas filas do RabbitMQ
+    public static final String MONITORAMENTO_PLACAS = "monitoramento-placas";
+    public static final String MONITORAMENTO_PLACA = "monitoramento-placa";
+    public static final String MONITORAMENTO_ALERTAS = "monitoramento-alertas";
+    // Agregações de logs: TTL curto, só para absorver consultas idênticas em sequência
+    public static final String LOGS_ANALISE = "logs-analise";
+
+    @Value("${radares.cache.monitoramento-ttl-minutos:10}")
+    private long monitoramentoTtlMinutos;
+
+    @Value("${radares.cache.alertas-ttl-segundos:60}")
+    private long alertasTtlSegundos;
+
+    @Value("${radares.cache.logs-analise-ttl-segundos:30}")
+    private long logsAnaliseTtlSegundos;
+
     @Bean
     public CacheManager cacheManager() {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager();
 
         // Define os nomes dos caches que sua aplicação usará
         cacheManager.setCacheNames(List.of(
-                "radares-bff-filtros",
                 "radares",
                 "radares-filtros"
                 // você pode adicionar outros nomes de cache aqui no futuro
@@ -33,7 +49,31 @@ public class CacheConfig {
         cacheManager.setCaffeine(Caffeine.newBuilder()
                 .expireAfterWrite(10, TimeUnit.MINUTES) // Itens expiram 10 minutos após serem gravados
                 .maximumSize(500) // Limita o cache a um máximo de 500 entradas
-                .initialCapacity(100));
+                .initialCapacity(100)
+                .recordStats()); // Estatísticas de acerto/erro expostas pelo actuator (cache.gets, cache.puts...)
+
+        // Caches do monitoramento: as invalidações por evento mantêm os dados atualizados,
+        // o TTL é só uma rede de segurança para eventos perdidos
+        cacheManager.registerCustomCache(MONITORAMENTO_PLACAS, Caffeine.newBuilder()
+                .expireAfterWrite(monitoramentoTtlMinutos, TimeUnit.MINUTES)
+                .maximumSize(200)
+                .recordStats()
+                .buildAsync());
+        cacheManager.registerCustomCache(MONITORAMENTO_PLACA, Caffeine.newBuilder()
+                .expireAfterWrite(monitoramentoTtlMinutos, TimeUnit.MINUTES)
+                .maximumSize(5000)
+                .recordStats()
+                .buildAsync());
+        cacheManager.registerCustomCache(MONITORAMENTO_ALERTAS, Caffeine.newBuilder()
+                .expireAfterWrite(alertasTtlSegundos, TimeUnit.SECONDS)
+                .maximumSize(200)
+                .recordStats()
+                .buildAsync());
+        cacheManager.registerCustomCache(LOGS_ANALISE, Caffeine.newBuilder()
+                .expireAfterWrite(logsAnaliseTtlSegundos, TimeUnit.SECONDS)
+                .maximumSize(100)
+                .recordStats()
+                .buildAsync());
 
         return cacheManager;
     }
@@ -0,0 +1,87 @@
+package com.coruja.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * {@link JwtDecoder} que guarda os tokens já validados, indexados pelo hash SHA-256 do token.
+ *
+ * Um mesmo token chega em toda requisição REST, no handshake do WebSocket e no CONNECT do STOMP;
+ * só a primeira validação verifica a assinatura, as seguintes custam um hash e uma consulta ao cache.
+ * Cada entrada expira junto com o token (claim exp), limitada a um TTL máximo, e o cache é limitado em tamanho.
+ * Tokens inválidos não são guardados: continuam passando pelo decoder delegado.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final Cache<ByteBuffer, Jwt> validados;
+
+    public CachingJwtDecoder(JwtDecoder delegate, long maxTokens, Duration ttlMaximo, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.validados = Caffeine.newBuilder()
+                .maximumSize(maxTokens)
+                .expireAfter(new ExpiraComToken(ttlMaximo))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, validados, "jwt-validados");
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        ByteBuffer chave = hash(token);
+        Jwt jwt = validados.getIfPresent(chave);
+        if (jwt != null && (jwt.getExpiresAt() == null || jwt.getExpiresAt().isAfter(Instant.now()))) {
+            return jwt;
+        }
+        jwt = delegate.decode(token);
+        validados.put(chave, jwt);
+        return jwt;
+    }
+
+    private static ByteBuffer hash(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Expira a entrada no exp do token, nunca depois do TTL máximo.
+     */
+    private record ExpiraComToken(Duration ttlMaximo) implements Expiry<ByteBuffer, Jwt> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer chave, Jwt jwt, long agoraNanos) {
+            long maximo = ttlMaximo.toNanos();
+            if (jwt.getExpiresAt() == null) {
+                return maximo;
+            }
+            long restante = Duration.between(Instant.now(), jwt.getExpiresAt()).toNanos();
+            return Math.max(0, Math.min(restante, maximo));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer chave, Jwt jwt, long agoraNanos, long duracaoAtualNanos) {
+            return expireAfterCreate(chave, jwt, agoraNanos);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer chave, Jwt jwt, long agoraNanos, long duracaoAtualNanos) {
+            return duracaoAtualNanos;
+        }
+    }
+}
@@ -1,35 +1,156 @@
 package com.coruja.config;
 
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.ElasticsearchTransport;
 import co.elastic.clients.transport.rest_client.RestClientTransport;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.http.Header;
 import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.protocol.HttpContext;
 import org.elasticsearch.client.RestClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cliente do Elasticsearch usado pela busca de logs.
+ *
+ * O transporte tem pool de conexões limitado, timeouts (conexão, espera por conexão do pool e leitura)
+ * e compressão gzip, e registra por requisição a latência (radares.elasticsearch.requisicao)
+ * e o tamanho da resposta (radares.elasticsearch.resposta.bytes), por operação e status.
+ * O cliente síncrono e o assíncrono compartilham o mesmo transporte.
+ *
+ * Só a busca de logs usa o Elasticsearch: a configuração é lazy e os serviços recebem os clientes
+ * por proxy (@Lazy), então o transporte só é criado na primeira busca, fora da inicialização.
+ */
 @Configuration
+@Lazy
 public class ElasticsearchConfig {
 
+    private static final String ATRIBUTO_INICIO = "radares.elasticsearch.inicio";
+    private static final String ATRIBUTO_OPERACAO = "radares.elasticsearch.operacao";
+
     @Value("${elasticsearch.host}")
     private String host;
 
     @Value("${elasticsearch.port}")
     private int port;
 
-    @Bean
-    public ElasticsearchClient elasticsearchClient() {
+    @Value("${radares.elasticsearch.connect-timeout-ms:2000}")
+    private int connectTimeoutMs;
+
+    @Value("${radares.elasticsearch.socket-timeout-ms:15000}")
+    private int socketTimeoutMs;
+
+    // Tempo máximo esperando uma conexão livre do pool antes de falhar
+    @Value("${radares.elasticsearch.pool-timeout-ms:1000}")
+    private int poolTimeoutMs;
+
+    @Value("${radares.elasticsearch.max-conexoes:30}")
+    private int maxConexoes;
+
+    @Value("${radares.elasticsearch.io-threads:2}")
+    private int ioThreads;
+
+    @Value("${radares.elasticsearch.compressao:true}")
+    private boolean compressao;
+
+    @Bean(destroyMethod = "close")
+    public ElasticsearchTransport elasticsearchTransport(MeterRegistry meterRegistry) {
         // Cria o cliente de baixo nível que se conecta ao Elasticsearch via HTTP
         RestClient restClient = RestClient.builder(
-                new HttpHost(host, port)
-        ).build();
+                        new HttpHost(host, port)
+                )
+                .setCompressionEnabled(compressao)
+                .setRequestConfigCallback(config -> config
+                        .setConnectTimeout(connectTimeoutMs)
+                        .setConnectionRequestTimeout(poolTimeoutMs)
+                        .setSocketTimeout(socketTimeoutMs))
+                .setHttpClientConfigCallback(http -> http
+                        // Há um único host: o limite por rota é o próprio limite do pool
+                        .setMaxConnTotal(maxConexoes)
+                        .setMaxConnPerRoute(maxConexoes)
+                        .setDefaultIOReactorConfig(IOReactorConfig.custom().setIoThreadCount(ioThreads).build())
+                        .addInterceptorFirst((HttpRequest request, HttpContext context) -> {
+                            context.setAttribute(ATRIBUTO_INICIO, System.nanoTime());
+                            context.setAttribute(ATRIBUTO_OPERACAO, operacao(request.getRequestLine().getUri()));
+                        })
+                        .addInterceptorLast((HttpResponse response, HttpContext context) ->
+                                registrarMetricas(meterRegistry, response, context)))
+                .build();
 
         // Cria o transporte usando o cliente REST e um mapeador JSON (Jackson)
-        RestClientTransport transport = new RestClientTransport(
-                restClient, new JacksonJsonpMapper());
+        return new RestClientTransport(restClient, new JacksonJsonpMapper());
+    }
 
+    @Bean
+    public ElasticsearchClient elasticsearchClient(ElasticsearchTransport transport) {
         // Retorna o cliente de API do Elasticsearch
         return new ElasticsearchClient(transport);
     }
+
+    @Bean
+    public ElasticsearchAsyncClient elasticsearchAsyncClient(ElasticsearchTransport transport) {
+        // Mesmo transporte, mas as respostas chegam em CompletableFuture sem prender a thread chamadora
+        return new ElasticsearchAsyncClient(transport);
+    }
+
+    private static void registrarMetricas(MeterRegistry meterRegistry, HttpResponse response, HttpContext context) {
+        Object inicio = context.getAttribute(ATRIBUTO_INICIO);
+        Object operacao = context.getAttribute(ATRIBUTO_OPERACAO);
+        if (!(inicio instanceof Long inicioNs)) {
+            return;
+        }
+        String status = Integer.toString(response.getStatusLine().getStatusCode());
+        String tagOperacao = operacao != null ? operacao.toString() : "outra";
+
+        Timer.builder("radares.elasticsearch.requisicao")
+                .description("Latência das requisições ao Elasticsearch (até o cabeçalho da resposta)")
+                .tag("operacao", tagOperacao)
+                .tag("status", status)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(System.nanoTime() - inicioNs, TimeUnit.NANOSECONDS);
+
+        // Tamanho trafegado (comprimido, se o gzip estiver ativo); ausente em respostas chunked
+        Header tamanho = response.getFirstHeader("Content-Length");
+        if (tamanho != null) {
+            try {
+                DistributionSummary.builder("radares.elasticsearch.resposta.bytes")
+                        .description("Tamanho das respostas do Elasticsearch")
+                        .baseUnit("bytes")
+                        .tag("operacao", tagOperacao)
+                        .register(meterRegistry)
+                        .record(Long.parseLong(tamanho.getValue()));
+            } catch (NumberFormatException ignored) {
+                // Cabeçalho inválido: só a latência é registrada
+            }
+        }
+    }
+
+    /**
+     * Operação da URI para a tag das métricas: o último segmento que começa com "_" (ex.: _search, _pit).
+     * Mantém a cardinalidade baixa, sem nomes de índice ou ids.
+     */
+    private static String operacao(String uri) {
+        int query = uri.indexOf('?');
+        String caminho = query >= 0 ? uri.substring(0, query) : uri;
+        String[] segmentos = caminho.split("/");
+        for (int i = segmentos.length - 1; i >= 0; i--) {
+            if (segmentos[i].startsWith("_")) {
+                return segmentos[i];
+            }
+        }
+        return "outra";
+    }
 }
@@ -30,9 +30,11 @@ public class JwtHandshakeInterceptor implements HandshakeInterceptor {
 
     private static final Logger log = LoggerFactory.getLogger(JwtHandshakeInterceptor.class);
     private final JwtDecoder jwtDecoder;
+    private final String claimUsuario;
 
-    public JwtHandshakeInterceptor(JwtDecoder jwtDecoder) {
+    public JwtHandshakeInterceptor(JwtDecoder jwtDecoder, String claimUsuario) {
         this.jwtDecoder = jwtDecoder;
+        this.claimUsuario = claimUsuario;
     }
 
     @Override
@@ -53,7 +55,7 @@ public class JwtHandshakeInterceptor implements HandshakeInterceptor {
         }
         try {
             Jwt jwt = jwtDecoder.decode(token);
-            String subject = jwt.getSubject();
+            String subject = nomeUsuario(jwt, claimUsuario);
 
             StompPrincipal principal = new StompPrincipal(subject);
             attributes.put("stompPrincipal", principal);
@@ -112,6 +114,20 @@ public class JwtHandshakeInterceptor implements HandshakeInterceptor {
         return null;
     }
 
+    /**
+     * Nome do usuário nas sessões STOMP (destinos /user/...), lido da claim configurada em
+     * radares.websocket.claim-usuario. O padrão é o subject ("sub"); com "preferred_username"
+     * o nome passa a ser o login em minúsculas, o mesmo informado como "interessado" nas placas
+     * monitoradas. Sem a claim configurada no token, usa o subject.
+     */
+    public static String nomeUsuario(Jwt jwt, String claimUsuario) {
+        if (claimUsuario == null || "sub".equals(claimUsuario)) {
+            return jwt.getSubject();
+        }
+        String username = jwt.getClaimAsString(claimUsuario);
+        return username != null && !username.isBlank() ? username.toLowerCase() : jwt.getSubject();
+    }
+
     // Principal custom simples
     public static class StompPrincipal implements Principal {
         private final String name;
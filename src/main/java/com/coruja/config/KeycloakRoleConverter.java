@@ -1,42 +1,86 @@
 package com.coruja.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Converte as roles do Keycloak em authorities ROLE_*, para o REST (resource server) e para o STOMP.
+ *
+ * Os usuários compartilham poucos conjuntos de roles distintos, então o resultado é memorizado por conjunto:
+ * a lista imutável de authorities é montada uma vez e reaproveitada, sem concatenação nem upper-case
+ * a cada requisição. O cache é limitado para que tokens com roles arbitrárias não cresçam a memória.
+ */
 @Component
 public class KeycloakRoleConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
 
+    private static final int MAX_CONJUNTOS = 1024;
+
+    // Uma instância por role: conjuntos diferentes compartilham as mesmas authorities.
+    // As roles vêm de tokens assinados pelo Keycloak, então o conjunto é o das roles do realm.
+    private static final Map<String, GrantedAuthority> AUTHORITIES = new ConcurrentHashMap<>();
+
+    private final Cache<List<String>, List<GrantedAuthority>> authoritiesPorRoles = Caffeine.newBuilder()
+            .maximumSize(MAX_CONJUNTOS)
+            .build();
+
     @Override
     public Collection<GrantedAuthority> convert(Jwt jwt) {
+        List<String> roles = extrairRoles(jwt);
+        if (roles == null || roles.isEmpty()) {
+            return List.of();
+        }
+        List<GrantedAuthority> authorities = authoritiesPorRoles.getIfPresent(roles);
+        if (authorities == null) {
+            // A chave é copiada: a lista da claim pertence ao Jwt
+            authorities = authoritiesPorRoles.get(Collections.unmodifiableList(new ArrayList<>(roles)),
+                    KeycloakRoleConverter::criarAuthorities);
+        }
+        return authorities;
+    }
+
+    /**
+     * Roles do token: claim "realm_access.roles" (padrão do Keycloak) ou, na falta dela, "roles".
+     */
+    @SuppressWarnings("unchecked")
+    public static List<String> extrairRoles(Jwt jwt) {
         // Tenta pegar as roles da claim "realm_access" (Padrão do Keycloak)
         Map<String, Object> realmAccess = jwt.getClaimAsMap("realm_access");
 
         List<String> roles = null;
 
-        if (realmAccess != null && realmAccess.containsKey("roles")) {
-            roles = (List<String>) realmAccess.get("roles");
+        if (realmAccess != null && realmAccess.get("roles") instanceof List<?> lista) {
+            roles = (List<String>) lista;
         }
 
         // Fallback: Tenta pegar de "roles" direto (caso tenha mapper customizado)
         if (roles == null || roles.isEmpty()) {
             roles = jwt.getClaimAsStringList("roles");
         }
+        return roles;
+    }
 
-        if (roles == null) {
-            return List.of();
-        }
-
+    /**
+     * Authorities das roles, sem passar pelo cache de conjuntos.
+     */
+    public static List<GrantedAuthority> criarAuthorities(List<String> roles) {
         // Transforma em GrantedAuthority com prefixo ROLE_ e MAIÚSCULO
         return roles.stream()
-                .map(role -> new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()))
-                .collect(Collectors.toList());
+                .filter(Objects::nonNull)
+                .map(role -> AUTHORITIES.computeIfAbsent(role,
+                        r -> new SimpleGrantedAuthority("ROLE_" + r.toUpperCase())))
+                .toList();
     }
-}
\ No newline at end of file
+}
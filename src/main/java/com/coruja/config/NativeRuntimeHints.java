@@ -0,0 +1,89 @@
+package com.coruja.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+/**
+ * Hints para a imagem nativa (perfil Maven "native").
+ *
+ * O Spring AOT cobre os beans e a infraestrutura do framework (MVC, STOMP, segurança); aqui entram
+ * os tipos que só são alcançados por reflexão em tempo de execução: os DTOs convertidos pelo Jackson
+ * (REST, RestTemplate, payloads do STOMP e mensagens do RabbitMQ), os records privados serializados
+ * em JSON, o Resilience4j da fábrica de circuit breakers e o provedor JSON-P do cliente do Elasticsearch.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final String PACOTE_DTO = "com.coruja.dto";
+
+    // Records privados lidos e gravados pelo Jackson
+    private static final List<String> RECORDS_JSON = List.of(
+            "com.coruja.services.LogService$Cursor"
+    );
+
+    private static final List<String> TIPOS_RESILIENCE4J = List.of(
+            "io.github.resilience4j.circuitbreaker.CircuitBreakerConfig",
+            "io.github.resilience4j.circuitbreaker.CallNotPermittedException",
+            "io.github.resilience4j.timelimiter.TimeLimiterConfig",
+            "org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JConfigBuilder$Resilience4JCircuitBreakerConfiguration"
+    );
+
+    // Provedores JSON-P procurados pelo cliente do Elasticsearch (ServiceLoader / Class.forName)
+    private static final List<String> PROVEDORES_JSONP = List.of(
+            "co.elastic.clients.json.jackson.JacksonJsonProvider",
+            "org.eclipse.parsson.JsonProviderImpl"
+    );
+
+    private final BindingReflectionHintsRegistrar binding = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // DTOs: construtores (inclusive os @JsonCreator das subclasses de PageImpl), campos e acessores
+        for (Class<?> dto : dtos(classLoader)) {
+            binding.registerReflectionHints(hints.reflection(), dto);
+        }
+        // Superclasses das páginas desserializadas: o Jackson serializa os getters herdados
+        binding.registerReflectionHints(hints.reflection(), PageImpl.class, PageRequest.class, Sort.class, Sort.Order.class);
+        hints.reflection().registerTypeIfPresent(classLoader, "org.springframework.data.domain.Chunk",
+                MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        for (String record : RECORDS_JSON) {
+            if (ClassUtils.isPresent(record, classLoader)) {
+                binding.registerReflectionHints(hints.reflection(), ClassUtils.resolveClassName(record, classLoader));
+            }
+        }
+
+        for (String tipo : TIPOS_RESILIENCE4J) {
+            hints.reflection().registerTypeIfPresent(classLoader, tipo,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+
+        for (String provedor : PROVEDORES_JSONP) {
+            hints.reflection().registerTypeIfPresent(classLoader, provedor, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+        hints.resources().registerPattern("META-INF/services/jakarta.json.spi.JsonProvider");
+    }
+
+    /**
+     * Todas as classes concretas do pacote de DTOs, encontradas no build (o AOT executa este registrar).
+     */
+    private static List<Class<?>> dtos(ClassLoader classLoader) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter((reader, factory) -> true);
+        scanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+        return scanner.findCandidateComponents(PACOTE_DTO).stream()
+                .map(BeanDefinition::getBeanClassName)
+                .<Class<?>>map(nome -> ClassUtils.resolveClassName(nome, classLoader))
+                .toList();
+    }
+}
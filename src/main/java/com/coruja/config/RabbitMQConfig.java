@@ -1,5 +1,6 @@
 package com.coruja.config;
 
+import org.springframework.amqp.core.AnonymousQueue;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.Queue;
@@ -27,6 +28,10 @@ public class RabbitMQConfig {
     public static final String ALERTAS_QUEUE = "alertas_confirmados_queue";
     public static final String ALERTAS_ROUTING_KEY = "alerta.confirmado";
 
+    // --- Configuração para as Alterações de Placas Monitoradas ---
+    // Routing keys: monitoramento.placa.criada, monitoramento.placa.atualizada, monitoramento.placa.removida
+    public static final String MONITORAMENTO_PLACAS_ROUTING_KEY_PATTERN = "monitoramento.placa.*";
+
 
     /**
      * Cria o Exchange (a "sala de triagem") do tipo Topic.
@@ -71,4 +76,21 @@ public class RabbitMQConfig {
     public Binding alertasBinding(@Qualifier("alertasConfirmadosQueue") Queue queue, TopicExchange exchange) {
         return BindingBuilder.bind(queue).to(exchange).with(ALERTAS_ROUTING_KEY);
     }
+
+    /**
+     * Cria uma fila exclusiva (nome gerado, removida ao desconectar) para as alterações de placas monitoradas.
+     * Cada instância do BFF precisa receber todas as alterações, por isso a fila não é compartilhada.
+     */
+    @Bean
+    public Queue monitoramentoPlacasQueue() {
+        return new AnonymousQueue();
+    }
+
+    /**
+     * Cria a ligação (Binding) que conecta o exchange à fila de alterações de placas monitoradas.
+     */
+    @Bean
+    public Binding monitoramentoPlacasBinding(@Qualifier("monitoramentoPlacasQueue") Queue queue, TopicExchange exchange) {
+        return BindingBuilder.bind(queue).to(exchange).with(MONITORAMENTO_PLACAS_ROUTING_KEY_PATTERN);
+    }
 }
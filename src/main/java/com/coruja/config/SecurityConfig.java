@@ -1,5 +1,17 @@
 package com.coruja.config;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
@@ -23,14 +35,21 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
 
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 @EnableWebSecurity // (1) Mudou de @EnableWebFluxSecurity
 @EnableMethodSecurity // (2) Necessário para @PreAuthorize nos controllers
 public class SecurityConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
     @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}")
     private String issuerUri;
 
@@ -133,12 +152,61 @@ public class SecurityConfig {
         return bean;
     }
 
+    /**
+     * Decoder compartilhado pelo resource server (REST), pelo handshake do WebSocket e pelo CONNECT do STOMP.
+     *
+     * As chaves (JWKS) ficam em cache e são renovadas em segundo plano antes de expirar, então nenhuma
+     * requisição espera o Keycloak para buscar chaves; se o Keycloak estiver fora, as chaves atuais
+     * continuam valendo por um tempo. Tokens já validados ficam no {@link CachingJwtDecoder}.
+     */
     @Bean
-    public JwtDecoder jwtDecoder() {
+    public JwtDecoder jwtDecoder(
+            MeterRegistry meterRegistry,
+            @Value("${radares.seguranca.jwks.ttl-minutos:15}") long jwksTtlMinutos,
+            @Value("${radares.seguranca.jwks.renovacao-antecipada-segundos:60}") long jwksRenovacaoSegundos,
+            @Value("${radares.seguranca.jwks.tolerancia-indisponibilidade-minutos:60}") long jwksToleranciaMinutos,
+            @Value("${radares.seguranca.jwks.timeout-ms:2000}") int jwksTimeoutMs,
+            @Value("${radares.seguranca.jwt-cache.max-tokens:10000}") long maxTokens,
+            @Value("${radares.seguranca.jwt-cache.ttl-maximo-minutos:10}") long ttlMaximoMinutos
+    ) throws MalformedURLException {
         //return JwtDecoders.fromIssuerLocation(this.issuerUri);
         // REFATORAÇÃO: Usa NimbusJwtDecoder com a URL JWK Set diretamente.
         // Isso evita a chamada de "Discovery" no issuer-uri que estava dando timeout,
         // e usa a rota interna (host.docker.internal) para baixar as chaves.
-        return NimbusJwtDecoder.withJwkSetUri(this.jwkSetUri).build();
+        JWKSource<SecurityContext> jwkSource = JWKSourceBuilder
+                .create(URI.create(this.jwkSetUri).toURL(), new DefaultResourceRetriever(jwksTimeoutMs, jwksTimeoutMs))
+                .cache(TimeUnit.MINUTES.toMillis(jwksTtlMinutos), jwksTimeoutMs)
+                // scheduled = true: a renovação roda numa thread própria, não na requisição que encontrou o cache velho
+                .refreshAheadCache(TimeUnit.SECONDS.toMillis(jwksRenovacaoSegundos), true)
+                .outageTolerant(TimeUnit.MINUTES.toMillis(jwksToleranciaMinutos))
+                .build();
+
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        // As claims (exp, nbf...) são validadas pelo NimbusJwtDecoder, como no decoder padrão do Spring
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+
+        prefetchJwks(jwkSource);
+        return new CachingJwtDecoder(
+                new NimbusJwtDecoder(jwtProcessor),
+                maxTokens,
+                Duration.ofMinutes(ttlMaximoMinutos),
+                meterRegistry
+        );
+    }
+
+    /**
+     * Carrega as chaves em segundo plano logo na subida, para a primeira requisição não pagar o download.
+     */
+    private void prefetchJwks(JWKSource<SecurityContext> jwkSource) {
+        CompletableFuture.runAsync(() -> {
+            try {
+                int chaves = jwkSource.get(new JWKSelector(new JWKMatcher.Builder().build()), null).size();
+                log.info("🔑 [JWKS] {} chaves carregadas de {}", chaves, jwkSetUri);
+            } catch (Exception e) {
+                log.warn("⚠️ [JWKS] Pré-carga das chaves falhou; nova tentativa na primeira validação: {}", e.getMessage());
+            }
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.coruja.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aot.AotDetector;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registra quanto a aplicação levou para ficar pronta, contando desde o início da JVM.
+ *
+ * O application.ready.time do Spring Boot começa a contar no SpringApplication.run e não enxerga
+ * o carregamento de classes anterior, justamente o que o AppCDS reduz. A métrica
+ * radares.inicializacao.tempo é marcada com o modo de execução (AOT e CDS) para comparar
+ * as imagens entre deploys.
+ */
+@Component
+@Slf4j
+public class StartupTimeLogger {
+
+    private final MeterRegistry meterRegistry;
+
+    public StartupTimeLogger(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Antes do aquecimento (AquecimentoService), que também escuta o ApplicationReadyEvent
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void registrarTempo(ApplicationReadyEvent event) {
+        RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+        long totalMs = runtime.getUptime();
+        long springMs = event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : -1;
+        boolean aot = AotDetector.useGeneratedArtifacts();
+        boolean cds = runtime.getInputArguments().stream().anyMatch(arg -> arg.startsWith("-XX:SharedArchiveFile"));
+
+        TimeGauge.builder("radares.inicializacao.tempo", () -> totalMs, TimeUnit.MILLISECONDS)
+                .description("Tempo do início da JVM até a aplicação ficar pronta")
+                .tag("aot", Boolean.toString(aot))
+                .tag("cds", Boolean.toString(cds))
+                .register(meterRegistry);
+
+        log.info("🚀 [Inicialização] Pronto em {} ms desde o início da JVM ({} ms no Spring) | AOT: {} | CDS: {}",
+                totalMs, springMs, aot, cds);
+    }
+}
@@ -2,6 +2,7 @@ package com.coruja.config;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.simp.stomp.StompCommand;
@@ -10,22 +11,35 @@ import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.security.Principal;
+import java.util.Collection;
 
 @Component
 public class WebSocketAuthInterceptor implements ChannelInterceptor {
 
     private static final Logger log = LoggerFactory.getLogger(JwtHandshakeInterceptor.class);
+    private static final String TOPICO_NOTIFICACOES_LEGADO = "/topic/notificacoes/";
+    // Filas físicas dos destinos de usuário (/queue/xxx-user{sessão}); só acessíveis via /user/queue/...
+    private static final String PREFIXO_FILAS = "/queue/";
+    // Mesmo casamento de padrões usado pelo broker simples para resolver as inscrições
+    private static final AntPathMatcher MATCHER = new AntPathMatcher();
+    // Tails de logs: restritos a administradores, como a busca de logs
+    private static final String PREFIXO_TOPICO_LOGS = "/topic/logs/";
     private final JwtDecoder jwtDecoder;
+    private final KeycloakRoleConverter keycloakRoleConverter;
+    private final String claimUsuario;
 
-    public WebSocketAuthInterceptor(JwtDecoder jwtDecoder) {
+    public WebSocketAuthInterceptor(JwtDecoder jwtDecoder, KeycloakRoleConverter keycloakRoleConverter,
+                                    @Value("${radares.websocket.claim-usuario:sub}") String claimUsuario) {
         this.jwtDecoder = jwtDecoder;
+        this.keycloakRoleConverter = keycloakRoleConverter;
+        this.claimUsuario = claimUsuario;
     }
 
     @Override
@@ -33,6 +47,34 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
         StompHeaderAccessor accessor =
                 MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
 
+        if (accessor != null && StompCommand.SUBSCRIBE.equals(accessor.getCommand())
+                && accessor.getDestination() != null
+                && alcanca(accessor.getDestination(), TOPICO_NOTIFICACOES_LEGADO)) {
+            // Notificações direcionadas agora vão por /user/queue/notificacoes; o tópico antigo
+            // permitiria a qualquer cliente ler as mensagens de outro usuário
+            log.warn("⛔ [STOMP] Inscrição recusada em {} (sessão {})", accessor.getDestination(), accessor.getSessionId());
+            return null;
+        }
+
+        if (accessor != null && StompCommand.SUBSCRIBE.equals(accessor.getCommand())
+                && accessor.getDestination() != null
+                && alcanca(accessor.getDestination(), PREFIXO_FILAS)) {
+            // convertAndSendToUser entrega em /queue/<destino>-user<sessão> no broker simples: uma inscrição
+            // direta (ou um padrão como /queue/**) leria as notificações e alertas de todos os usuários.
+            // O cliente deve se inscrever em /user/queue/..., resolvido para a fila da própria sessão.
+            log.warn("⛔ [STOMP] Inscrição direta em fila recusada: {} (sessão {})", accessor.getDestination(), accessor.getSessionId());
+            return null;
+        }
+
+        if (accessor != null && StompCommand.SUBSCRIBE.equals(accessor.getCommand())
+                && accessor.getDestination() != null
+                && alcanca(accessor.getDestination(), PREFIXO_TOPICO_LOGS)
+                && !isAdmin(accessor.getUser())) {
+            log.warn("⛔ [STOMP] Inscrição em {} recusada para não administrador (sessão {})",
+                    accessor.getDestination(), accessor.getSessionId());
+            return null;
+        }
+
         if (accessor != null && StompCommand.CONNECT.equals(accessor.getCommand())) {
             log.info("🔌 [STOMP Connect] Processando comando CONNECT");
             // ✅ Tenta pegar o token de múltiplos lugares
@@ -47,35 +89,22 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
                     String token = authToken.substring(7);
                     Jwt jwt = jwtDecoder.decode(token);
 
-                    // ✅ Extrai roles do token
-                    List<String> roles = jwt.getClaimAsStringList("roles");
-                    if (roles == null) {
-                        var realmAccess = jwt.getClaimAsMap("realm_access");
-                        if (realmAccess != null && realmAccess.containsKey("roles")) {
-                            roles = (List<String>) realmAccess.get("roles");
-                        }
-                    }
-
-                    List<SimpleGrantedAuthority> authorities = roles != null
-                            ? roles.stream()
-                            .map(role -> new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()))
-                            .collect(Collectors.toList())
-                            : List.of();
+                    // ✅ Extrai roles do token (mesmo conversor memorizado do REST)
+                    Collection<GrantedAuthority> authorities = keycloakRoleConverter.convert(jwt);
 
+                    String usuario = JwtHandshakeInterceptor.nomeUsuario(jwt, claimUsuario);
                     Authentication authentication = new UsernamePasswordAuthenticationToken(
-                            jwt.getSubject(),
+                            usuario,
                             null,
                             authorities
                     );
 
                     accessor.setUser(authentication);
-                    log.info("✅ [STOMP Auth] Usuário autenticado: {} | Roles: {}", jwt.getSubject(), authorities);
-
-                    System.out.println("✅ WebSocket autenticado para usuário: " + jwt.getSubject());
+                    log.info("✅ [STOMP Auth] Usuário autenticado: {} | Roles: {}", usuario, authorities);
+                    log.debug("✅ WebSocket autenticado para usuário: {}", usuario);
 
                 } catch (Exception e) {
                     log.error("❌ [STOMP Auth] Erro ao validar token: {}", e.getMessage());
-                    System.err.println("❌ Erro ao validar token JWT: " + e.getMessage());
                     // ✅ NÃO lança exceção - permite conexão sem autenticação
                     // O SecurityConfig já protege os endpoints REST
                 }
@@ -86,4 +115,18 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
 
         return message;
     }
-}
\ No newline at end of file
+
+    /**
+     * Se a inscrição pode receber mensagens publicadas sob o prefixo protegido.
+     * O broker simples aceita padrões Ant na inscrição (ex.: /topic/** ou /topic/{id}/tail), então comparar
+     * só o início do texto deixaria passar padrões que também casam com os destinos protegidos.
+     */
+    static boolean alcanca(String destino, String prefixoProtegido) {
+        return MATCHER.matchStart(destino, prefixoProtegido);
+    }
+
+    private static boolean isAdmin(Principal usuario) {
+        return usuario instanceof Authentication authentication
+                && authentication.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+    }
+}
@@ -1,6 +1,7 @@
 package com.coruja.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
@@ -15,11 +16,15 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final JwtDecoder jwtDecoder;
     private final WebSocketAuthInterceptor webSocketAuthInterceptor;
+    // Claim do JWT usada como nome do usuário STOMP (ver JwtHandshakeInterceptor.nomeUsuario)
+    private final String claimUsuario;
 
     @Autowired
-    public WebSocketConfig(JwtDecoder jwtDecoder, WebSocketAuthInterceptor authInterceptor) {
+    public WebSocketConfig(JwtDecoder jwtDecoder, WebSocketAuthInterceptor authInterceptor,
+                           @Value("${radares.websocket.claim-usuario:sub}") String claimUsuario) {
         this.jwtDecoder = jwtDecoder;
         this.webSocketAuthInterceptor = authInterceptor;
+        this.claimUsuario = claimUsuario;
     }
 
     @Override
@@ -27,6 +32,8 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         // Habilita um broker de mensagens simples em memória.
         // Os clientes irão se inscrever em destinos que começam com "/topic".
         config.enableSimpleBroker("/topic", "/queue");
+        // Entrega as mensagens de cada sessão na ordem em que foram publicadas (header "seq" crescente)
+        config.setPreservePublishOrder(true);
         // Define o prefixo para os destinos dos endpoints que os controllers irão usar.
         config.setApplicationDestinationPrefixes("/app");
     }
@@ -36,7 +43,7 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/api/ws")
                 .setAllowedOriginPatterns("*")
                 .setHandshakeHandler(new CustomHandshakeHandler())
-                .addInterceptors(new JwtHandshakeInterceptor(jwtDecoder))
+                .addInterceptors(new JwtHandshakeInterceptor(jwtDecoder, claimUsuario))
                 .withSockJS();
     }
 
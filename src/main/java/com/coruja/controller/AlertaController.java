@@ -0,0 +1,34 @@
+package com.coruja.controller;
+
+import com.coruja.services.AlertaFanoutService;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * Entrega de alertas recentes via STOMP no momento da inscrição.
+ */
+@Controller
+@RequiredArgsConstructor
+@Slf4j
+public class AlertaController {
+
+    private final AlertaFanoutService alertaFanoutService;
+
+    /**
+     * O cliente se inscreve em /app/alertas/recentes (depois de /user/queue/confirmed-alerts) e recebe,
+     * apenas na própria sessão, os alertas recentes destinados a ele. Alertas já recebidos podem ser
+     * descartados pelo id.
+     */
+    @SubscribeMapping("/alertas/recentes")
+    public List<JsonNode> alertasRecentes(Principal principal) {
+        List<JsonNode> recentes = alertaFanoutService.recentes(principal != null ? principal.getName() : null);
+        log.info("🚨 Replay de {} alertas recentes para {}", recentes.size(), principal != null ? principal.getName() : "anônimo");
+        return recentes;
+    }
+}
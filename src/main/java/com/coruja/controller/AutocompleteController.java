@@ -0,0 +1,49 @@
+package com.coruja.controller;
+
+import com.coruja.dto.SugestaoDTO;
+import com.coruja.services.AutocompleteService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Autocomplete da barra de filtros (placas, praças e rodovias) servido por índices em memória,
+ * sem consultar os microserviços de radares.
+ */
+@RestController
+@RequestMapping("/api/radares/autocomplete")
+@RequiredArgsConstructor
+public class AutocompleteController {
+
+    private static final int LIMITE_MAXIMO = 50;
+
+    private final AutocompleteService autocompleteService;
+
+    /**
+     * Sugestões para o texto digitado.
+     * @param termo Início da placa, praça ou rodovia (acentos, hífens e maiúsculas são ignorados).
+     * @param tipos Tipos desejados: placa, praca, rodovia (opcional; padrão: todos).
+     * @param limite Quantidade máxima de sugestões (padrão: 10, máximo: 50).
+     * @return Placas vistas recentemente, da mais recente para a mais antiga, seguidas de praças e rodovias.
+     */
+    @GetMapping
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<List<SugestaoDTO>> sugerir(
+            @RequestParam String termo,
+            @RequestParam(required = false) List<String> tipos,
+            @RequestParam(defaultValue = "10") int limite
+    ) {
+        Set<String> tiposNormalizados = tipos == null ? Set.of() : tipos.stream()
+                .map(t -> t.trim().toUpperCase())
+                .collect(Collectors.toSet());
+        return ResponseEntity.ok(autocompleteService.sugerir(termo, tiposNormalizados, Math.min(limite, LIMITE_MAXIMO)));
+    }
+}
@@ -0,0 +1,81 @@
+package com.coruja.controller;
+
+import com.coruja.dto.ComboioDTO;
+import com.coruja.services.ComboioService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Controller para consulta de comboios (placas que passaram juntas nos mesmos pontos de captura)
+ * sobre a janela recente mantida em memória pelo BFF.
+ */
+@RestController
+@RequestMapping("/api/radares/comboios")
+@RequiredArgsConstructor
+@Slf4j
+public class ComboioController {
+
+    private static final int LIMITE_MAXIMO = 500;
+
+    private final ComboioService comboioService;
+
+    /**
+     * Lista as placas que acompanharam a placa informada.
+     * @param placa Placa de referência.
+     * @param toleranciaSegundos Diferença máxima entre as passagens em um mesmo ponto (padrão: 30).
+     * @param minimoPontos Quantidade mínima de pontos em comum (padrão: 2).
+     * @param limite Quantidade máxima de placas retornadas (padrão: 50, entre 1 e 500).
+     * @return Comboios do maior para o menor número de pontos em comum.
+     */
+    @GetMapping("/{placa}")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<List<ComboioDTO>> consultar(
+            @PathVariable String placa,
+            @RequestParam(defaultValue = "30") long toleranciaSegundos,
+            @RequestParam(defaultValue = "2") int minimoPontos,
+            @RequestParam(defaultValue = "50") int limite
+    ) {
+        int limiteAjustado = Math.min(Math.max(limite, 1), LIMITE_MAXIMO);
+        List<ComboioDTO> result = comboioService.consultar(placa, toleranciaSegundos, minimoPontos, limiteAjustado);
+        log.info("🚗🚗 [API] Comboios de {}: {} placas", placa, result.size());
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Lista as placas com detecção de comboio em tempo real (publicada em /topic/comboios).
+     */
+    @GetMapping("/acompanhadas")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<List<String>> listarAcompanhadas() {
+        return ResponseEntity.ok(comboioService.listarAcompanhadas());
+    }
+
+    /**
+     * Inicia a detecção de comboio em tempo real para a placa.
+     * @return 201 (CREATED) ou 200 (OK) se a placa já estava em acompanhamento.
+     */
+    @PostMapping("/acompanhadas/{placa}")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<Void> acompanhar(@PathVariable String placa) {
+        boolean criada = comboioService.acompanhar(placa);
+        return ResponseEntity.status(criada ? HttpStatus.CREATED : HttpStatus.OK).build();
+    }
+
+    /**
+     * Encerra a detecção de comboio em tempo real para a placa.
+     * @return 204 (NO CONTENT) ou 404 (NOT FOUND) se a placa não estava em acompanhamento.
+     */
+    @DeleteMapping("/acompanhadas/{placa}")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<Void> removerAcompanhamento(@PathVariable String placa) {
+        return comboioService.removerAcompanhamento(placa)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
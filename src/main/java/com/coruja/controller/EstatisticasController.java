@@ -0,0 +1,90 @@
+package com.coruja.controller;
+
+import com.coruja.dto.FluxoHistoricoDTO;
+import com.coruja.dto.FluxoVeiculosDTO;
+import com.coruja.services.FluxoHistoricoService;
+import com.coruja.services.FluxoVeiculosService;
+import com.coruja.util.PassagemUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Controller de estatísticas de tráfego calculadas no próprio BFF,
+ * sem consultar os microserviços de radares.
+ */
+@RestController
+@RequestMapping("/api/radares/estatisticas")
+@RequiredArgsConstructor
+@Slf4j
+public class EstatisticasController {
+
+    private final FluxoVeiculosService fluxoVeiculosService;
+    private final FluxoHistoricoService fluxoHistoricoService;
+
+    /**
+     * Fluxo de veículos por praça/rodovia (último minuto, última hora e séries opcionais).
+     * O mesmo resumo, sem séries, é publicado periodicamente em /topic/fluxo.
+     * @param concessionaria Filtra por concessionária (opcional).
+     * @param praca Filtra por praça (opcional).
+     * @param rodovia Filtra por rodovia (opcional).
+     * @param series Se true, inclui séries por minuto e por hora (padrão: false).
+     * @return Fluxo de cada praça/rodovia, do maior para o menor volume na última hora.
+     */
+    @GetMapping("/fluxo")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<List<FluxoVeiculosDTO>> consultarFluxo(
+            @RequestParam(required = false) String concessionaria,
+            @RequestParam(required = false) String praca,
+            @RequestParam(required = false) String rodovia,
+            @RequestParam(defaultValue = "false") boolean series
+    ) {
+        log.info("📈 Consultando fluxo de veículos");
+        return ResponseEntity.ok(fluxoVeiculosService.consultar(concessionaria, praca, rodovia, series));
+    }
+
+    /**
+     * Série histórica de fluxo de veículos a partir dos agregados gravados localmente.
+     * @param granularidade minuto, hora ou dia (padrão: hora).
+     * @param inicio Início do intervalo, inclusivo (padrão: 24 horas atrás).
+     * @param fim Fim do intervalo, exclusivo (padrão: agora).
+     * @param concessionaria Filtra por concessionária (opcional).
+     * @param praca Filtra por praça (opcional).
+     * @param rodovia Filtra por rodovia (opcional).
+     * @return Pontos da série ordenados por período.
+     */
+    @GetMapping("/historico")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<List<FluxoHistoricoDTO>> consultarHistorico(
+            @RequestParam(defaultValue = "hora") String granularidade,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestParam(required = false) String concessionaria,
+            @RequestParam(required = false) String praca,
+            @RequestParam(required = false) String rodovia
+    ) {
+        FluxoHistoricoService.Granularidade g;
+        try {
+            g = FluxoHistoricoService.Granularidade.valueOf(granularidade.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            log.warn("Granularidade inválida: {}", granularidade);
+            return ResponseEntity.badRequest().build();
+        }
+        LocalDateTime fimConsulta = fim != null ? fim : LocalDateTime.now(PassagemUtils.zona());
+        LocalDateTime inicioConsulta = inicio != null ? inicio : fimConsulta.minusHours(24);
+
+        log.info("📊 Consultando histórico de fluxo ({}) de {} a {}", g, inicioConsulta, fimConsulta);
+        return ResponseEntity.ok(fluxoHistoricoService.consultar(
+                g, inicioConsulta, fimConsulta, concessionaria, praca, rodovia
+        ));
+    }
+}
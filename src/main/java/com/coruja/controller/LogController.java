@@ -1,33 +1,52 @@
 package com.coruja.controller;
 
+import com.coruja.dto.LogAnaliseDTO;
+import com.coruja.dto.LogPageDTO;
+import com.coruja.dto.LogTailDTO;
+import com.coruja.services.LogAnaliseService;
 import com.coruja.services.LogService;
+import com.coruja.services.LogTailService;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Controller para busca de logs no Elasticsearch.
  */
 @RestController
 @RequestMapping("/api/logs")
+@Slf4j
 public class LogController {
+    private static final int TAMANHO_MAXIMO = 1000;
+
     private final LogService logService;
+    private final LogAnaliseService logAnaliseService;
+    private final LogTailService logTailService;
 
     @Autowired
-    public LogController(LogService logService) {
+    public LogController(LogService logService, LogAnaliseService logAnaliseService, LogTailService logTailService) {
         this.logService = logService;
+        this.logAnaliseService = logAnaliseService;
+        this.logTailService = logTailService;
     }
 
     /**
      * Busca logs no Elasticsearch com paginação.
+     * As buscas de log são assíncronas: a thread do Tomcat é liberada enquanto o Elasticsearch responde.
      * @param query Query de busca (padrão: "*" para todos).
      * @param page Número da página (padrão: 0).
      * @param size Tamanho da página (padrão: 50).
@@ -35,12 +54,113 @@ public class LogController {
      */
     @GetMapping("/search")
     @PreAuthorize("hasAnyRole('ADMIN')")
-    public ResponseEntity<Object> searchLogs(
+    public CompletableFuture<ResponseEntity<Object>> searchLogs(
             @RequestParam(defaultValue = "*") String query,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "50") int size
     ) {
-        List<Map<String, Object>> result = (List<Map<String, Object>>) logService.searchLogs(query, page, size);
-        return ResponseEntity.ok(result);
+        return logService.searchLogs(query, page, size)
+                .<ResponseEntity<Object>>thenApply(ResponseEntity::ok)
+                .exceptionally(LogController::falha);
+    }
+
+    /**
+     * Busca logs paginando por cursor, sem o limite de profundidade da paginação por página.
+     * A primeira chamada informa a query; as seguintes só reenviam o cursor recebido.
+     * @param query Query de busca (padrão: "*" para todos), ignorada quando há cursor.
+     * @param size Tamanho da página (padrão: 50, máximo: 1000).
+     * @param cursor Cursor devolvido pela página anterior (opcional).
+     * @return Logs da página e o cursor da próxima (nulo quando não há mais logs).
+     *         400 se o cursor for inválido, 410 se ele expirou.
+     */
+    @GetMapping("/search/cursor")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public CompletableFuture<ResponseEntity<LogPageDTO>> searchLogsCursor(
+            @RequestParam(defaultValue = "*") String query,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String cursor
+    ) {
+        return logService.searchLogsCursor(query, Math.max(1, Math.min(size, TAMANHO_MAXIMO)), cursor)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(e -> {
+                    Throwable causa = LogService.causa(e);
+                    if (causa instanceof IllegalArgumentException) {
+                        log.warn("Cursor de logs recusado: {}", causa.getMessage());
+                        return ResponseEntity.badRequest().build();
+                    }
+                    if (causa instanceof IllegalStateException) {
+                        log.info("Cursor de logs expirado");
+                        return ResponseEntity.status(HttpStatus.GONE).build();
+                    }
+                    return falha(e);
+                });
+    }
+
+    /**
+     * Visão geral dos logs de um intervalo, calculada no Elasticsearch: histograma por nível,
+     * loggers e tipos de exceção mais frequentes. Consultas idênticas são servidas do cache por alguns segundos.
+     * @param query Query de busca (padrão: "*" para todos).
+     * @param inicio Início do intervalo, inclusivo (padrão: 1 hora antes do fim).
+     * @param fim Fim do intervalo, exclusivo (padrão: agora).
+     * @param intervalo Largura de cada intervalo do histograma em segundos (opcional; padrão: até 120 intervalos).
+     *                  Valores que gerariam mais de 120 intervalos são aumentados até esse limite.
+     * @param top Quantidade de loggers e de exceções (padrão: 10, máximo: 100).
+     * @return Contagens agregadas do intervalo.
+     */
+    @GetMapping("/analise")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public CompletableFuture<ResponseEntity<LogAnaliseDTO>> analisarLogs(
+            @RequestParam(defaultValue = "*") String query,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestParam(required = false) Long intervalo,
+            @RequestParam(defaultValue = "10") int top
+    ) {
+        if (inicio != null && fim != null && !inicio.isBefore(fim)) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        return logAnaliseService.analisar(query, inicio, fim, intervalo, Math.max(1, Math.min(top, 100)))
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(LogController::falha);
+    }
+
+    /**
+     * Abre um tail de logs ao vivo para a query (ou reaproveita o existente).
+     * O cliente deve se inscrever no destino devolvido; os logs novos chegam em lotes a cada poucos segundos.
+     * O tail é encerrado quando fica sem inscritos.
+     * @param query Query de busca (padrão: "*" para todos).
+     * @return Identificador e destino STOMP do tail; 429 se o limite de tails simultâneos foi atingido.
+     */
+    @PostMapping("/tail")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<LogTailDTO> abrirTail(@RequestParam(defaultValue = "*") String query) {
+        try {
+            return ResponseEntity.ok(logTailService.abrir(query));
+        } catch (IllegalStateException e) {
+            log.warn("Tail de logs recusado: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+    }
+
+    /**
+     * Lista os tails de logs ativos e quantos clientes acompanham cada um.
+     */
+    @GetMapping("/tail")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<List<LogTailDTO>> listarTails() {
+        return ResponseEntity.ok(logTailService.listar());
+    }
+
+    /**
+     * Elasticsearch lento além do prazo vira 504; as demais falhas seguem como erro interno.
+     */
+    private static <T> ResponseEntity<T> falha(Throwable e) {
+        Throwable causa = LogService.causa(e);
+        if (causa instanceof TimeoutException) {
+            log.warn("⏱️ Busca de logs excedeu o prazo");
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+        }
+        log.error("Falha na busca de logs: {}", causa.getMessage());
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
     }
 }
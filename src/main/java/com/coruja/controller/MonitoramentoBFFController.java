@@ -1,17 +1,27 @@
 package com.coruja.controller;
 
 import com.coruja.dto.AlertaPassagemDTO;
+import com.coruja.dto.MonitoramentoLoteItemDTO;
+import com.coruja.dto.MonitoramentoLoteRespostaDTO;
 import com.coruja.dto.PlacaMonitoradaDTO;
 import com.coruja.services.MonitoramentoBFFService;
+import com.coruja.services.MonitoramentoLoteService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.util.List;
+
 /**
  * Controller BFF para operações relacionadas ao monitoramento de placas.
  */
@@ -19,9 +29,11 @@ import reactor.core.publisher.Mono;
 @RestController
 @RequestMapping("/api/monitoramento")
 @RequiredArgsConstructor
+@Slf4j
 public class MonitoramentoBFFController {
 
     private final MonitoramentoBFFService service;
+    private final MonitoramentoLoteService loteService;
 
     /**
      * Lista todas as placas monitoradas com paginação.
@@ -98,4 +110,51 @@ public class MonitoramentoBFFController {
         Page<AlertaPassagemDTO> result = service.listarAlertas(pageable);
         return ResponseEntity.ok(result);
     }
+
+    /**
+     * Cria, atualiza ou remove placas monitoradas em lote, com paralelismo limitado.
+     * Itens REMOVER só são executados para usuários ADMIN.
+     * @param itens Lista de operações (operacao: CRIAR, ATUALIZAR ou REMOVER).
+     * @return Resumo e resultado de cada item, na ordem da entrada.
+     */
+    @PostMapping(value = "/lote", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<MonitoramentoLoteRespostaDTO> executarLote(
+            @RequestBody List<MonitoramentoLoteItemDTO> itens,
+            Authentication authentication
+    ) {
+        try {
+            return ResponseEntity.ok(loteService.executar(itens, isAdmin(authentication)));
+        } catch (IllegalArgumentException e) {
+            log.warn("Lote de monitoramento recusado: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Importa um CSV (com cabeçalho) de operações sobre placas monitoradas.
+     * Colunas: operacao, id, placa, marcaModelo, cor, motivo, statusAtivo, observacao, interessado.
+     * @param arquivo Arquivo CSV separado por vírgula ou ponto e vírgula.
+     * @return Resumo e resultado de cada linha de dados.
+     */
+    @PostMapping(value = "/lote", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<MonitoramentoLoteRespostaDTO> importarCsv(
+            @RequestParam("arquivo") MultipartFile arquivo,
+            Authentication authentication
+    ) throws IOException {
+        try {
+            List<MonitoramentoLoteItemDTO> itens = loteService.lerCsv(arquivo.getInputStream());
+            log.info("📦 Importando CSV '{}' com {} linhas", arquivo.getOriginalFilename(), itens.size());
+            return ResponseEntity.ok(loteService.executar(itens, isAdmin(authentication)));
+        } catch (IllegalArgumentException e) {
+            log.warn("CSV de monitoramento recusado: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+    }
 }
@@ -1,11 +1,11 @@
 package com.coruja.controller;
 
 import com.coruja.dto.NotificationMessage;
+import com.coruja.services.UserNotificationDispatcher;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.SendTo;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 
@@ -13,10 +13,13 @@ import org.springframework.stereotype.Controller;
 @Slf4j
 public class NotificationController {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    // Destino de usuário: o cliente se inscreve em /user/queue/notificacoes
+    public static final String DESTINO_NOTIFICACOES = "/queue/notificacoes";
 
-    public NotificationController(SimpMessagingTemplate messagingTemplate) {
-        this.messagingTemplate = messagingTemplate;
+    private final UserNotificationDispatcher notificationDispatcher;
+
+    public NotificationController(UserNotificationDispatcher notificationDispatcher) {
+        this.notificationDispatcher = notificationDispatcher;
     }
 
     // 🔥 Envia para todos inscritos em /topic/notificacoes
@@ -29,7 +32,7 @@ public class NotificationController {
     }
 
     // 🔥 Envia mensagem APENAS para um usuário específico
-    // Frontend envia para /app/notify-user/{userId}
+    // Frontend envia para /app/notify-user/{userId} e o destinatário recebe em /user/queue/notificacoes
     @MessageMapping("/notify-user/{userId}")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     public void notifyUser(
@@ -38,10 +41,8 @@ public class NotificationController {
     ) {
         log.info("📬 Enviando mensagem para o usuário {}", userId);
 
-        messagingTemplate.convertAndSend(
-                "/topic/notificacoes/" + userId,
-                msg
-        );
+        // Nomes de usuário STOMP são o login do Keycloak em minúsculas
+        notificationDispatcher.enviar(userId.toLowerCase(), DESTINO_NOTIFICACOES, msg);
     }
 
     // 🔥 Apenas echo (pra testes)
@@ -0,0 +1,52 @@
+package com.coruja.controller;
+
+import com.coruja.dto.RadarStatusEventoDTO;
+import com.coruja.services.RadarSilencioService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller para o estado de funcionamento dos pontos de captura (radares/praças).
+ * Os mesmos eventos são publicados em tempo real no tópico /topic/radar-status.
+ */
+@RestController
+@RequestMapping("/api/radares/status")
+@RequiredArgsConstructor
+@Slf4j
+public class RadarStatusController {
+
+    private final RadarSilencioService radarSilencioService;
+
+    /**
+     * Lista os pontos que estão sem enviar passagens além da cadência esperada.
+     * @return Pontos silenciosos com a duração atual do silêncio.
+     */
+    @GetMapping("/silenciosos")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<List<RadarStatusEventoDTO>> listarSilenciosos() {
+        List<RadarStatusEventoDTO> result = radarSilencioService.listarSilenciosos();
+        log.info("🔇 [API] {} pontos silenciosos", result.size());
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Lista os eventos recentes de silêncio e recuperação.
+     * @param limite Quantidade máxima de eventos (padrão: 100).
+     * @return Eventos do mais recente para o mais antigo.
+     */
+    @GetMapping("/eventos")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<List<RadarStatusEventoDTO>> listarEventos(
+            @RequestParam(defaultValue = "100") int limite
+    ) {
+        return ResponseEntity.ok(radarSilencioService.listarEventosRecentes(limite));
+    }
+}
@@ -1,9 +1,12 @@
 package com.coruja.controller;
 
+import com.coruja.dto.BuscaAproximadaDTO;
+import com.coruja.dto.CatalogoConcessionariaDTO;
 import com.coruja.dto.FilterOptionsDTO;
 import com.coruja.dto.RadarDTO;
 import com.coruja.dto.RadarPageDTO;
 import com.coruja.dto.RadarPageResponse;
+import com.coruja.dto.RealtimeSyncDTO;
 import com.coruja.services.RadarsBFFService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -48,6 +51,27 @@ public class RadarsBFFController {
     }
 
 
+    /**
+     * Busca por placa tolerante a erros de OCR (O/0, I/1, B/8 e um caractere trocado, faltando ou sobrando).
+     * Pesquisa a placa informada e as placas parecidas vistas recentemente pelo BFF, cada uma por placa exata.
+     * @param placa A placa consultada.
+     * @param candidatas Quantidade máxima de placas parecidas pesquisadas além da informada (padrão: 5, máximo: 20).
+     * @return Candidatas encontradas e a página de passagens de todas as placas pesquisadas.
+     */
+    @GetMapping("/placa/{placa}/aproximada")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<BuscaAproximadaDTO> buscarPorPlacaAproximada(
+            @PathVariable String placa,
+            @RequestParam(defaultValue = "5") int candidatas,
+            Pageable pageable
+    ) {
+        log.info("🔎 Buscando placa aproximada: {}", placa);
+        BuscaAproximadaDTO result = radarsBFFService.buscarPorPlacaAproximada(
+                placa, Math.max(0, Math.min(candidatas, 20)), pageable
+        );
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Endpoint genérico que pode buscar em todas ou em concessionárias específicas.
      * @param concessionaria Lista de concessionárias para filtrar (opcional).
@@ -143,6 +167,18 @@ public class RadarsBFFController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Catálogo de filtros (rodovias, praças, sentidos e KMs por rodovia) de todas as concessionárias.
+     * Servido da memória do BFF, sem chamar os microserviços; concessionárias ainda não carregadas
+     * vêm com listas vazias e atualizadoEm nulo.
+     * @return Catálogo de cada concessionária.
+     */
+    @GetMapping("/catalogo")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<List<CatalogoConcessionariaDTO>> getCatalogo() {
+        return ResponseEntity.ok(radarsBFFService.getCatalogo());
+    }
+
     /**
      * Retorna os últimos radares processados (do cache em memória).
      * Útil para dashboards e monitoramento em tempo real.
@@ -162,6 +198,26 @@ public class RadarsBFFController {
         }
     }
 
+    /**
+     * Ressincroniza um cliente WebSocket após reconexão.
+     * O cliente envia a última sequência (header "seq") e época (header "seq-epoca") recebidas
+     * e recebe apenas as mensagens perdidas, ou um snapshot completo se ficou fora da janela retida.
+     * @param desde Última sequência recebida pelo cliente (opcional).
+     * @param epoca Época da instância que gerou essa sequência (opcional).
+     * @return Deltas perdidos ou snapshot dos últimos radares.
+     */
+    @GetMapping("/tempo-real/sincronizar")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<RealtimeSyncDTO> sincronizarTempoReal(
+            @RequestParam(required = false) Long desde,
+            @RequestParam(required = false) String epoca
+    ) {
+        RealtimeSyncDTO result = radarsBFFService.sincronizarTempoReal(desde, epoca);
+        log.info("🔄 [API] Ressincronização desde {}: snapshot={}, deltas={}",
+                desde, result.isSnapshotCompleto(), result.getDeltas().size());
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Exporta todos os dados de uma busca para Excel.
      * Não utiliza paginação - retorna todos os resultados de uma vez.
@@ -0,0 +1,71 @@
+package com.coruja.controller;
+
+import com.coruja.dto.TrajetoriaDTO;
+import com.coruja.dto.TrechoEstatisticaDTO;
+import com.coruja.dto.TrechoPercorridoDTO;
+import com.coruja.services.TrajetoriaService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller de trajetórias por placa e velocidade média por trecho de rodovia.
+ * Os outliers também são publicados em tempo real no tópico /topic/trechos/outliers.
+ */
+@RestController
+@RequestMapping("/api/radares/trajetorias")
+@RequiredArgsConstructor
+@Slf4j
+public class TrajetoriaController {
+
+    private final TrajetoriaService trajetoriaService;
+
+    /**
+     * Última posição e trechos recentes percorridos pela placa.
+     * @param placa Placa do veículo.
+     * @return 404 (NOT FOUND) se a placa não passou recentemente.
+     */
+    @GetMapping("/{placa}")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<TrajetoriaDTO> consultarTrajetoria(@PathVariable String placa) {
+        TrajetoriaDTO result = trajetoriaService.consultarTrajetoria(placa);
+        return result != null ? ResponseEntity.ok(result) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Estatísticas de velocidade por trecho.
+     * @param rodovia Filtra por rodovia (opcional).
+     * @param minimoAmostras Quantidade mínima de travessias do trecho (padrão: 1).
+     * @return Trechos do mais para o menos percorrido.
+     */
+    @GetMapping("/trechos")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<List<TrechoEstatisticaDTO>> listarTrechos(
+            @RequestParam(required = false) String rodovia,
+            @RequestParam(defaultValue = "1") int minimoAmostras
+    ) {
+        List<TrechoEstatisticaDTO> result = trajetoriaService.listarTrechos(rodovia, minimoAmostras);
+        log.info("🛣️ [API] {} trechos com estatística", result.size());
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Últimas travessias com velocidade fora do padrão do trecho.
+     * @param limite Quantidade máxima de registros (padrão: 100).
+     */
+    @GetMapping("/outliers")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<List<TrechoPercorridoDTO>> listarOutliers(
+            @RequestParam(defaultValue = "100") int limite
+    ) {
+        return ResponseEntity.ok(trajetoriaService.listarOutliers(limite));
+    }
+}
@@ -0,0 +1,21 @@
+package com.coruja.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultado da busca de placa tolerante a erros de OCR: as placas pesquisadas
+ * (a consultada e as candidatas) e as passagens encontradas por busca exata de cada uma.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BuscaAproximadaDTO {
+    private String placa;
+    private List<String> placasPesquisadas;
+    private List<PlacaCandidataDTO> candidatas;
+    private RadarPageDTO resultado;
+}
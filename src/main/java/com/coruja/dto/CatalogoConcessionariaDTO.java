@@ -0,0 +1,26 @@
+package com.coruja.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Catálogo de valores de filtro de uma concessionária (rodovias, praças, KMs e sentidos),
+ * mantido em memória pelo BFF e atualizado em segundo plano.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogoConcessionariaDTO {
+    private String concessionaria;
+    private FilterOptionsDTO opcoes;
+    private Map<String, List<String>> kmsPorRodovia;
+    // null enquanto a primeira carga não terminou
+    private LocalDateTime atualizadoEm;
+    // true quando a última atualização falhou e os dados servidos são da carga anterior
+    private boolean desatualizado;
+}
@@ -0,0 +1,21 @@
+package com.coruja.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Placa que acompanhou a placa de referência em um ou mais pontos de captura
+ * dentro da tolerância de tempo consultada.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ComboioDTO {
+    private String placaReferencia;
+    private String placa;
+    private int pontosEmComum;
+    private List<ComboioOcorrenciaDTO> ocorrencias;
+}
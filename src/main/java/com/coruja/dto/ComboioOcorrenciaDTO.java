@@ -0,0 +1,31 @@
+package com.coruja.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Uma coincidência entre a placa de referência e outra placa no mesmo ponto de captura.
+ * diferencaSegundos é positiva quando a outra placa passou depois da referência.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ComboioOcorrenciaDTO {
+    private String concessionaria;
+    private String praca;
+    private String rodovia;
+    private String km;
+    private String sentido;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime passagemReferencia;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime passagem;
+
+    private long diferencaSegundos;
+}
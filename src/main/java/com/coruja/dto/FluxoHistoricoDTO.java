@@ -0,0 +1,25 @@
+package com.coruja.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ponto de uma série histórica de fluxo de veículos (minuto, hora ou dia).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FluxoHistoricoDTO {
+    private String concessionaria;
+    private String praca;
+    private String rodovia;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm")
+    private LocalDateTime inicio;
+
+    private long veiculos;
+}
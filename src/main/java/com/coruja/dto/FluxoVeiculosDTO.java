@@ -0,0 +1,39 @@
+package com.coruja.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Fluxo de veículos de uma praça/rodovia de uma concessionária, calculado em memória
+ * a partir das passagens recebidas em tempo real.
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FluxoVeiculosDTO {
+    private String concessionaria;
+    private String praca;
+    private String rodovia;
+
+    // Último minuto completo
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm")
+    private LocalDateTime minutoReferencia;
+    private long veiculosUltimoMinuto;
+    private long veiculosMinutoAtual;
+
+    // Janela deslizante dos últimos 60 minutos completos
+    private long veiculosUltimaHora;
+    private double mediaVeiculosPorMinuto;
+
+    // Séries do mais antigo para o mais recente (só quando solicitadas)
+    private List<Long> serieMinutos;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm")
+    private LocalDateTime horaReferencia;
+    private List<Long> serieHoras;
+}
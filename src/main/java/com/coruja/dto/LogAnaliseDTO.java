@@ -0,0 +1,26 @@
+package com.coruja.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Visão geral dos logs de um intervalo, calculada por agregações no Elasticsearch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LogAnaliseDTO {
+    private LocalDateTime inicio;
+    private LocalDateTime fim;
+    // Largura de cada intervalo do histograma (ex.: "1m", "1h")
+    private String intervalo;
+    private long total;
+    private List<LogContagemDTO> niveis;
+    private List<LogHistogramaDTO> histograma;
+    private List<LogContagemDTO> topLoggers;
+    private List<LogContagemDTO> topExcecoes;
+}
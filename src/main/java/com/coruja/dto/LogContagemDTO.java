@@ -0,0 +1,16 @@
+package com.coruja.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Quantidade de logs de um valor (logger, tipo de exceção ou nível).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LogContagemDTO {
+    private String valor;
+    private long quantidade;
+}
@@ -0,0 +1,20 @@
+package com.coruja.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Um intervalo do histograma de logs, com a quantidade por nível (INFO, WARN, ERROR...).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LogHistogramaDTO {
+    private LocalDateTime inicio;
+    private long total;
+    private Map<String, Long> porNivel;
+}
@@ -0,0 +1,20 @@
+package com.coruja.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Página de logs paginada por cursor.
+ * O cursor é opaco: basta reenviá-lo para obter a página seguinte; é nulo quando não há mais logs.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LogPageDTO {
+    private List<Map<String, Object>> logs;
+    private String cursor;
+}
@@ -0,0 +1,18 @@
+package com.coruja.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Tail de logs ao vivo: o cliente se inscreve no destino STOMP para receber os logs novos da query.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LogTailDTO {
+    private String id;
+    private String query;
+    private String destino;
+    private int assinantes;
+}
@@ -0,0 +1,61 @@
+package com.coruja.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Item de uma operação em lote sobre placas monitoradas.
+ * operacao: CRIAR (exige placa), ATUALIZAR (exige id) ou REMOVER (exige id). Padrão: CRIAR.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonitoramentoLoteItemDTO {
+    private String operacao;
+    private Long id;
+    private String placa;
+    private String marcaModelo;
+    private String cor;
+    private String motivo;
+    private Boolean statusAtivo;
+    private String observacao;
+    private String interessado;
+    // Erro encontrado ao ler o item (ex.: id inválido no CSV); o item é recusado sem chamar o serviço
+    @JsonIgnore
+    private String erroLeitura;
+
+    /**
+     * Registro novo (CRIAR): campos ausentes ficam vazios e statusAtivo assume true.
+     */
+    public PlacaMonitoradaDTO paraPlacaMonitorada() {
+        PlacaMonitoradaDTO dto = new PlacaMonitoradaDTO();
+        dto.setId(id);
+        dto.setPlaca(placa);
+        dto.setMarcaModelo(marcaModelo);
+        dto.setCor(cor);
+        dto.setMotivo(motivo);
+        dto.setStatusAtivo(statusAtivo == null || statusAtivo);
+        dto.setObservacao(observacao);
+        dto.setInteressado(interessado);
+        return dto;
+    }
+
+    /**
+     * Atualização (ATUALIZAR): aplica sobre o registro atual somente os campos informados no item,
+     * para que colunas ausentes do lote não apaguem dados já cadastrados.
+     */
+    public PlacaMonitoradaDTO mesclarCom(PlacaMonitoradaDTO atual) {
+        PlacaMonitoradaDTO dto = new PlacaMonitoradaDTO();
+        dto.setId(id);
+        dto.setPlaca(placa != null ? placa : atual.getPlaca());
+        dto.setMarcaModelo(marcaModelo != null ? marcaModelo : atual.getMarcaModelo());
+        dto.setCor(cor != null ? cor : atual.getCor());
+        dto.setMotivo(motivo != null ? motivo : atual.getMotivo());
+        dto.setStatusAtivo(statusAtivo != null ? statusAtivo : atual.isStatusAtivo());
+        dto.setObservacao(observacao != null ? observacao : atual.getObservacao());
+        dto.setInteressado(interessado != null ? interessado : atual.getInteressado());
+        return dto;
+    }
+}
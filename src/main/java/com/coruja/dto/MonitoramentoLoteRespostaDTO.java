@@ -0,0 +1,21 @@
+package com.coruja.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resumo de uma operação em lote com o resultado de cada item, na mesma ordem da entrada.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonitoramentoLoteRespostaDTO {
+    private int total;
+    private int sucessos;
+    private int falhas;
+    private long duracaoMs;
+    private List<MonitoramentoLoteResultadoDTO> resultados;
+}
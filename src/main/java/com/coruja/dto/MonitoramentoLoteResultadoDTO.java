@@ -0,0 +1,22 @@
+package com.coruja.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de um item do lote. indice é a posição do item na lista (ou linha de dados do CSV), a partir de 0.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MonitoramentoLoteResultadoDTO {
+    private int indice;
+    private String operacao;
+    private String placa;
+    private Long id;
+    private boolean sucesso;
+    private String erro;
+}
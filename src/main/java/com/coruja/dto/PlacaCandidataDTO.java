@@ -0,0 +1,23 @@
+package com.coruja.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Placa vista recentemente que pode ser uma leitura (OCR) diferente da placa consultada.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlacaCandidataDTO {
+    private String placa;
+    // Edições (troca, inclusão ou remoção de caractere) além das confusões de OCR; 0 = difere só em O/0, I/1, B/8
+    private int distancia;
+    // Posições em que a candidata difere da consulta por uma confusão de OCR
+    private int confusoes;
+    private String concessionaria;
+    private LocalDateTime ultimaPassagem;
+}
@@ -25,4 +25,7 @@ public class RadarDTO {
     private String sentido;
     private String concessionaria;
 
+    // Marcada pelo BFF quando a placa está entre as monitoradas ativas
+    private boolean monitorada;
+
 }
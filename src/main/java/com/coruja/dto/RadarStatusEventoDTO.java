@@ -0,0 +1,34 @@
+package com.coruja.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento de mudança de estado de um ponto de captura (radar/praça).
+ * tipo: SILENCIOSO quando o ponto deixa de enviar passagens dentro da cadência esperada,
+ * RECUPERADO quando volta a enviar.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RadarStatusEventoDTO {
+    private String tipo;
+    private String concessionaria;
+    private String praca;
+    private String rodovia;
+    private String km;
+    private String sentido;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime ultimaPassagem;
+
+    private long silencioSegundos;
+    private long intervaloMedioSegundos;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime timestamp;
+}
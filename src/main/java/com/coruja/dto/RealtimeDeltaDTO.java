@@ -0,0 +1,23 @@
+package com.coruja.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Uma mensagem já enviada pelo WebSocket, guardada no log de deltas para ressincronização.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RealtimeDeltaDTO {
+    private long sequencia;
+    private String destino;
+    private Object payload;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime timestamp;
+}
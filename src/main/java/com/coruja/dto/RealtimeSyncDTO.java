@@ -0,0 +1,23 @@
+package com.coruja.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resposta da ressincronização de um cliente de tempo real.
+ * Quando snapshotCompleto é true, ultimosRadares traz o estado atual e deltas vem vazio;
+ * caso contrário, deltas traz apenas as mensagens perdidas desde a sequência informada.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RealtimeSyncDTO {
+    private String epoca;
+    private long sequencia;
+    private boolean snapshotCompleto;
+    private List<RadarDTO> ultimosRadares;
+    private List<RealtimeDeltaDTO> deltas;
+}
@@ -0,0 +1,23 @@
+package com.coruja.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Sugestão de autocomplete para a barra de filtros.
+ * Para placas, ultimaPassagem traz a passagem mais recente vista pelo BFF; para praças e rodovias é nula.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SugestaoDTO {
+    // PLACA, PRACA ou RODOVIA
+    private String tipo;
+    private String valor;
+    private List<String> concessionarias;
+    private LocalDateTime ultimaPassagem;
+}
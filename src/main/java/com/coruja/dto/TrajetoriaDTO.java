@@ -0,0 +1,19 @@
+package com.coruja.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Última posição conhecida de uma placa e os trechos percorridos mais recentes (do mais antigo para o mais novo).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrajetoriaDTO {
+    private String placa;
+    private RadarDTO ultimaPassagem;
+    private List<TrechoPercorridoDTO> trechos;
+}
@@ -0,0 +1,23 @@
+package com.coruja.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Estatística de velocidade de um trecho (par de marcos quilométricos de uma rodovia, no sentido percorrido).
+ * Média e desvio são móveis, ponderando mais as travessias recentes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrechoEstatisticaDTO {
+    private String rodovia;
+    private String kmOrigem;
+    private String kmDestino;
+    private double distanciaKm;
+    private long amostras;
+    private double velocidadeMediaKmh;
+    private double desvioPadraoKmh;
+    private long tempoMedioSegundos;
+}
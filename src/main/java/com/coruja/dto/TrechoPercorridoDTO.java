@@ -0,0 +1,39 @@
+package com.coruja.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Trecho percorrido por uma placa entre duas passagens consecutivas na mesma rodovia.
+ * outlier: DESVIO quando a velocidade foge da média do trecho, VELOCIDADE_IMPOSSIVEL quando
+ * ultrapassa o limite físico configurado (indício de placa clonada); nulo quando normal.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TrechoPercorridoDTO {
+    private String placa;
+    private String concessionaria;
+    private String rodovia;
+    private String kmOrigem;
+    private String kmDestino;
+    private String sentido;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime passagemOrigem;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime passagemDestino;
+
+    private double distanciaKm;
+    private long tempoSegundos;
+    private double velocidadeKmh;
+    private Double velocidadeMediaTrechoKmh;
+    private String outlier;
+}
@@ -0,0 +1,156 @@
+package com.coruja.services;
+
+import com.coruja.dto.AlertaPassagemDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Distribuição dos alertas confirmados pelo serviço de monitoramento.
+ *
+ * Cada alerta é interpretado uma única vez, redeliveries do RabbitMQ são descartadas e o alerta
+ * vai para os destinos de usuário (/user/queue/confirmed-alerts) dos interessados da placa.
+ * Por padrão todos os alertas continuam também no tópico compartilhado /topic/confirmed-alerts;
+ * com radares.alertas.difundir-todos=false só os alertas sem interessado vão para o tópico.
+ *
+ * O JSON original do monitoramento é o que sai em todos os destinos: campos desconhecidos pelo BFF
+ * e o formato das datas chegam ao cliente exatamente como foram publicados.
+ *
+ * Os últimos alertas ficam num anel em memória, entregue a quem se inscreve em /app/alertas/recentes,
+ * para que uma reconexão não precise consultar a API de alertas do monitoramento.
+ */
+@Service
+@Slf4j
+public class AlertaFanoutService {
+
+    public static final String DESTINO_USUARIO = "/queue/confirmed-alerts";
+
+    private final UserNotificationDispatcher notificationDispatcher;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Boolean> alertasRecebidos;
+    private final Deque<AlertaRoteado> replay = new ArrayDeque<>();
+    private final int capacidadeReplay;
+    private final boolean difundirTodos;
+
+    public AlertaFanoutService(
+            UserNotificationDispatcher notificationDispatcher,
+            ObjectMapper objectMapper,
+            @Value("${radares.alertas.replay-capacidade:200}") int capacidadeReplay,
+            @Value("${radares.alertas.deduplicacao-minutos:10}") long deduplicacaoMinutos,
+            @Value("${radares.alertas.difundir-todos:true}") boolean difundirTodos
+    ) {
+        this.notificationDispatcher = notificationDispatcher;
+        this.objectMapper = objectMapper;
+        this.capacidadeReplay = capacidadeReplay;
+        this.difundirTodos = difundirTodos;
+        this.alertasRecebidos = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(deduplicacaoMinutos))
+                .maximumSize(50_000)
+                .build();
+    }
+
+    /**
+     * Lê o JSON uma única vez: a árvore original é preservada para o envio e o DTO serve ao roteamento.
+     */
+    public AlertaRecebido interpretar(String alertaJson) throws Exception {
+        JsonNode original = objectMapper.readTree(alertaJson);
+        return new AlertaRecebido(objectMapper.treeToValue(original, AlertaPassagemDTO.class), original);
+    }
+
+    /**
+     * Registra o alerta, descartando redeliveries, e o envia aos interessados.
+     * @return true se o alerta também deve ir para o tópico compartilhado; false se já foi entregue
+     *         só aos interessados ou se é uma repetição.
+     */
+    public boolean rotear(AlertaRecebido recebido) {
+        AlertaPassagemDTO alerta = recebido.alerta();
+        if (alertasRecebidos.asMap().putIfAbsent(chave(alerta), Boolean.TRUE) != null) {
+            log.info("🔁 Alerta repetido ignorado: {} ({})", alerta.getPlaca(), chave(alerta));
+            return false;
+        }
+
+        Set<String> interessados = interessados(alerta);
+        synchronized (replay) {
+            replay.addLast(new AlertaRoteado(recebido.original(), interessados));
+            while (replay.size() > capacidadeReplay) {
+                replay.removeFirst();
+            }
+        }
+
+        // Interessados sem sessão aberta recebem o alerta pelo replay quando conectarem
+        for (String usuario : interessados) {
+            notificationDispatcher.enviar(usuario, DESTINO_USUARIO, recebido.original());
+        }
+        log.info("🚨 Alerta da placa {} roteado para {}", alerta.getPlaca(), interessados.isEmpty() ? "todos" : interessados);
+        return interessados.isEmpty() || difundirTodos;
+    }
+
+    /**
+     * Alertas recentes visíveis para o usuário, do mais antigo para o mais novo.
+     * O replay espelha a entrega ao vivo: com difundir-todos o tópico compartilhado recebe todos os alertas,
+     * então todos voltam no replay (inclusive quando o nome STOMP é o sub e nunca coincide com um interessado).
+     * Só quando a fila do usuário é o único caminho o replay se limita aos alertas dele e aos sem interessado.
+     */
+    public List<JsonNode> recentes(String usuario) {
+        String nome = usuario != null ? usuario.toLowerCase() : null;
+        List<JsonNode> resultado = new ArrayList<>();
+        synchronized (replay) {
+            Iterator<AlertaRoteado> it = replay.iterator();
+            while (it.hasNext()) {
+                AlertaRoteado roteado = it.next();
+                if (difundirTodos || roteado.interessados().isEmpty() || roteado.interessados().contains(nome)) {
+                    resultado.add(roteado.alerta());
+                }
+            }
+        }
+        return resultado;
+    }
+
+    private static String chave(AlertaPassagemDTO alerta) {
+        if (alerta.getId() != null) {
+            return "id:" + alerta.getId();
+        }
+        return alerta.getConcessionaria() + '|' + alerta.getPlaca() + '|' + alerta.getData() + '|' + alerta.getHora();
+    }
+
+    /**
+     * Interessados separados por vírgula ou ponto e vírgula, normalizados como os nomes de usuário STOMP.
+     */
+    private static Set<String> interessados(AlertaPassagemDTO alerta) {
+        String valor = alerta.getInteressado();
+        if (valor == null && alerta.getPlacaMonitorada() != null) {
+            valor = alerta.getPlacaMonitorada().getInteressado();
+        }
+        Set<String> usuarios = new LinkedHashSet<>();
+        if (valor != null) {
+            for (String parte : valor.split("[,;]")) {
+                if (!parte.isBlank()) {
+                    usuarios.add(parte.trim().toLowerCase());
+                }
+            }
+        }
+        return usuarios;
+    }
+
+    /**
+     * Alerta interpretado e o JSON original de onde ele veio.
+     */
+    public record AlertaRecebido(AlertaPassagemDTO alerta, JsonNode original) {
+    }
+
+    private record AlertaRoteado(JsonNode alerta, Set<String> interessados) {
+    }
+}
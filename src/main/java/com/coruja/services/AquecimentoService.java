@@ -0,0 +1,213 @@
+package com.coruja.services;
+
+import com.coruja.dto.PageMetadata;
+import com.coruja.dto.RadarDTO;
+import com.coruja.dto.RadarPageDTO;
+import com.coruja.util.RadarMensagemParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.NativeDetector;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Aquecimento do JIT antes de a instância receber tráfego.
+ *
+ * Logo após o start, as primeiras buscas passam por código ainda interpretado (rodada paralela,
+ * agregação das páginas, Jackson) e as primeiras mensagens pelo parser, com latências de segundos.
+ * Este serviço executa esses caminhos sobre dados sintéticos em lotes até a compilação do JIT estabilizar
+ * (o tempo de compilação para de crescer entre lotes) ou até o tempo máximo.
+ *
+ * Roda no ApplicationReadyEvent, antes de o Spring Boot publicar ACCEPTING_TRAFFIC: a readiness
+ * só fica pronta depois do aquecimento. O Eureka registra a instância como STARTING
+ * (eureka.instance.initial-status) e ela só passa para UP ao final.
+ */
+@Service
+@Slf4j
+public class AquecimentoService {
+
+    private static final String[] CONCESSIONARIAS = {"Cart", "Eixo", "Entrevias", "Rondon"};
+    private static final String[] SENTIDOS = {"Norte", "Sul", "Leste", "Oeste"};
+    private static final String LETRAS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    private final RadarsBFFService radarsBFFService;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<ApplicationInfoManager> applicationInfoManager;
+
+    private final boolean habilitado;
+    private final long maxMs;
+    private final int minLotes;
+    private final int iteracoesPorLote;
+    private final long estavelMs;
+    private final int lotesEstaveis;
+
+    public AquecimentoService(
+            RadarsBFFService radarsBFFService,
+            ObjectMapper objectMapper,
+            ObjectProvider<ApplicationInfoManager> applicationInfoManager,
+            @Value("${radares.aquecimento.habilitado:true}") boolean habilitado,
+            @Value("${radares.aquecimento.max-ms:20000}") long maxMs,
+            @Value("${radares.aquecimento.min-lotes:5}") int minLotes,
+            @Value("${radares.aquecimento.iteracoes-por-lote:200}") int iteracoesPorLote,
+            @Value("${radares.aquecimento.estavel-ms:5}") long estavelMs,
+            @Value("${radares.aquecimento.lotes-estaveis:3}") int lotesEstaveis
+    ) {
+        this.radarsBFFService = radarsBFFService;
+        this.objectMapper = objectMapper;
+        this.applicationInfoManager = applicationInfoManager;
+        this.habilitado = habilitado;
+        this.maxMs = maxMs;
+        this.minLotes = minLotes;
+        this.iteracoesPorLote = iteracoesPorLote;
+        this.estavelMs = estavelMs;
+        this.lotesEstaveis = lotesEstaveis;
+    }
+
+    /**
+     * Último listener do ApplicationReadyEvent: o tempo de inicialização é registrado antes do aquecimento.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void aquecer(ApplicationReadyEvent event) {
+        try {
+            // Imagem nativa já é compilada: não há JIT para aquecer
+            if (habilitado && !NativeDetector.inNativeImage()) {
+                AvailabilityChangeEvent.publish(event.getApplicationContext(), ReadinessState.REFUSING_TRAFFIC);
+                executar();
+            }
+        } catch (Exception e) {
+            // O aquecimento é só otimização: uma falha não pode deixar a instância fora do ar
+            log.warn("🔥 [Aquecimento] Interrompido: {}", e.getMessage());
+        } finally {
+            ApplicationInfoManager eureka = applicationInfoManager.getIfAvailable();
+            if (eureka != null) {
+                eureka.setInstanceStatus(InstanceInfo.InstanceStatus.UP);
+                log.info("🔥 [Aquecimento] Instância marcada como UP no Eureka");
+            }
+        }
+    }
+
+    private void executar() throws Exception {
+        Dados dados = new Dados(new Random(42));
+        CompilationMXBean jit = ManagementFactory.getCompilationMXBean();
+        boolean medeCompilacao = jit != null && jit.isCompilationTimeMonitoringSupported();
+
+        long inicio = System.currentTimeMillis();
+        long compilacaoAnterior = medeCompilacao ? jit.getTotalCompilationTime() : 0;
+        int lotes = 0;
+        int estaveis = 0;
+        while (System.currentTimeMillis() - inicio < maxMs) {
+            for (int i = 0; i < iteracoesPorLote; i++) {
+                iteracao(dados, i);
+            }
+            lotes++;
+
+            if (medeCompilacao) {
+                long compilacao = jit.getTotalCompilationTime();
+                estaveis = compilacao - compilacaoAnterior <= estavelMs ? estaveis + 1 : 0;
+                compilacaoAnterior = compilacao;
+            } else {
+                estaveis++;
+            }
+            if (lotes >= minLotes && estaveis >= lotesEstaveis) {
+                break;
+            }
+        }
+        log.info("🔥 [Aquecimento] {} lotes em {} ms (JIT {})", lotes, System.currentTimeMillis() - inicio,
+                estaveis >= lotesEstaveis ? "estável" : "ainda compilando, tempo máximo atingido");
+    }
+
+    /**
+     * Uma busca sintética completa: mensagens da fila, rodada paralela com desserialização das páginas
+     * dos shards (como o RestTemplate faz), agregação e serialização da resposta e do payload do WebSocket.
+     */
+    private void iteracao(Dados dados, int i) throws Exception {
+        for (String mensagem : dados.mensagens) {
+            RadarMensagemParser.parse(mensagem);
+        }
+
+        List<Supplier<RadarPageDTO>> shards = new ArrayList<>();
+        for (byte[] json : dados.shardsJson) {
+            shards.add(() -> {
+                try {
+                    return objectMapper.readValue(json, RadarPageDTO.class);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+        Pageable pageable = dados.paginas.get(i % dados.paginas.size());
+        RadarPageDTO resposta = radarsBFFService.agregarEmParalelo(shards, pageable);
+
+        objectMapper.writeValueAsBytes(resposta);
+        if (!resposta.getContent().isEmpty()) {
+            objectMapper.writeValueAsBytes(resposta.getContent().get(0));
+        }
+    }
+
+    /**
+     * Dados sintéticos gerados uma vez, com semente fixa.
+     */
+    private final class Dados {
+        private final List<String> mensagens = new ArrayList<>();
+        private final List<byte[]> shardsJson = new ArrayList<>();
+        private final List<Pageable> paginas = List.of(PageRequest.of(0, 20), PageRequest.of(1, 50), PageRequest.of(0, 100));
+
+        private Dados(Random random) throws Exception {
+            for (String concessionaria : CONCESSIONARIAS) {
+                RadarDTO radar = radar(random, concessionaria);
+                String base = concessionaria.toUpperCase() + '|' + radar.getData() + '|' + radar.getHora() + '|' + radar.getPlaca();
+                mensagens.add("Rondon".equals(concessionaria)
+                        ? base + '|' + radar.getRodovia() + '|' + radar.getKm() + '|' + radar.getSentido()
+                        : base + '|' + radar.getPraca() + '|' + radar.getRodovia() + '|' + radar.getKm() + '|' + radar.getSentido());
+
+                List<RadarDTO> conteudo = new ArrayList<>();
+                for (int i = 0; i < 100; i++) {
+                    conteudo.add(radar(random, concessionaria));
+                }
+                shardsJson.add(objectMapper.writeValueAsBytes(
+                        new RadarPageDTO(conteudo, new PageMetadata(0, conteudo.size(), 10_000, 100))));
+            }
+        }
+
+        private RadarDTO radar(Random random, String concessionaria) {
+            RadarDTO radar = new RadarDTO();
+            radar.setId(random.nextLong(1, Long.MAX_VALUE));
+            radar.setConcessionaria(concessionaria);
+            radar.setData(LocalDate.of(2024, 1, 1).plusDays(random.nextInt(365)));
+            radar.setHora(LocalTime.ofSecondOfDay(random.nextInt(86_400)));
+            StringBuilder placa = new StringBuilder();
+            for (int i = 0; i < 3; i++) {
+                placa.append(LETRAS.charAt(random.nextInt(LETRAS.length())));
+            }
+            placa.append(random.nextInt(10)).append(LETRAS.charAt(random.nextInt(LETRAS.length())))
+                    .append(random.nextInt(10)).append(random.nextInt(10));
+            radar.setPlaca(placa.toString());
+            radar.setPraca("P" + random.nextInt(20));
+            radar.setRodovia("SP-" + (100 + random.nextInt(300)));
+            radar.setKm(Integer.toString(random.nextInt(500)));
+            radar.setSentido(SENTIDOS[random.nextInt(SENTIDOS.length)]);
+            return radar;
+        }
+    }
+}
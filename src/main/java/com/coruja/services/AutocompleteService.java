@@ -0,0 +1,290 @@
+package com.coruja.services;
+
+import com.coruja.dto.FilterOptionsDTO;
+import com.coruja.dto.RadarDTO;
+import com.coruja.dto.SugestaoDTO;
+import com.coruja.util.PassagemUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Índices de prefixo em memória para o autocomplete da barra de filtros, sem consultar os shards.
+ *
+ * Placas: mapa ordenado (skip list) das placas vistas no fluxo em tempo real dentro da janela,
+ * atualizado a cada passagem; a busca percorre só o intervalo de chaves que começam pelo prefixo,
+ * mantendo apenas as N mais recentes num heap limitado.
+ * Praças e rodovias: vetor ordenado de chaves normalizadas, reconstruído a cada atualização do catálogo.
+ * Cada valor é indexado pelo texto inteiro e por cada palavra, então "jau" encontra "Praça Jaú".
+ */
+@Service
+@Slf4j
+public class AutocompleteService implements PassagemListener, CatalogoListener {
+
+    public static final String PLACA = "PLACA";
+    public static final String PRACA = "PRACA";
+    public static final String RODOVIA = "RODOVIA";
+
+    private static final EntradaCatalogo[] VAZIO = new EntradaCatalogo[0];
+
+    private final ConcurrentSkipListMap<String, PlacaVista> placas = new ConcurrentSkipListMap<>();
+    // size() da skip list é O(n): o tamanho é mantido à parte
+    private final AtomicInteger quantidadePlacas = new AtomicInteger();
+
+    // Última versão do catálogo de cada concessionária; o índice é derivado dele
+    private final Map<String, FilterOptionsDTO> catalogos = new ConcurrentHashMap<>();
+    private volatile EntradaCatalogo[] indiceCatalogo = VAZIO;
+
+    private final long janelaMs;
+    private final int maxPlacas;
+    private final int placaMinimoCaracteres;
+    private final int varreduraMaxima;
+
+    public AutocompleteService(
+            @Value("${radares.autocomplete.janela-horas:24}") long janelaHoras,
+            @Value("${radares.autocomplete.max-placas:200000}") int maxPlacas,
+            @Value("${radares.autocomplete.placa-minimo-caracteres:2}") int placaMinimoCaracteres,
+            @Value("${radares.autocomplete.varredura-maxima:256}") int varreduraMaxima
+    ) {
+        this.janelaMs = janelaHoras * 3_600_000;
+        this.maxPlacas = maxPlacas;
+        this.placaMinimoCaracteres = placaMinimoCaracteres;
+        this.varreduraMaxima = varreduraMaxima;
+    }
+
+    @Override
+    public void onPassagem(RadarDTO radar) {
+        registrarPlaca(radar, System.currentTimeMillis());
+    }
+
+    /**
+     * No restart a recência vem do instante da passagem, não do momento da reprodução.
+     */
+    @Override
+    public void onPassagemRestaurada(RadarDTO radar) {
+        long instante = PassagemUtils.instante(radar);
+        if (instante > 0) {
+            registrarPlaca(radar, instante);
+        }
+    }
+
+    private void registrarPlaca(RadarDTO radar, long instante) {
+        String placa = PassagemUtils.normalizarPlaca(radar.getPlaca());
+        if (placa.isEmpty()) {
+            return;
+        }
+        PlacaVista nova = new PlacaVista(radar.getPlaca().trim(), radar.getConcessionaria(), instante);
+        PlacaVista anterior = placas.put(placa, nova);
+        if (anterior == null) {
+            quantidadePlacas.incrementAndGet();
+        } else if (anterior.instante > instante) {
+            // Passagem restaurada mais antiga que a já conhecida: mantém a mais recente
+            placas.replace(placa, nova, anterior);
+        }
+    }
+
+    /**
+     * Reconstrói o índice de praças e rodovias a partir dos catálogos de todas as concessionárias.
+     * O catálogo tem poucas centenas de valores, então o vetor inteiro é refeito e trocado de uma vez.
+     */
+    @Override
+    public synchronized void onCatalogoAtualizado(String concessionaria, FilterOptionsDTO opcoes) {
+        catalogos.put(concessionaria, opcoes);
+
+        // tipo|valor normalizado -> valor exibido e concessionárias que o possuem
+        Map<String, String> valores = new HashMap<>();
+        Map<String, Set<String>> concessionariasPorValor = new HashMap<>();
+        catalogos.forEach((nome, catalogo) -> {
+            agrupar(PRACA, catalogo.getPracas(), nome, valores, concessionariasPorValor);
+            agrupar(RODOVIA, catalogo.getRodovias(), nome, valores, concessionariasPorValor);
+        });
+
+        List<EntradaCatalogo> entradas = new ArrayList<>();
+        valores.forEach((id, valor) -> {
+            String tipo = id.substring(0, id.indexOf('|'));
+            String normalizado = id.substring(id.indexOf('|') + 1);
+            List<String> donos = List.copyOf(concessionariasPorValor.get(id));
+            // Uma chave para o texto inteiro e uma para cada palavra seguinte, sem espaços
+            String[] palavras = normalizado.split(" ");
+            for (int i = 0; i < palavras.length; i++) {
+                String chave = String.join("", Arrays.copyOfRange(palavras, i, palavras.length));
+                entradas.add(new EntradaCatalogo(chave, tipo, valor, i == 0, donos));
+            }
+        });
+        entradas.sort(Comparator.comparing(EntradaCatalogo::chave));
+        indiceCatalogo = entradas.toArray(VAZIO);
+        log.info("🔤 [Autocomplete] Índice do catálogo reconstruído: {} valores, {} chaves", valores.size(), entradas.size());
+    }
+
+    private static void agrupar(String tipo, List<String> lista, String concessionaria,
+                                Map<String, String> valores, Map<String, Set<String>> concessionariasPorValor) {
+        if (lista == null) {
+            return;
+        }
+        for (String valor : lista) {
+            String normalizado = PassagemUtils.normalizarTexto(valor);
+            if (normalizado.isEmpty()) {
+                continue;
+            }
+            String id = tipo + '|' + normalizado;
+            valores.putIfAbsent(id, valor.trim());
+            concessionariasPorValor.computeIfAbsent(id, k -> new TreeSet<>()).add(concessionaria);
+        }
+    }
+
+    /**
+     * Sugestões para o texto digitado.
+     * @param tipos Tipos desejados (PLACA, PRACA, RODOVIA); vazio ou nulo para todos.
+     * @return Placas mais recentes primeiro; depois praças/rodovias, com início de texto antes de início de palavra.
+     */
+    public List<SugestaoDTO> sugerir(String termo, Set<String> tipos, int limite) {
+        List<SugestaoDTO> resultado = new ArrayList<>();
+        if (termo == null || termo.isBlank() || limite <= 0) {
+            return resultado;
+        }
+        boolean todos = tipos == null || tipos.isEmpty();
+        if (todos || tipos.contains(PLACA)) {
+            sugerirPlacas(termo, limite, resultado);
+        }
+        if (resultado.size() < limite && (todos || tipos.contains(PRACA) || tipos.contains(RODOVIA))) {
+            sugerirCatalogo(termo, todos ? null : tipos, limite, resultado);
+        }
+        return resultado;
+    }
+
+    private void sugerirPlacas(String termo, int limite, List<SugestaoDTO> resultado) {
+        String prefixo = PassagemUtils.normalizarPlaca(termo);
+        if (prefixo.length() < placaMinimoCaracteres) {
+            return;
+        }
+        long limiteJanela = System.currentTimeMillis() - janelaMs;
+        ConcurrentNavigableMap<String, PlacaVista> faixa = placas.subMap(prefixo, true, prefixo + Character.MAX_VALUE, false);
+
+        // Top-N por recência sobre o intervalo inteiro: heap de mínimo com no máximo "limite" placas,
+        // então a ordem alfabética da skip list não decide quais placas aparecem
+        PriorityQueue<PlacaVista> maisRecentes = new PriorityQueue<>(limite + 1, Comparator.comparingLong(PlacaVista::instante));
+        for (PlacaVista vista : faixa.values()) {
+            if (vista.instante < limiteJanela) {
+                continue;
+            }
+            if (maisRecentes.size() < limite) {
+                maisRecentes.add(vista);
+            } else if (vista.instante > maisRecentes.peek().instante) {
+                maisRecentes.poll();
+                maisRecentes.add(vista);
+            }
+        }
+        List<PlacaVista> candidatas = new ArrayList<>(maisRecentes);
+        candidatas.sort(Comparator.comparingLong(PlacaVista::instante).reversed());
+        for (PlacaVista vista : candidatas) {
+            resultado.add(new SugestaoDTO(
+                    PLACA,
+                    vista.placa,
+                    vista.concessionaria != null ? List.of(vista.concessionaria) : List.of(),
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(vista.instante), PassagemUtils.zona())
+            ));
+        }
+    }
+
+    private void sugerirCatalogo(String termo, Set<String> tipos, int limite, List<SugestaoDTO> resultado) {
+        String prefixo = PassagemUtils.normalizarTexto(termo).replace(" ", "");
+        if (prefixo.isEmpty()) {
+            return;
+        }
+        EntradaCatalogo[] indice = indiceCatalogo;
+        int inicio = primeiraChaveMaiorOuIgual(indice, prefixo);
+
+        List<EntradaCatalogo> inicioTexto = new ArrayList<>();
+        List<EntradaCatalogo> inicioPalavra = new ArrayList<>();
+        Set<String> vistos = new LinkedHashSet<>();
+        for (int i = inicio; i < indice.length && indice[i].chave.startsWith(prefixo); i++) {
+            EntradaCatalogo entrada = indice[i];
+            if (tipos != null && !tipos.contains(entrada.tipo)) {
+                continue;
+            }
+            (entrada.inicioTexto ? inicioTexto : inicioPalavra).add(entrada);
+            if (inicioTexto.size() + inicioPalavra.size() >= varreduraMaxima) {
+                break;
+            }
+        }
+        for (List<EntradaCatalogo> grupo : List.of(inicioTexto, inicioPalavra)) {
+            for (EntradaCatalogo entrada : grupo) {
+                if (resultado.size() >= limite) {
+                    return;
+                }
+                // O mesmo valor pode casar pelo texto inteiro e por uma palavra
+                if (vistos.add(entrada.tipo + '|' + entrada.valor)) {
+                    resultado.add(new SugestaoDTO(entrada.tipo, entrada.valor, entrada.concessionarias, null));
+                }
+            }
+        }
+    }
+
+    private static int primeiraChaveMaiorOuIgual(EntradaCatalogo[] indice, String chave) {
+        int baixo = 0;
+        int alto = indice.length;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (indice[meio].chave.compareTo(chave) < 0) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+
+    /**
+     * Remove placas fora da janela e, se o índice passou do limite, as menos recentes.
+     */
+    @Scheduled(fixedDelayString = "${radares.autocomplete.limpeza-ms:60000}")
+    public void limparPlacasAntigas() {
+        long limiteJanela = System.currentTimeMillis() - janelaMs;
+        int excedente = quantidadePlacas.get() - maxPlacas;
+        if (excedente > 0) {
+            // Sobe o corte até o instante que libera o excedente
+            long[] instantes = placas.values().stream().mapToLong(PlacaVista::instante).sorted().toArray();
+            if (excedente <= instantes.length) {
+                limiteJanela = Math.max(limiteJanela, instantes[excedente - 1] + 1);
+            }
+        }
+        int removidas = 0;
+        for (Map.Entry<String, PlacaVista> entry : placas.entrySet()) {
+            if (entry.getValue().instante < limiteJanela && placas.remove(entry.getKey(), entry.getValue())) {
+                quantidadePlacas.decrementAndGet();
+                removidas++;
+            }
+        }
+        if (removidas > 0) {
+            log.info("🧹 [Autocomplete] {} placas removidas do índice; {} restantes", removidas, quantidadePlacas.get());
+        }
+    }
+
+    private record PlacaVista(String placa, String concessionaria, long instante) {
+    }
+
+    /**
+     * Chave normalizada (sem espaços) apontando para um valor do catálogo.
+     * inicioTexto indica se a chave começa no início do valor ou em uma palavra do meio.
+     */
+    private record EntradaCatalogo(String chave, String tipo, String valor, boolean inicioTexto, List<String> concessionarias) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.coruja.services;
+
+import com.coruja.dto.FilterOptionsDTO;
+
+/**
+ * Contrato para componentes que derivam índices do catálogo de filtros mantido pelo {@link CatalogoService}.
+ * Chamado na thread de atualização do catálogo, depois que a concessionária foi carregada com sucesso.
+ */
+public interface CatalogoListener {
+
+    void onCatalogoAtualizado(String concessionaria, FilterOptionsDTO opcoes);
+}
@@ -0,0 +1,361 @@
+package com.coruja.services;
+
+import com.coruja.dto.CatalogoConcessionariaDTO;
+import com.coruja.dto.FilterOptionsDTO;
+import com.coruja.util.PassagemUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Catálogo em memória dos valores de filtro de cada concessionária:
+ * rodovias, praças, sentidos e os KMs de cada rodovia.
+ *
+ * O catálogo é carregado logo após a subida e atualizado em segundo plano antes de envelhecer
+ * (refresh-ahead), então as leituras só esperam pelos microserviços de radares enquanto o catálogo
+ * da concessionária ainda está frio (nenhuma carga concluída).
+ * Se a atualização de uma concessionária falha, os dados da carga anterior continuam sendo servidos
+ * e uma nova tentativa é feita depois do intervalo de retentativa.
+ */
+@Service
+@Slf4j
+public class CatalogoService {
+
+    private static final FilterOptionsDTO VAZIO = new FilterOptionsDTO(List.of(), List.of(), List.of(), List.of());
+
+    private final RestTemplate restTemplate;
+    private final CircuitBreakerFactory circuitBreakerFactory;
+    private final ConcessionariaRegistry concessionariaRegistry;
+    // Índices derivados do catálogo (autocomplete etc.)
+    private final List<CatalogoListener> catalogoListeners;
+    private final ExecutorService executorService;
+
+    private final Map<String, Catalogo> catalogos = new ConcurrentHashMap<>();
+    // Atualizações em andamento por concessionária: evita duas cargas simultâneas do mesmo shard
+    // e permite que leituras com o catálogo frio aguardem a carga já disparada
+    private final Map<String, CompletableFuture<Void>> emAtualizacao = new ConcurrentHashMap<>();
+
+    private final long atualizacaoMs;
+    private final long retentativaMs;
+    private final long esperaCargaMs;
+
+    public CatalogoService(
+            RestTemplate restTemplate,
+            CircuitBreakerFactory circuitBreakerFactory,
+            ConcessionariaRegistry concessionariaRegistry,
+            List<CatalogoListener> catalogoListeners,
+            @Value("${radares.catalogo.atualizacao-minutos:8}") long atualizacaoMinutos,
+            @Value("${radares.catalogo.retentativa-segundos:30}") long retentativaSegundos,
+            @Value("${radares.catalogo.espera-carga-ms:10000}") long esperaCargaMs
+    ) {
+        this.restTemplate = restTemplate;
+        this.circuitBreakerFactory = circuitBreakerFactory;
+        this.concessionariaRegistry = concessionariaRegistry;
+        this.catalogoListeners = catalogoListeners;
+        this.atualizacaoMs = atualizacaoMinutos * 60_000;
+        this.retentativaMs = retentativaSegundos * 1000;
+        this.esperaCargaMs = esperaCargaMs;
+        // Uma thread por concessionária basta: cada carga é sequencial dentro do shard
+        this.executorService = Executors.newFixedThreadPool(Math.max(1, concessionariaRegistry.getConcessionarias().size()));
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Dispara a atualização das concessionárias sem catálogo, com catálogo perto de envelhecer
+     * ou cuja última tentativa falhou há mais que o intervalo de retentativa.
+     * A primeira execução faz a pré-carga de todos os shards.
+     */
+    @Scheduled(
+            initialDelayString = "${radares.catalogo.carga-inicial-ms:5000}",
+            fixedDelayString = "${radares.catalogo.verificacao-ms:15000}"
+    )
+    public void verificarAtualizacoes() {
+        long agora = System.currentTimeMillis();
+        for (String concessionaria : concessionariaRegistry.getConcessionarias()) {
+            if (precisaAtualizar(catalogos.get(concessionaria), agora)) {
+                atualizarEmSegundoPlano(concessionaria);
+            }
+        }
+    }
+
+    /**
+     * Opções de filtro da concessionária a partir da memória.
+     * Com o catálogo ainda frio, aguarda a carga (até radares.catalogo.espera-carga-ms); se ela falhar
+     * ou demorar, devolve listas vazias.
+     */
+    public FilterOptionsDTO getOpcoesFiltro(String nomeConcessionaria) {
+        Catalogo catalogo = obter(nomeConcessionaria, true);
+        return catalogo != null && catalogo.opcoes != null ? catalogo.opcoes : VAZIO;
+    }
+
+    /**
+     * KMs de uma rodovia da concessionária (rodovia sem diferenciar maiúsculas), a partir da memória.
+     * Com o catálogo ainda frio, aguarda a carga como {@link #getOpcoesFiltro(String)}.
+     */
+    public List<String> getKms(String nomeConcessionaria, String rodovia) {
+        Catalogo catalogo = obter(nomeConcessionaria, true);
+        if (catalogo == null || rodovia == null) {
+            return Collections.emptyList();
+        }
+        List<String> kms = catalogo.kmsPorRodovia.get(rodovia.trim());
+        return kms != null ? kms : Collections.emptyList();
+    }
+
+    /**
+     * Catálogo de todas as concessionárias conhecidas, inclusive as que ainda não foram carregadas.
+     */
+    public List<CatalogoConcessionariaDTO> listar() {
+        List<CatalogoConcessionariaDTO> resultado = new ArrayList<>();
+        for (String concessionaria : concessionariaRegistry.getConcessionarias()) {
+            Catalogo catalogo = obter(concessionaria, false);
+            if (catalogo == null || catalogo.opcoes == null) {
+                resultado.add(new CatalogoConcessionariaDTO(concessionaria, VAZIO, Map.of(), null, false));
+            } else {
+                resultado.add(new CatalogoConcessionariaDTO(
+                        concessionaria,
+                        catalogo.opcoes,
+                        catalogo.kmsPorRodovia,
+                        LocalDateTime.ofInstant(Instant.ofEpochMilli(catalogo.atualizadoEm), PassagemUtils.zona()),
+                        catalogo.falhas > 0
+                ));
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Lê o catálogo da memória e, se ele estiver ausente ou perto de envelhecer, agenda a atualização.
+     * Só espera pela atualização quando {@code aguardarSeFrio} e nenhuma carga teve sucesso ainda;
+     * depois de uma primeira carga com falha, a espera volta a acontecer apenas a cada retentativa.
+     */
+    private Catalogo obter(String nomeConcessionaria, boolean aguardarSeFrio) {
+        if (concessionariaRegistry.getServico(nomeConcessionaria) == null) {
+            log.warn("Concessionária '{}' não encontrada no mapa de serviços", nomeConcessionaria);
+            return null;
+        }
+        String chave = nomeConcessionaria.toLowerCase();
+        Catalogo catalogo = catalogos.get(chave);
+        if (!precisaAtualizar(catalogo, System.currentTimeMillis())) {
+            return catalogo;
+        }
+        CompletableFuture<Void> carga = atualizarEmSegundoPlano(chave);
+        if (aguardarSeFrio && (catalogo == null || catalogo.opcoes == null)) {
+            aguardar(chave, carga);
+            catalogo = catalogos.get(chave);
+        }
+        return catalogo;
+    }
+
+    private void aguardar(String concessionaria, CompletableFuture<Void> carga) {
+        try {
+            carga.get(esperaCargaMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("⏳ [Catálogo] Carga de {} ainda em andamento após {} ms; respondendo sem catálogo",
+                    concessionaria, esperaCargaMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Erro ao aguardar carga do catálogo de {}: {}", concessionaria, e.getMessage());
+        }
+    }
+
+    private boolean precisaAtualizar(Catalogo catalogo, long agora) {
+        if (catalogo == null) {
+            return true;
+        }
+        if (catalogo.falhas > 0) {
+            return agora - catalogo.ultimaTentativa >= retentativaMs;
+        }
+        return agora - catalogo.atualizadoEm >= atualizacaoMs;
+    }
+
+    /**
+     * Dispara a atualização da concessionária, ou reaproveita a que já está em andamento.
+     * @return Futuro concluído ao fim da atualização (com sucesso ou falha).
+     */
+    private CompletableFuture<Void> atualizarEmSegundoPlano(String concessionaria) {
+        CompletableFuture<Void> carga = new CompletableFuture<>();
+        CompletableFuture<Void> emAndamento = emAtualizacao.putIfAbsent(concessionaria, carga);
+        if (emAndamento != null) {
+            return emAndamento;
+        }
+        try {
+            executorService.execute(() -> {
+                try {
+                    atualizar(concessionaria);
+                } finally {
+                    emAtualizacao.remove(concessionaria, carga);
+                    carga.complete(null);
+                }
+            });
+        } catch (Exception e) {
+            // Pool encerrado durante o shutdown
+            emAtualizacao.remove(concessionaria, carga);
+            carga.complete(null);
+        }
+        return carga;
+    }
+
+    /**
+     * Busca as opções de filtro e os KMs de cada rodovia e troca o catálogo da concessionária de uma vez.
+     * Se um KM falhar, mantém a lista anterior daquela rodovia.
+     */
+    private void atualizar(String concessionaria) {
+        String servico = concessionariaRegistry.getServico(concessionaria);
+        Catalogo anterior = catalogos.get(concessionaria);
+        long inicio = System.currentTimeMillis();
+
+        FilterOptionsDTO opcoes = buscarOpcoes(servico, concessionaria);
+        if (opcoes == null) {
+            registrarFalha(concessionaria, anterior, inicio);
+            return;
+        }
+
+        Map<String, List<String>> kmsPorRodovia = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        int falhasKm = 0;
+        for (String rodovia : nullSafe(opcoes.getRodovias())) {
+            if (rodovia == null || rodovia.isBlank()) {
+                continue;
+            }
+            String chaveRodovia = rodovia.trim();
+            List<String> kms = buscarKms(servico, rodovia);
+            if (kms == null) {
+                falhasKm++;
+                kms = anterior != null ? anterior.kmsPorRodovia.get(chaveRodovia) : null;
+            }
+            if (kms != null) {
+                kmsPorRodovia.put(chaveRodovia, List.copyOf(kms));
+            }
+        }
+
+        FilterOptionsDTO copia = new FilterOptionsDTO(
+                List.copyOf(nullSafe(opcoes.getRodovias())),
+                List.copyOf(nullSafe(opcoes.getPracas())),
+                List.copyOf(nullSafe(opcoes.getKms())),
+                List.copyOf(nullSafe(opcoes.getSentidos()))
+        );
+        long agora = System.currentTimeMillis();
+        catalogos.put(concessionaria, new Catalogo(
+                copia, Collections.unmodifiableMap(kmsPorRodovia), agora, agora, falhasKm > 0 ? 1 : 0
+        ));
+        log.info("📚 [Catálogo] {} atualizado: {} rodovias, {} praças em {} ms{}",
+                concessionaria, copia.getRodovias().size(), copia.getPracas().size(), agora - inicio,
+                falhasKm > 0 ? " (" + falhasKm + " rodovias com KMs da carga anterior)" : "");
+        notificarListeners(concessionaria, copia);
+    }
+
+    private void notificarListeners(String concessionaria, FilterOptionsDTO opcoes) {
+        for (CatalogoListener listener : catalogoListeners) {
+            try {
+                listener.onCatalogoAtualizado(concessionaria, opcoes);
+            } catch (Exception e) {
+                log.error("Erro ao repassar catálogo de {} para {}: {}",
+                        concessionaria, listener.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    private void registrarFalha(String concessionaria, Catalogo anterior, long agora) {
+        if (anterior == null) {
+            catalogos.put(concessionaria, new Catalogo(null, Map.of(), 0, agora, 1));
+            log.warn("⚠️ [Catálogo] Primeira carga de {} falhou; nova tentativa em {}s", concessionaria, retentativaMs / 1000);
+        } else {
+            catalogos.put(concessionaria, new Catalogo(
+                    anterior.opcoes, anterior.kmsPorRodovia, anterior.atualizadoEm, agora, anterior.falhas + 1
+            ));
+            log.warn("⚠️ [Catálogo] Atualização de {} falhou ({}x seguidas); servindo dados da carga anterior",
+                    concessionaria, anterior.falhas + 1);
+        }
+    }
+
+    /**
+     * Opções de filtro do shard, ou null se a chamada falhar (o circuit breaker também devolve null).
+     */
+    private FilterOptionsDTO buscarOpcoes(String servico, String concessionaria) {
+        String url = "http://" + servico + "/radares/opcoes-filtro";
+        log.info("BFF buscando opções de filtro em: {}", url);
+
+        CircuitBreaker circuitBreaker = circuitBreakerFactory.create("filterOptions");
+        return circuitBreaker.run(
+                () -> restTemplate.getForEntity(url, FilterOptionsDTO.class).getBody(),
+                throwable -> {
+                    log.warn("Falha ao buscar opções de filtro de {}: {}", concessionaria, throwable.getMessage());
+                    return null;
+                }
+        );
+    }
+
+    /**
+     * KMs de uma rodovia no shard, ou null se a chamada falhar.
+     */
+    private List<String> buscarKms(String servico, String rodovia) {
+        String url = UriComponentsBuilder.fromHttpUrl("http://" + servico + "/radares/kms-por-rodovia")
+                .queryParam("rodovia", rodovia)
+                .toUriString();
+
+        CircuitBreaker circuitBreaker = circuitBreakerFactory.create("filterOptions");
+        return circuitBreaker.run(
+                () -> {
+                    ResponseEntity<List<String>> response = restTemplate.exchange(
+                            url,
+                            HttpMethod.GET,
+                            null,
+                            new ParameterizedTypeReference<List<String>>() {}
+                    );
+                    return response.getBody() != null ? response.getBody() : Collections.<String>emptyList();
+                },
+                throwable -> {
+                    log.warn("Falha ao buscar KMs da rodovia '{}' em {}: {}", rodovia, servico, throwable.getMessage());
+                    return null;
+                }
+        );
+    }
+
+    private static List<String> nullSafe(List<String> lista) {
+        if (lista == null) {
+            return List.of();
+        }
+        // List.copyOf não aceita elementos nulos
+        return lista.stream().filter(v -> v != null).toList();
+    }
+
+    /**
+     * Catálogo imutável de uma concessionária; substituído inteiro a cada atualização.
+     * opcoes é null enquanto nenhuma carga teve sucesso.
+     */
+    private record Catalogo(
+            FilterOptionsDTO opcoes,
+            Map<String, List<String>> kmsPorRodovia,
+            long atualizadoEm,
+            long ultimaTentativa,
+            int falhas
+    ) {
+    }
+}
@@ -0,0 +1,361 @@
+package com.coruja.services;
+
+import com.coruja.dto.ComboioDTO;
+import com.coruja.dto.ComboioOcorrenciaDTO;
+import com.coruja.dto.RadarDTO;
+import com.coruja.util.PassagemUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Motor de correlação de passagens para detecção de comboios
+ * ("veículos que passaram nas mesmas praças com até N segundos de diferença da placa X").
+ *
+ * Cada ponto de captura guarda as passagens recentes em baldes de tempo fixos (anel reaproveitado
+ * conforme a janela avança) e cada placa guarda seus últimos pontos. Uma consulta percorre apenas
+ * os baldes vizinhos das passagens da placa de referência, sem consultar os microserviços.
+ * A memória é limitada pela janela, pelo máximo de passagens por balde e pelo máximo de placas indexadas.
+ *
+ * Para placas em acompanhamento (lista própria ou placas monitoradas ativas), as coincidências são
+ * verificadas a cada passagem e os comboios que atingem o mínimo de pontos em comum são publicados em /topic/comboios.
+ */
+@Service
+@Slf4j
+public class ComboioService implements PassagemListener {
+
+    public static final String TOPICO_COMBOIOS = "/topic/comboios";
+
+    private static final long MINUTO_MS = 60_000L;
+    private static final int MAX_PASSAGENS_POR_PLACA = 64;
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final MonitoramentoBFFService monitoramentoService;
+    private final Map<String, PontoJanela> pontos = new ConcurrentHashMap<>();
+    private final Cache<String, PassagensPlaca> passagensPorPlaca;
+    private final Cache<String, Set<String>> paresAcompanhados;
+    private final Set<String> placasAcompanhadas = ConcurrentHashMap.newKeySet();
+
+    private final long janelaMs;
+    private final long baldeMs;
+    private final int quantidadeBaldes;
+    private final int maxPorBalde;
+    private final long toleranciaMaximaMs;
+    private final long toleranciaAlertaMs;
+    private final int minimoPontosAlerta;
+
+    public ComboioService(
+            SimpMessagingTemplate messagingTemplate,
+            MonitoramentoBFFService monitoramentoService,
+            @Value("${radares.comboio.janela-minutos:30}") long janelaMinutos,
+            @Value("${radares.comboio.balde-segundos:10}") long baldeSegundos,
+            @Value("${radares.comboio.max-por-balde:2000}") int maxPorBalde,
+            @Value("${radares.comboio.max-placas:500000}") long maxPlacas,
+            @Value("${radares.comboio.tolerancia-maxima-segundos:300}") long toleranciaMaximaSegundos,
+            @Value("${radares.comboio.tolerancia-alerta-segundos:60}") long toleranciaAlertaSegundos,
+            @Value("${radares.comboio.minimo-pontos-alerta:2}") int minimoPontosAlerta
+    ) {
+        this.messagingTemplate = messagingTemplate;
+        this.monitoramentoService = monitoramentoService;
+        this.janelaMs = janelaMinutos * MINUTO_MS;
+        this.baldeMs = baldeSegundos * 1000;
+        this.maxPorBalde = maxPorBalde;
+        this.toleranciaMaximaMs = toleranciaMaximaSegundos * 1000;
+        this.toleranciaAlertaMs = Math.min(toleranciaAlertaSegundos * 1000, toleranciaMaximaMs);
+        this.minimoPontosAlerta = minimoPontosAlerta;
+        // O anel precisa cobrir a janela e também a maior tolerância consultável em torno de uma passagem
+        this.quantidadeBaldes = (int) (Math.max(janelaMs, 2 * toleranciaMaximaMs) / baldeMs) + 2;
+        this.passagensPorPlaca = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMillis(janelaMs))
+                .maximumSize(maxPlacas)
+                .build();
+        this.paresAcompanhados = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(janelaMs))
+                .maximumSize(100_000)
+                .build();
+    }
+
+    @Override
+    public void onPassagem(RadarDTO radar) {
+        registrar(radar, true);
+    }
+
+    @Override
+    public void onPassagemRestaurada(RadarDTO radar) {
+        // Reconstrói a janela, mas não repete alertas de comboio já publicados antes do restart
+        registrar(radar, false);
+    }
+
+    /**
+     * Placas que acompanharam a placa de referência dentro da janela recente.
+     * @param toleranciaSegundos Diferença máxima entre as passagens no mesmo ponto (limitada pela configuração).
+     * @param minimoPontos Quantidade mínima de pontos distintos em comum.
+     * @param limite Quantidade máxima de placas retornadas.
+     * @return Comboios do maior para o menor número de pontos em comum.
+     */
+    public List<ComboioDTO> consultar(String placa, long toleranciaSegundos, int minimoPontos, int limite) {
+        String referencia = PassagemUtils.normalizarPlaca(placa);
+        long toleranciaMs = Math.min(Math.max(toleranciaSegundos, 0) * 1000, toleranciaMaximaMs);
+
+        List<ComboioDTO> resultado = new ArrayList<>();
+        for (ComboioDTO comboio : agrupar(referencia, toleranciaMs, outra -> true).values()) {
+            if (comboio.getPontosEmComum() >= minimoPontos) {
+                resultado.add(comboio);
+            }
+        }
+        resultado.sort(Comparator.comparingInt(ComboioDTO::getPontosEmComum)
+                .thenComparingInt(c -> c.getOcorrencias().size())
+                .reversed());
+        return resultado.size() > limite ? new ArrayList<>(resultado.subList(0, limite)) : resultado;
+    }
+
+    /**
+     * Passa a verificar comboios da placa em tempo real.
+     * @return false se a placa já estava em acompanhamento ou é inválida.
+     */
+    public boolean acompanhar(String placa) {
+        String normalizada = PassagemUtils.normalizarPlaca(placa);
+        return !normalizada.isEmpty() && placasAcompanhadas.add(normalizada);
+    }
+
+    public boolean removerAcompanhamento(String placa) {
+        return placasAcompanhadas.remove(PassagemUtils.normalizarPlaca(placa));
+    }
+
+    public List<String> listarAcompanhadas() {
+        List<String> placas = new ArrayList<>(placasAcompanhadas);
+        placas.sort(null);
+        return placas;
+    }
+
+    private void registrar(RadarDTO radar, boolean alertar) {
+        String placa = PassagemUtils.normalizarPlaca(radar.getPlaca());
+        if (placa.isEmpty()) {
+            return;
+        }
+        long agora = System.currentTimeMillis();
+        long instante = PassagemUtils.instante(radar);
+        // Relógio do radar adiantado ou passagem sem data: usa o momento do recebimento
+        if (instante < 0 || instante > agora + MINUTO_MS) {
+            instante = agora;
+        }
+        if (instante < agora - janelaMs) {
+            return;
+        }
+
+        String chavePonto = PassagemUtils.chavePonto(radar);
+        PontoJanela ponto = pontos.computeIfAbsent(chavePonto, k -> new PontoJanela(radar));
+        if (!ponto.adicionar(placa, instante)) {
+            return;
+        }
+        passagensPorPlaca.get(placa, k -> new PassagensPlaca()).adicionar(chavePonto, instante);
+
+        boolean referenciaAcompanhada = radar.isMonitorada() || placasAcompanhadas.contains(placa);
+        if (referenciaAcompanhada) {
+            ponto.marcarAcompanhada(instante);
+        }
+        // Só varre os baldes vizinhos quando há alguma placa acompanhada por perto
+        if (alertar && (referenciaAcompanhada || ponto.acompanhadaProxima(instante, toleranciaAlertaMs))) {
+            verificarAcompanhadas(placa, referenciaAcompanhada, instante, chavePonto, ponto);
+        }
+    }
+
+    private boolean isAcompanhada(String placa) {
+        return placasAcompanhadas.contains(placa) || monitoramentoService.isPlacaMonitorada(placa);
+    }
+
+    private void verificarAcompanhadas(String placa, boolean referenciaAcompanhada, long instante,
+                                       String chavePonto, PontoJanela ponto) {
+        for (Ocorrencia vizinha : ponto.vizinhas(instante, toleranciaAlertaMs)) {
+            if (vizinha.placa().equals(placa)) {
+                continue;
+            }
+            if (referenciaAcompanhada) {
+                registrarPar(placa, vizinha.placa(), chavePonto);
+            }
+            if (isAcompanhada(vizinha.placa())) {
+                registrarPar(vizinha.placa(), placa, chavePonto);
+            }
+        }
+    }
+
+    private void registrarPar(String acompanhada, String outra, String chavePonto) {
+        Set<String> pontosEmComum = paresAcompanhados.get(acompanhada + '|' + outra, k -> ConcurrentHashMap.newKeySet());
+        // Publica a cada novo ponto em comum a partir do mínimo, nunca duas vezes para o mesmo ponto
+        if (pontosEmComum.add(chavePonto) && pontosEmComum.size() >= minimoPontosAlerta) {
+            ComboioDTO comboio = agrupar(acompanhada, toleranciaAlertaMs, outra::equals).get(outra);
+            if (comboio == null) {
+                return;
+            }
+            log.info("🚗🚗 [Comboio] {} acompanhada por {} em {} pontos", acompanhada, outra, comboio.getPontosEmComum());
+            try {
+                messagingTemplate.convertAndSend(TOPICO_COMBOIOS, comboio);
+            } catch (Exception e) {
+                log.error("Erro ao enviar comboio via WebSocket: {}", e.getMessage());
+            }
+        }
+    }
+
+    private Map<String, ComboioDTO> agrupar(String referencia, long toleranciaMs, Predicate<String> filtro) {
+        PassagensPlaca passagens = passagensPorPlaca.getIfPresent(referencia);
+        if (passagens == null) {
+            return Map.of();
+        }
+        long inicioJanela = System.currentTimeMillis() - janelaMs;
+        Map<String, ComboioDTO> porPlaca = new HashMap<>();
+        Map<String, Set<String>> pontosPorPlaca = new HashMap<>();
+
+        for (PassagemPlaca passagem : passagens.copia()) {
+            if (passagem.instante() < inicioJanela) {
+                continue;
+            }
+            PontoJanela ponto = pontos.get(passagem.ponto());
+            if (ponto == null) {
+                continue;
+            }
+            for (Ocorrencia vizinha : ponto.vizinhas(passagem.instante(), toleranciaMs)) {
+                if (vizinha.placa().equals(referencia) || !filtro.test(vizinha.placa())) {
+                    continue;
+                }
+                ComboioDTO comboio = porPlaca.computeIfAbsent(vizinha.placa(),
+                        k -> new ComboioDTO(referencia, k, 0, new ArrayList<>()));
+                comboio.getOcorrencias().add(ponto.ocorrencia(passagem.instante(), vizinha.instante()));
+                if (pontosPorPlaca.computeIfAbsent(vizinha.placa(), k -> new HashSet<>()).add(passagem.ponto())) {
+                    comboio.setPontosEmComum(comboio.getPontosEmComum() + 1);
+                }
+            }
+        }
+        return porPlaca;
+    }
+
+    private static LocalDateTime paraDataHora(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), PassagemUtils.zona());
+    }
+
+    private record Ocorrencia(String placa, long instante) {
+    }
+
+    private record PassagemPlaca(String ponto, long instante) {
+    }
+
+    /**
+     * Últimas passagens de uma placa, limitadas a {@link #MAX_PASSAGENS_POR_PLACA}.
+     */
+    private static final class PassagensPlaca {
+        private final Deque<PassagemPlaca> passagens = new ArrayDeque<>();
+
+        private synchronized void adicionar(String ponto, long instante) {
+            passagens.addLast(new PassagemPlaca(ponto, instante));
+            if (passagens.size() > MAX_PASSAGENS_POR_PLACA) {
+                passagens.removeFirst();
+            }
+        }
+
+        private synchronized List<PassagemPlaca> copia() {
+            return new ArrayList<>(passagens);
+        }
+    }
+
+    /**
+     * Anel de baldes de tempo de um ponto de captura. O balde de um período é limpo
+     * quando o anel dá a volta e o slot passa a representar um período mais novo.
+     */
+    private final class PontoJanela {
+        private final String concessionaria;
+        private final String praca;
+        private final String rodovia;
+        private final String km;
+        private final String sentido;
+
+        private final long[] periodos = new long[quantidadeBaldes];
+        // Instante da passagem acompanhada mais recente neste ponto
+        private long ultimaAcompanhada = Long.MIN_VALUE / 2;
+        private final List<List<Ocorrencia>> baldes = new ArrayList<>(quantidadeBaldes);
+
+        private PontoJanela(RadarDTO radar) {
+            this.concessionaria = radar.getConcessionaria();
+            this.praca = radar.getPraca();
+            this.rodovia = radar.getRodovia();
+            this.km = radar.getKm();
+            this.sentido = radar.getSentido();
+            Arrays.fill(periodos, -1L);
+            for (int i = 0; i < quantidadeBaldes; i++) {
+                baldes.add(new ArrayList<>());
+            }
+        }
+
+        /**
+         * @return false se a passagem é antiga demais para o anel ou o balde já está cheio.
+         */
+        private synchronized boolean adicionar(String placa, long instante) {
+            long periodo = instante / baldeMs;
+            int slot = (int) (periodo % quantidadeBaldes);
+            if (periodos[slot] != periodo) {
+                if (periodos[slot] > periodo) {
+                    return false;
+                }
+                periodos[slot] = periodo;
+                baldes.get(slot).clear();
+            }
+            List<Ocorrencia> balde = baldes.get(slot);
+            if (balde.size() >= maxPorBalde) {
+                return false;
+            }
+            balde.add(new Ocorrencia(placa, instante));
+            return true;
+        }
+
+        private synchronized void marcarAcompanhada(long instante) {
+            ultimaAcompanhada = Math.max(ultimaAcompanhada, instante);
+        }
+
+        private synchronized boolean acompanhadaProxima(long instante, long toleranciaMs) {
+            return Math.abs(instante - ultimaAcompanhada) <= toleranciaMs;
+        }
+
+        private synchronized List<Ocorrencia> vizinhas(long instante, long toleranciaMs) {
+            List<Ocorrencia> resultado = new ArrayList<>();
+            long ultimoPeriodo = (instante + toleranciaMs) / baldeMs;
+            for (long periodo = (instante - toleranciaMs) / baldeMs; periodo <= ultimoPeriodo; periodo++) {
+                int slot = (int) (periodo % quantidadeBaldes);
+                if (periodos[slot] != periodo) {
+                    continue;
+                }
+                for (Ocorrencia ocorrencia : baldes.get(slot)) {
+                    if (Math.abs(ocorrencia.instante() - instante) <= toleranciaMs) {
+                        resultado.add(ocorrencia);
+                    }
+                }
+            }
+            return resultado;
+        }
+
+        private ComboioOcorrenciaDTO ocorrencia(long instanteReferencia, long instante) {
+            return new ComboioOcorrenciaDTO(
+                    concessionaria, praca, rodovia, km, sentido,
+                    paraDataHora(instanteReferencia),
+                    paraDataHora(instante),
+                    (instante - instanteReferencia) / 1000
+            );
+        }
+    }
+}
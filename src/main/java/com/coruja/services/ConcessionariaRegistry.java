@@ -0,0 +1,55 @@
+package com.coruja.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mapa das concessionárias (shards) para o nome do microserviço de radares registrado no Eureka.
+ * Compartilhado pela busca agregada e pelo catálogo de filtros.
+ */
+@Component
+@Slf4j
+public class ConcessionariaRegistry {
+
+    private final Map<String, String> serviceUrlMap;
+
+    public ConcessionariaRegistry() {
+        log.info("Inicializando mapa de URLs dos serviços de radares...");
+        // Mapeie para os NOMES DE SERVIÇO (spring.application.name)
+        // Por padrão, o Eureka registra os nomes em MAIÚSCULAS.
+        Map<String, String> mapa = new LinkedHashMap<>();
+        mapa.put("cart", "MICROSERVICO-RADAR-CART");
+        mapa.put("eixo", "MICROSERVICO-RADAR-EIXO");
+        mapa.put("entrevias", "MICROSERVICO-RADAR-ENTREVIAS");
+        mapa.put("rondon", "MICROSSERVICO-RADAR-RONDON");
+        this.serviceUrlMap = Collections.unmodifiableMap(mapa);
+        log.info("Mapa de serviços carregado: {}", serviceUrlMap);
+    }
+
+    /**
+     * Nome do serviço da concessionária (sem diferenciar maiúsculas), ou null se desconhecida.
+     */
+    public String getServico(String nomeConcessionaria) {
+        return nomeConcessionaria == null ? null : serviceUrlMap.get(nomeConcessionaria.toLowerCase());
+    }
+
+    /**
+     * Nomes (em minúsculas) de todas as concessionárias conhecidas.
+     */
+    public List<String> getConcessionarias() {
+        return new ArrayList<>(serviceUrlMap.keySet());
+    }
+
+    /**
+     * Serviços de todas as concessionárias.
+     */
+    public List<String> getServicos() {
+        return new ArrayList<>(serviceUrlMap.values());
+    }
+}
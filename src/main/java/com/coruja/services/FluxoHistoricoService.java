@@ -0,0 +1,203 @@
+package com.coruja.services;
+
+import com.coruja.dto.FluxoHistoricoDTO;
+import com.coruja.util.PassagemUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Persiste os agregados de fluxo de veículos no H2 local e responde consultas históricas.
+ *
+ * - A cada minuto os últimos minutos completos dos contadores em memória ({@link FluxoVeiculosService})
+ *   são gravados em lote (MERGE pelo maior valor: passagens atrasadas corrigem a contagem e um
+ *   restart, com contadores zerados, não apaga o que já estava gravado).
+ * - De hora em hora os minutos são consolidados em horas; uma vez por dia as horas viram dias.
+ * - A retenção de cada granularidade é aplicada no job diário.
+ */
+@Service
+@Slf4j
+public class FluxoHistoricoService {
+
+    public enum Granularidade {
+        MINUTO("fluxo_minuto"),
+        HORA("fluxo_hora"),
+        DIA("fluxo_dia");
+
+        private final String tabela;
+
+        Granularidade(String tabela) {
+            this.tabela = tabela;
+        }
+    }
+
+    // Minutos completos regravados a cada ciclo, para absorver passagens que chegam atrasadas
+    private static final int MINUTOS_REGRAVADOS = 3;
+    private static final long MINUTO_MS = 60_000L;
+
+    // Mantém o maior valor entre o persistido e o da memória: após um restart os contadores em memória
+    // do minuto corrente recomeçam do zero e não podem sobrescrever o que já foi gravado
+    private static final String SQL_MERGE_MINUTO =
+            "MERGE INTO fluxo_minuto t USING (VALUES (CAST(? AS VARCHAR(300)), CAST(? AS VARCHAR(60)), "
+                    + "CAST(? AS VARCHAR(150)), CAST(? AS VARCHAR(60)), CAST(? AS TIMESTAMP), CAST(? AS BIGINT))) "
+                    + "AS s (chave, concessionaria, praca, rodovia, inicio, veiculos) "
+                    + "ON t.chave = s.chave AND t.inicio = s.inicio "
+                    + "WHEN MATCHED THEN UPDATE SET t.veiculos = GREATEST(t.veiculos, s.veiculos) "
+                    + "WHEN NOT MATCHED THEN INSERT (chave, concessionaria, praca, rodovia, inicio, veiculos) "
+                    + "VALUES (s.chave, s.concessionaria, s.praca, s.rodovia, s.inicio, s.veiculos)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FluxoVeiculosService fluxoVeiculosService;
+    private final int retencaoMinutosDias;
+    private final int retencaoHorasDias;
+    private final int retencaoDiasDias;
+    private final int limiteConsulta;
+
+    public FluxoHistoricoService(
+            JdbcTemplate jdbcTemplate,
+            FluxoVeiculosService fluxoVeiculosService,
+            @Value("${radares.fluxo.historico.retencao-minutos-dias:7}") int retencaoMinutosDias,
+            @Value("${radares.fluxo.historico.retencao-horas-dias:90}") int retencaoHorasDias,
+            @Value("${radares.fluxo.historico.retencao-dias-dias:730}") int retencaoDiasDias,
+            @Value("${radares.fluxo.historico.limite-consulta:20000}") int limiteConsulta
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fluxoVeiculosService = fluxoVeiculosService;
+        this.retencaoMinutosDias = retencaoMinutosDias;
+        this.retencaoHorasDias = retencaoHorasDias;
+        this.retencaoDiasDias = retencaoDiasDias;
+        this.limiteConsulta = limiteConsulta;
+    }
+
+    /**
+     * Grava em lote os últimos minutos completos de todas as praças/rodovias.
+     */
+    @Scheduled(cron = "5 * * * * *")
+    @PreDestroy
+    public void gravarMinutos() {
+        long minutoAtual = System.currentTimeMillis() / MINUTO_MS;
+        List<Object[]> linhas = new ArrayList<>();
+        for (long minuto = minutoAtual - MINUTOS_REGRAVADOS; minuto < minutoAtual; minuto++) {
+            Timestamp inicio = Timestamp.valueOf(paraDataHora(minuto * MINUTO_MS));
+            fluxoVeiculosService.contagensDoMinuto(minuto).forEach((chave, veiculos) -> {
+                String[] partes = chave.split("\\|", -1);
+                linhas.add(new Object[]{chave, partes[0], partes[1], partes[2], inicio, veiculos});
+            });
+        }
+        if (linhas.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(SQL_MERGE_MINUTO, linhas);
+            log.debug("💾 [Fluxo] {} agregados por minuto gravados", linhas.size());
+        } catch (Exception e) {
+            log.error("Erro ao gravar agregados de fluxo por minuto: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Consolida minutos em horas. Recalcula as duas últimas horas para incluir minutos regravados.
+     */
+    @Scheduled(cron = "30 1 * * * *", zone = "America/Sao_Paulo")
+    public void consolidarHoras() {
+        LocalDateTime horaAtual = LocalDateTime.now(PassagemUtils.zona()).truncatedTo(ChronoUnit.HOURS);
+        consolidar(Granularidade.MINUTO, Granularidade.HORA, "HOUR", horaAtual.minusHours(2), horaAtual);
+    }
+
+    /**
+     * Consolida horas em dias e aplica as regras de retenção.
+     */
+    @Scheduled(cron = "0 20 0 * * *", zone = "America/Sao_Paulo")
+    public void consolidarDiasEAplicarRetencao() {
+        LocalDateTime hoje = LocalDate.now(PassagemUtils.zona()).atStartOfDay();
+        consolidar(Granularidade.HORA, Granularidade.DIA, "DAY", hoje.minusDays(2), hoje);
+
+        LocalDateTime agora = LocalDateTime.now(PassagemUtils.zona());
+        remover(Granularidade.MINUTO, agora.minusDays(retencaoMinutosDias));
+        remover(Granularidade.HORA, agora.minusDays(retencaoHorasDias));
+        remover(Granularidade.DIA, agora.minusDays(retencaoDiasDias));
+    }
+
+    /**
+     * Série histórica de fluxo no intervalo [inicio, fim), com filtros opcionais.
+     */
+    public List<FluxoHistoricoDTO> consultar(
+            Granularidade granularidade,
+            LocalDateTime inicio,
+            LocalDateTime fim,
+            String concessionaria,
+            String praca,
+            String rodovia
+    ) {
+        StringBuilder sql = new StringBuilder("SELECT concessionaria, praca, rodovia, inicio, veiculos FROM ")
+                .append(granularidade.tabela)
+                .append(" WHERE inicio >= ? AND inicio < ?");
+        List<Object> parametros = new ArrayList<>();
+        parametros.add(Timestamp.valueOf(inicio));
+        parametros.add(Timestamp.valueOf(fim));
+
+        if (concessionaria != null && !concessionaria.isBlank()) {
+            sql.append(" AND UPPER(concessionaria) = UPPER(?)");
+            parametros.add(concessionaria);
+        }
+        if (praca != null && !praca.isBlank()) {
+            sql.append(" AND UPPER(praca) = UPPER(?)");
+            parametros.add(praca);
+        }
+        if (rodovia != null && !rodovia.isBlank()) {
+            sql.append(" AND UPPER(rodovia) = UPPER(?)");
+            parametros.add(rodovia);
+        }
+        sql.append(" ORDER BY inicio, chave LIMIT ?");
+        parametros.add(limiteConsulta);
+
+        return jdbcTemplate.query(sql.toString(), (rs, i) -> new FluxoHistoricoDTO(
+                rs.getString("concessionaria"),
+                rs.getString("praca"),
+                rs.getString("rodovia"),
+                rs.getTimestamp("inicio").toLocalDateTime(),
+                rs.getLong("veiculos")
+        ), parametros.toArray());
+    }
+
+    private void consolidar(Granularidade origem, Granularidade destino, String unidade,
+                            LocalDateTime de, LocalDateTime ate) {
+        String periodo = "DATE_TRUNC('" + unidade + "', inicio)";
+        String sql = "MERGE INTO " + destino.tabela + " (chave, concessionaria, praca, rodovia, inicio, veiculos) KEY (chave, inicio) "
+                + "SELECT chave, MAX(concessionaria), MAX(praca), MAX(rodovia), " + periodo + ", SUM(veiculos) "
+                + "FROM " + origem.tabela + " WHERE inicio >= ? AND inicio < ? "
+                + "GROUP BY chave, " + periodo;
+        try {
+            int linhas = jdbcTemplate.update(sql, Timestamp.valueOf(de), Timestamp.valueOf(ate));
+            log.info("📊 [Fluxo] Consolidação {} -> {}: {} linhas ({} a {})", origem, destino, linhas, de, ate);
+        } catch (Exception e) {
+            log.error("Erro ao consolidar fluxo {} -> {}: {}", origem, destino, e.getMessage());
+        }
+    }
+
+    private void remover(Granularidade granularidade, LocalDateTime limite) {
+        try {
+            int linhas = jdbcTemplate.update("DELETE FROM " + granularidade.tabela + " WHERE inicio < ?", Timestamp.valueOf(limite));
+            if (linhas > 0) {
+                log.info("🧹 [Fluxo] Retenção {}: {} linhas anteriores a {} removidas", granularidade, linhas, limite);
+            }
+        } catch (Exception e) {
+            log.error("Erro ao aplicar retenção em {}: {}", granularidade, e.getMessage());
+        }
+    }
+
+    private static LocalDateTime paraDataHora(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), PassagemUtils.zona());
+    }
+}
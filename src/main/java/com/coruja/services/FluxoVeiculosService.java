@@ -0,0 +1,175 @@
+package com.coruja.services;
+
+import com.coruja.dto.FluxoVeiculosDTO;
+import com.coruja.dto.RadarDTO;
+import com.coruja.util.PassagemUtils;
+import com.coruja.util.SlidingWindowCounter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mantém contadores de fluxo de veículos por concessionária/praça/rodovia, atualizados a cada passagem.
+ *
+ * Cada chave tem uma janela de 60 baldes de um minuto e outra de 24 baldes de uma hora
+ * ({@link SlidingWindowCounter}), então os painéis consultam estatísticas sem tocar nos
+ * microserviços de radares.
+ */
+@Service
+@Slf4j
+public class FluxoVeiculosService implements PassagemListener {
+
+    public static final String TOPICO_FLUXO = "/topic/fluxo";
+
+    private static final long MINUTO_MS = 60_000L;
+    private static final long HORA_MS = 60 * MINUTO_MS;
+    private static final int JANELA_MINUTOS = 60;
+    private static final int JANELA_HORAS = 24;
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final Map<String, ContadorFluxo> contadores = new ConcurrentHashMap<>();
+
+    public FluxoVeiculosService(SimpMessagingTemplate messagingTemplate) {
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    @Override
+    public void onPassagem(RadarDTO radar) {
+        long agora = System.currentTimeMillis();
+        long instante = PassagemUtils.instante(radar);
+        // Relógio do radar adiantado ou passagem sem data: conta no momento do recebimento
+        if (instante < 0 || instante > agora + MINUTO_MS) {
+            instante = agora;
+        }
+        if (instante < agora - JANELA_HORAS * HORA_MS) {
+            return;
+        }
+        contadores.computeIfAbsent(chave(radar), k -> new ContadorFluxo(radar)).registrar(instante, agora);
+    }
+
+    /**
+     * Consulta o fluxo atual, opcionalmente filtrado por concessionária, praça e/ou rodovia.
+     * @param incluirSeries Se true, inclui as séries por minuto (última hora) e por hora (últimas 24h).
+     */
+    public List<FluxoVeiculosDTO> consultar(String concessionaria, String praca, String rodovia, boolean incluirSeries) {
+        long agora = System.currentTimeMillis();
+        List<FluxoVeiculosDTO> resultado = new ArrayList<>();
+        for (ContadorFluxo contador : contadores.values()) {
+            if (corresponde(contador.concessionaria, concessionaria)
+                    && corresponde(contador.praca, praca)
+                    && corresponde(contador.rodovia, rodovia)) {
+                resultado.add(contador.resumo(agora, incluirSeries));
+            }
+        }
+        resultado.sort(Comparator.comparingLong(FluxoVeiculosDTO::getVeiculosUltimaHora).reversed());
+        return resultado;
+    }
+
+    /**
+     * Contagem de cada chave em um minuto específico (epoch minute). Minutos fora da janela retornam vazio.
+     */
+    public Map<String, Long> contagensDoMinuto(long epochMinuto) {
+        Map<String, Long> resultado = new HashMap<>();
+        contadores.forEach((chave, contador) -> {
+            long contagem = contador.minutos.contagem(epochMinuto);
+            if (contagem > 0) {
+                resultado.put(chave, contagem);
+            }
+        });
+        return resultado;
+    }
+
+    /**
+     * Publica periodicamente o resumo do fluxo para os painéis e descarta chaves sem movimento há mais de 24h.
+     */
+    @Scheduled(fixedRateString = "${radares.fluxo.intervalo-publicacao-ms:60000}")
+    public void publicarFluxo() {
+        long agora = System.currentTimeMillis();
+        contadores.values().removeIf(c -> c.ultimaAtividade < agora - JANELA_HORAS * HORA_MS);
+        if (contadores.isEmpty()) {
+            return;
+        }
+        try {
+            messagingTemplate.convertAndSend(TOPICO_FLUXO, consultar(null, null, null, false));
+        } catch (Exception e) {
+            log.error("Erro ao publicar fluxo de veículos via WebSocket: {}", e.getMessage());
+        }
+    }
+
+    static String chave(RadarDTO radar) {
+        return valor(radar.getConcessionaria()).toUpperCase() + '|' + valor(radar.getPraca()) + '|' + valor(radar.getRodovia());
+    }
+
+    private static boolean corresponde(String valor, String filtro) {
+        return filtro == null || filtro.isBlank() || filtro.equalsIgnoreCase(valor);
+    }
+
+    private static String valor(String s) {
+        return s != null ? s : "";
+    }
+
+    private static LocalDateTime paraDataHora(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), PassagemUtils.zona());
+    }
+
+    private static List<Long> paraLista(long[] valores) {
+        return Arrays.stream(valores).boxed().toList();
+    }
+
+    private static final class ContadorFluxo {
+        private final String concessionaria;
+        private final String praca;
+        private final String rodovia;
+        private final SlidingWindowCounter minutos = new SlidingWindowCounter(MINUTO_MS, JANELA_MINUTOS);
+        private final SlidingWindowCounter horas = new SlidingWindowCounter(HORA_MS, JANELA_HORAS);
+        private volatile long ultimaAtividade;
+
+        private ContadorFluxo(RadarDTO radar) {
+            this.concessionaria = radar.getConcessionaria();
+            this.praca = radar.getPraca();
+            this.rodovia = radar.getRodovia();
+        }
+
+        private void registrar(long instante, long agora) {
+            if (instante >= agora - JANELA_MINUTOS * MINUTO_MS) {
+                minutos.incrementar(instante);
+            }
+            horas.incrementar(instante);
+            ultimaAtividade = agora;
+        }
+
+        private FluxoVeiculosDTO resumo(long agora, boolean incluirSeries) {
+            long minutoAtual = minutos.periodo(agora);
+            long horaAtual = horas.periodo(agora);
+            long[] serieMinutos = minutos.serie(minutoAtual, JANELA_MINUTOS);
+            long totalHora = Arrays.stream(serieMinutos).sum();
+
+            FluxoVeiculosDTO dto = new FluxoVeiculosDTO();
+            dto.setConcessionaria(concessionaria);
+            dto.setPraca(praca);
+            dto.setRodovia(rodovia);
+            dto.setMinutoReferencia(paraDataHora((minutoAtual - 1) * MINUTO_MS));
+            dto.setVeiculosUltimoMinuto(minutos.contagem(minutoAtual - 1));
+            dto.setVeiculosMinutoAtual(minutos.contagem(minutoAtual));
+            dto.setVeiculosUltimaHora(totalHora);
+            dto.setMediaVeiculosPorMinuto(totalHora / (double) JANELA_MINUTOS);
+            if (incluirSeries) {
+                dto.setSerieMinutos(paraLista(serieMinutos));
+                dto.setHoraReferencia(paraDataHora((horaAtual - 1) * HORA_MS));
+                dto.setSerieHoras(paraLista(horas.serie(horaAtual, JANELA_HORAS)));
+            }
+            return dto;
+        }
+    }
+}
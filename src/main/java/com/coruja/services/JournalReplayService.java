@@ -0,0 +1,44 @@
+package com.coruja.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Reconstrói o estado de tempo real a partir do final do journal de passagens.
+ *
+ * Roda depois que todos os beans foram criados e antes do início dos componentes de ciclo de vida
+ * (servidor web, broker STOMP e listeners do RabbitMQ), então os primeiros clientes já encontram
+ * os últimos radares e as estatísticas preenchidos.
+ */
+@Service
+@Slf4j
+public class JournalReplayService implements SmartInitializingSingleton {
+
+    private final PassagemJournal passagemJournal;
+    private final RealtimeUpdateService realtimeUpdateService;
+    private final long janelaReplayMillis;
+
+    public JournalReplayService(
+            PassagemJournal passagemJournal,
+            RealtimeUpdateService realtimeUpdateService,
+            @Value("${radares.journal.replay-horas:1}") long replayHoras
+    ) {
+        this.passagemJournal = passagemJournal;
+        this.realtimeUpdateService = realtimeUpdateService;
+        this.janelaReplayMillis = replayHoras * 60 * 60 * 1000;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long inicio = System.currentTimeMillis();
+        try {
+            int total = passagemJournal.reproduzir(inicio - janelaReplayMillis, realtimeUpdateService::restaurarPassagem);
+            log.info("♻️ [Journal] {} passagens reproduzidas em {} ms", total, System.currentTimeMillis() - inicio);
+        } catch (Exception e) {
+            // Sem journal o serviço sobe normalmente, apenas com o estado vazio
+            log.error("Erro ao reproduzir o journal de passagens: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.coruja.services;
+
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.DateHistogramBucket;
+import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
+import co.elastic.clients.elasticsearch._types.mapping.RuntimeFieldType;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.json.JsonData;
+import com.coruja.config.CacheConfig;
+import com.coruja.dto.LogAnaliseDTO;
+import com.coruja.dto.LogContagemDTO;
+import com.coruja.dto.LogHistogramaDTO;
+import com.coruja.util.PassagemUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Visão geral dos logs de um intervalo (histograma por nível, loggers e exceções mais frequentes)
+ * calculada por agregações no Elasticsearch, numa única requisição com size=0.
+ *
+ * Consultas idênticas são servidas do cache por alguns segundos, o que absorve vários administradores
+ * abrindo o mesmo painel durante um incidente. O cache guarda o CompletableFuture: requisições idênticas
+ * simultâneas aguardam a mesma busca.
+ */
+@Service
+@Slf4j
+public class LogAnaliseService {
+
+    private static final String INDICE = "spring_boot_app-*";
+    private static final String CAMPO_TEMPO = "@timestamp";
+    private static final String CAMPO_TIPO_EXCECAO = "tipo_excecao";
+
+    // Tipo da exceção extraído da primeira linha do stack trace ("java.lang.IllegalStateException: ...")
+    private static final String SCRIPT_TIPO_EXCECAO = """
+            def st = params._source['stack_trace'];
+            if (st != null) {
+                String texto = st.toString();
+                int fim = texto.length();
+                int linha = texto.indexOf('\\n');
+                if (linha >= 0) { fim = linha; }
+                int doisPontos = texto.indexOf(':');
+                if (doisPontos >= 0 && doisPontos < fim) { fim = doisPontos; }
+                emit(texto.substring(0, fim).trim());
+            }
+            """;
+
+    // Larguras possíveis do intervalo do histograma, da menor para a maior
+    private static final List<Duration> INTERVALOS = List.of(
+            Duration.ofSeconds(10), Duration.ofSeconds(30), Duration.ofMinutes(1), Duration.ofMinutes(5),
+            Duration.ofMinutes(10), Duration.ofMinutes(30), Duration.ofHours(1), Duration.ofHours(3),
+            Duration.ofHours(12), Duration.ofDays(1)
+    );
+    private static final int MAX_INTERVALOS_HISTOGRAMA = 120;
+
+    private final ElasticsearchAsyncClient esAsyncClient;
+    private final String campoNivel;
+    private final String campoLogger;
+    // Campo keyword com o tipo da exceção; vazio = extraído do stack_trace por um runtime field
+    private final String campoExcecao;
+    private final long timeoutMs;
+
+    public LogAnaliseService(
+            @Lazy ElasticsearchAsyncClient esAsyncClient,
+            @Value("${radares.logs.campo-nivel:level.keyword}") String campoNivel,
+            @Value("${radares.logs.campo-logger:logger_name.keyword}") String campoLogger,
+            @Value("${radares.logs.campo-excecao:}") String campoExcecao,
+            @Value("${radares.logs.timeout-ms:30000}") long timeoutMs
+    ) {
+        this.esAsyncClient = esAsyncClient;
+        this.campoNivel = campoNivel;
+        this.campoLogger = campoLogger;
+        this.campoExcecao = campoExcecao;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Calcula a visão geral dos logs do intervalo.
+     * @param query Query de busca (query_string) aplicada antes das agregações.
+     * @param inicio Início do intervalo, inclusivo (nulo = 1 hora antes do fim).
+     * @param fim Fim do intervalo, exclusivo (nulo = agora; o cache curto limita o atraso).
+     * @param intervalo Largura do histograma em segundos (nulo = escolhida para até 120 intervalos).
+     *                  Larguras que gerariam mais de 120 intervalos são aumentadas até esse limite.
+     * @param top Quantidade de loggers e de tipos de exceção devolvidos.
+     */
+    @Cacheable(value = CacheConfig.LOGS_ANALISE, key = "{#query, #inicio, #fim, #intervalo, #top}")
+    public CompletableFuture<LogAnaliseDTO> analisar(String query, LocalDateTime inicio, LocalDateTime fim, Long intervalo, int top) {
+        LocalDateTime fimConsulta = fim != null ? fim : LocalDateTime.now(PassagemUtils.zona());
+        LocalDateTime inicioConsulta = inicio != null ? inicio : fimConsulta.minusHours(1);
+        Duration periodo = Duration.between(inicioConsulta, fimConsulta);
+        // A largura informada pelo cliente nunca gera mais intervalos que o limite (too_many_buckets no Elasticsearch)
+        Duration largura = intervalo != null && intervalo > 0
+                ? maior(Duration.ofSeconds(intervalo), larguraMinima(periodo))
+                : escolherIntervalo(periodo);
+        String larguraEs = largura.toSeconds() + "s";
+        String campoTipoExcecao = campoExcecao.isBlank() ? CAMPO_TIPO_EXCECAO : campoExcecao;
+
+        SearchRequest searchRequest = SearchRequest.of(s -> {
+            s.index(INDICE)
+                    .size(0)
+                    .trackTotalHits(t -> t.enabled(true))
+                    .query(q -> q.bool(b -> b
+                            .filter(f -> f.range(r -> r
+                                    .field(CAMPO_TEMPO)
+                                    .gte(JsonData.of(paraIso(inicioConsulta)))
+                                    .lt(JsonData.of(paraIso(fimConsulta)))
+                            ))
+                            .filter(f -> f.queryString(qs -> qs.query(query)))
+                    ))
+                    .aggregations("niveis", a -> a.terms(t -> t.field(campoNivel).size(20)))
+                    .aggregations("histograma", a -> a
+                            .dateHistogram(h -> h.field(CAMPO_TEMPO).fixedInterval(i -> i.time(larguraEs)).minDocCount(1))
+                            .aggregations("niveis", sub -> sub.terms(t -> t.field(campoNivel).size(20)))
+                    )
+                    .aggregations("loggers", a -> a.terms(t -> t.field(campoLogger).size(top)))
+                    .aggregations("excecoes", a -> a
+                            .filter(f -> f.exists(e -> e.field("stack_trace")))
+                            .aggregations("tipos", sub -> sub.terms(t -> t.field(campoTipoExcecao).size(top)))
+                    );
+            if (campoExcecao.isBlank()) {
+                // Calculado só para os documentos do intervalo que chegam à agregação
+                s.runtimeMappings(CAMPO_TIPO_EXCECAO, rf -> rf
+                        .type(RuntimeFieldType.Keyword)
+                        .script(sc -> sc.inline(i -> i.source(SCRIPT_TIPO_EXCECAO))));
+            }
+            return s;
+        });
+
+        long inicioMs = System.currentTimeMillis();
+        return esAsyncClient.search(searchRequest, Void.class)
+                .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .thenApply(response -> {
+                    Map<String, Aggregate> aggs = response.aggregations();
+
+                    List<LogHistogramaDTO> histograma = new ArrayList<>();
+                    for (DateHistogramBucket bucket : aggs.get("histograma").dateHistogram().buckets().array()) {
+                        Map<String, Long> porNivel = new LinkedHashMap<>();
+                        contagens(bucket.aggregations().get("niveis")).forEach(c -> porNivel.put(c.getValor(), c.getQuantidade()));
+                        histograma.add(new LogHistogramaDTO(
+                                LocalDateTime.ofInstant(Instant.ofEpochMilli(bucket.key()), PassagemUtils.zona()),
+                                bucket.docCount(),
+                                porNivel
+                        ));
+                    }
+
+                    LogAnaliseDTO analise = new LogAnaliseDTO(
+                            inicioConsulta,
+                            fimConsulta,
+                            larguraEs,
+                            response.hits().total() != null ? response.hits().total().value() : 0,
+                            contagens(aggs.get("niveis")),
+                            histograma,
+                            contagens(aggs.get("loggers")),
+                            contagens(aggs.get("excecoes").filter().aggregations().get("tipos"))
+                    );
+                    log.info("📊 [Logs] Análise de {} a {} ({} logs) em {} ms",
+                            inicioConsulta, fimConsulta, analise.getTotal(), System.currentTimeMillis() - inicioMs);
+                    return analise;
+                })
+                .exceptionally(e -> {
+                    throw LogService.erroDeBusca("Falha ao analisar logs no Elasticsearch", e);
+                });
+    }
+
+    private static List<LogContagemDTO> contagens(Aggregate termos) {
+        List<LogContagemDTO> resultado = new ArrayList<>();
+        if (termos == null || !termos.isSterms()) {
+            return resultado;
+        }
+        for (StringTermsBucket bucket : termos.sterms().buckets().array()) {
+            resultado.add(new LogContagemDTO(bucket.key().stringValue(), bucket.docCount()));
+        }
+        return resultado;
+    }
+
+    /**
+     * Menor largura da escala que mantém o histograma em até {@link #MAX_INTERVALOS_HISTOGRAMA} intervalos.
+     */
+    private static Duration escolherIntervalo(Duration periodo) {
+        for (Duration largura : INTERVALOS) {
+            if (periodo.toSeconds() / largura.toSeconds() <= MAX_INTERVALOS_HISTOGRAMA) {
+                return largura;
+            }
+        }
+        // Períodos além da escala: a maior largura, ou a necessária para caber no limite
+        return maior(INTERVALOS.get(INTERVALOS.size() - 1), larguraMinima(periodo));
+    }
+
+    /**
+     * Menor largura (em segundos inteiros) que mantém o período em até {@link #MAX_INTERVALOS_HISTOGRAMA} intervalos.
+     */
+    private static Duration larguraMinima(Duration periodo) {
+        long segundos = Math.max(periodo.toSeconds(), 1);
+        return Duration.ofSeconds(Math.max(1, (segundos + MAX_INTERVALOS_HISTOGRAMA - 1) / MAX_INTERVALOS_HISTOGRAMA));
+    }
+
+    private static Duration maior(Duration a, Duration b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+    private static String paraIso(LocalDateTime dataHora) {
+        return dataHora.atZone(PassagemUtils.zona()).toInstant().toString();
+    }
+}
@@ -1,68 +1,307 @@
 package com.coruja.services;
 
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.SortOrder;
 import co.elastic.clients.elasticsearch.core.SearchRequest;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
 import co.elastic.clients.elasticsearch.core.search.Hit;
+import com.coruja.dto.LogPageDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 /**
  * Serviço para busca de logs no Elasticsearch.
+ * As buscas chamadas pelos endpoints usam o cliente assíncrono e devolvem CompletableFuture.
  */
 
 @Service
+@Slf4j
 public class LogService {
 
+    private static final String INDICE = "spring_boot_app-*";
+    // Desempate da ordenação dentro de um point-in-time: posição do documento no shard
+    private static final String DESEMPATE = "_shard_doc";
+
+    // Cliente síncrono: só para o tail, que roda numa thread própria
     private final ElasticsearchClient esClient;
+    // Cliente assíncrono: buscas feitas a partir de requisições HTTP, sem prender a thread do Tomcat
+    private final ElasticsearchAsyncClient esAsyncClient;
+    private final ObjectMapper objectMapper;
+    // Campos exibidos pelo visualizador de logs; vazio = documento inteiro
+    private final List<String> campos;
+    private final String pitKeepAlive;
+    // Prazo total de uma busca; o socket timeout do transporte só cobre inatividade da conexão
+    private final long timeoutMs;
 
     @Autowired
-    public LogService(ElasticsearchClient esClient) {
+    public LogService(
+            @Lazy ElasticsearchClient esClient,
+            @Lazy ElasticsearchAsyncClient esAsyncClient,
+            ObjectMapper objectMapper,
+            @Value("${radares.logs.campos:@timestamp,level,logger_name,message,thread_name,stack_trace}") List<String> campos,
+            @Value("${radares.logs.pit-keep-alive:2m}") String pitKeepAlive,
+            @Value("${radares.logs.timeout-ms:30000}") long timeoutMs
+    ) {
         this.esClient = esClient;
+        this.esAsyncClient = esAsyncClient;
+        this.timeoutMs = timeoutMs;
+        this.objectMapper = objectMapper;
+        this.campos = campos.stream().map(String::trim).filter(c -> !c.isEmpty()).toList();
+        this.pitKeepAlive = pitKeepAlive;
     }
 
     /**
-     * Busca logs no Elasticsearch de forma síncrona.
+     * Busca logs no Elasticsearch de forma assíncrona: a thread chamadora não espera a resposta.
      * @param query Query de busca.
      * @param page Número da página.
      * @param size Tamanho da página.
      * @return Lista de logs (cada log é um Map).
      */
-    public List<Map<String, Object>> searchLogs(String query, int page, int size) {
+    public CompletableFuture<List<Map<String, Object>>> searchLogs(String query, int page, int size) {
         int from = page * size;
 
+        SearchRequest searchRequest = SearchRequest.of(s -> filtrarCampos(s
+                .index(INDICE)
+                .from(from)
+                .size(size)
+                .query(q -> q
+                        .queryString(qs -> qs
+                                .query(query)
+                        )
+                )
+                .sort(sort -> sort
+                        .field(f -> f
+                                .field("@timestamp")
+                                .order(SortOrder.Desc)
+                        )
+                )
+        ));
+
+        return esAsyncClient.search(searchRequest, Map.class)
+                .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .thenApply(response -> response.hits().hits().stream()
+                        .map(hit -> (Map<String, Object>) hit.source())
+                        .collect(Collectors.toList()))
+                .exceptionally(e -> {
+                    throw erroDeBusca("Falha ao buscar logs no Elasticsearch", e);
+                });
+    }
+
+    /**
+     * Busca logs paginando por cursor (point-in-time + search_after), com latência constante por página.
+     * Sem cursor, abre um point-in-time e devolve a primeira página; com cursor, continua de onde parou
+     * (a query usada é a gravada no cursor).
+     * @param query Query de busca, usada só na primeira página.
+     * @param size Tamanho da página.
+     * @param cursor Cursor devolvido pela página anterior (opcional).
+     * @return Logs da página e o cursor da próxima, ou cursor nulo no fim. Falha com
+     *         IllegalArgumentException se o cursor for inválido e IllegalStateException se ele expirou.
+     */
+    public CompletableFuture<LogPageDTO> searchLogsCursor(String query, int size, String cursor) {
+        Cursor anterior;
         try {
-            SearchRequest searchRequest = SearchRequest.of(s -> s
-                    .index("spring_boot_app-*")
-                    .from(from)
-                    .size(size)
-                    .query(q -> q
-                            .queryString(qs -> qs
-                                    .query(query)
-                            )
-                    )
-                    .sort(sort -> sort
-                            .field(f -> f
-                                    .field("@timestamp")
-                                    .order(co.elastic.clients.elasticsearch._types.SortOrder.Desc)
-                            )
-                    )
-            );
+            anterior = cursor != null && !cursor.isBlank() ? decodificar(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        String consulta = anterior != null ? anterior.query() : query;
 
-            SearchResponse<Map> response = esClient.search(searchRequest, Map.class);
+        CompletableFuture<String> pit = anterior != null
+                ? CompletableFuture.completedFuture(anterior.pit())
+                : esAsyncClient.openPointInTime(o -> o.index(INDICE).keepAlive(k -> k.time(pitKeepAlive)))
+                        .thenApply(response -> response.id());
+
+        return pit.thenCompose(pitId -> {
+                    SearchRequest searchRequest = SearchRequest.of(s -> {
+                        s.pit(p -> p.id(pitId).keepAlive(k -> k.time(pitKeepAlive)))
+                                .size(size)
+                                .trackTotalHits(t -> t.enabled(false))
+                                .query(q -> q.queryString(qs -> qs.query(consulta)))
+                                .sort(sort -> sort.field(f -> f.field("@timestamp").order(SortOrder.Desc)))
+                                .sort(sort -> sort.field(f -> f.field(DESEMPATE).order(SortOrder.Desc)));
+                        if (anterior != null) {
+                            s.searchAfter(anterior.after().stream().map(LogService::paraFieldValue).toList());
+                        }
+                        return filtrarCampos(s);
+                    });
+                    return esAsyncClient.search(searchRequest, Map.class)
+                            .thenApply(response -> montarPagina(response, pitId, consulta, size));
+                })
+                .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    Throwable causa = causa(e);
+                    if (anterior != null && causa instanceof ElasticsearchException es && es.status() == 404) {
+                        throw new IllegalStateException("Cursor expirado; reinicie a busca", causa);
+                    }
+                    throw erroDeBusca("Falha ao buscar logs no Elasticsearch", causa);
+                });
+    }
+
+    private LogPageDTO montarPagina(SearchResponse<Map> response, String pitId, String consulta, int size) {
+        List<Hit<Map>> hits = response.hits().hits();
+        List<Map<String, Object>> logs = hits.stream()
+                .map(hit -> (Map<String, Object>) hit.source())
+                .collect(Collectors.toList());
 
-            return response.hits().hits().stream()
-                    .map(hit -> (Map<String, Object>) hit.source())
-                    .collect(Collectors.toList());
+        // O Elasticsearch pode devolver um id de point-in-time atualizado
+        String proximoPit = response.pitId() != null ? response.pitId() : pitId;
+        if (hits.size() < size) {
+            fecharPointInTime(proximoPit);
+            return new LogPageDTO(logs, null);
+        }
+        List<Object> after = hits.get(hits.size() - 1).sort().stream().map(LogService::deFieldValue).toList();
+        return new LogPageDTO(logs, codificar(new Cursor(proximoPit, consulta, after)));
+    }
 
+    /**
+     * Últimos logs da query, do mais recente para o mais antigo (início de um tail).
+     */
+    public List<Hit<Map>> buscarUltimosLogs(String query, int size) {
+        return buscarParaTail(query, null, size);
+    }
+
+    /**
+     * Logs da query posteriores ao instante informado, do mais antigo para o mais novo.
+     * O valor de ordenação de cada hit (hit.sort()) é o @timestamp em epoch millis.
+     */
+    public List<Hit<Map>> buscarLogsDepoisDe(String query, long instanteMs, int size) {
+        return buscarParaTail(query, instanteMs, size);
+    }
+
+    private List<Hit<Map>> buscarParaTail(String query, Long depoisDeMs, int size) {
+        SearchRequest searchRequest = SearchRequest.of(s -> {
+            s.index(INDICE)
+                    .size(size)
+                    .trackTotalHits(t -> t.enabled(false))
+                    .query(q -> q.queryString(qs -> qs.query(query)))
+                    .sort(sort -> sort.field(f -> f
+                            .field("@timestamp")
+                            .order(depoisDeMs == null ? SortOrder.Desc : SortOrder.Asc)));
+            if (depoisDeMs != null) {
+                s.searchAfter(FieldValue.of(depoisDeMs));
+            }
+            return filtrarCampos(s);
+        });
+        try {
+            SearchResponse<Map> response = esClient.search(searchRequest, Map.class);
+            return response.hits().hits();
         } catch (IOException e) {
             throw new RuntimeException("Falha ao buscar logs no Elasticsearch", e);
         }
     }
+
+    private SearchRequest.Builder filtrarCampos(SearchRequest.Builder s) {
+        if (!campos.isEmpty()) {
+            s.source(src -> src.filter(f -> f.includes(campos)));
+        }
+        return s;
+    }
+
+    private void fecharPointInTime(String pitId) {
+        esAsyncClient.closePointInTime(c -> c.id(pitId)).exceptionally(e -> {
+            // Expira sozinho após o keep-alive
+            log.debug("Não foi possível fechar o point-in-time: {}", e.getMessage());
+            return null;
+        });
+    }
+
+    /**
+     * Exceção para a falha de uma busca assíncrona. O timeout (orTimeout) segue como TimeoutException,
+     * para o controller responder 504; as demais falhas são embrulhadas com a mensagem informada.
+     */
+    static RuntimeException erroDeBusca(String mensagem, Throwable e) {
+        Throwable causa = causa(e);
+        if (causa instanceof TimeoutException) {
+            return new CompletionException(causa);
+        }
+        return new RuntimeException(mensagem, causa);
+    }
+
+    /**
+     * Desembrulha a exceção original de uma CompletionException/ExecutionException.
+     */
+    public static Throwable causa(Throwable e) {
+        Throwable atual = e;
+        while ((atual instanceof CompletionException || atual instanceof ExecutionException) && atual.getCause() != null) {
+            atual = atual.getCause();
+        }
+        return atual;
+    }
+
+    private String codificar(Cursor cursor) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(cursor));
+        } catch (IOException e) {
+            throw new IllegalStateException("Falha ao gerar cursor de logs", e);
+        }
+    }
+
+    private Cursor decodificar(String cursor) {
+        try {
+            Cursor decodificado = objectMapper.readValue(
+                    new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8), Cursor.class);
+            if (decodificado.pit() == null || decodificado.query() == null || decodificado.after() == null) {
+                throw new IllegalArgumentException("Cursor de logs incompleto");
+            }
+            return decodificado;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor de logs inválido", e);
+        }
+    }
+
+    private static Object deFieldValue(FieldValue valor) {
+        if (valor.isLong()) {
+            return valor.longValue();
+        }
+        if (valor.isDouble()) {
+            return valor.doubleValue();
+        }
+        if (valor.isBoolean()) {
+            return valor.booleanValue();
+        }
+        if (valor.isString()) {
+            return valor.stringValue();
+        }
+        return null;
+    }
+
+    private static FieldValue paraFieldValue(Object valor) {
+        if (valor instanceof Double || valor instanceof Float) {
+            return FieldValue.of(((Number) valor).doubleValue());
+        }
+        if (valor instanceof Number numero) {
+            // O Jackson lê valores pequenos como Integer
+            return FieldValue.of(numero.longValue());
+        }
+        if (valor instanceof Boolean b) {
+            return FieldValue.of(b);
+        }
+        return valor == null ? FieldValue.NULL : FieldValue.of(valor.toString());
+    }
+
+    /**
+     * Conteúdo do cursor opaco: point-in-time, query original e valores de ordenação do último log.
+     */
+    private record Cursor(String pit, String query, List<Object> after) {
+    }
 }
@@ -0,0 +1,216 @@
+package com.coruja.services;
+
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import com.coruja.dto.LogTailDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tail de logs ao vivo pelo WebSocket.
+ *
+ * Cada query distinta tem um único poller, não importa quantos administradores a acompanham:
+ * a cada intervalo ele busca no Elasticsearch os logs posteriores ao último visto (search_after no @timestamp)
+ * e publica os novos em /topic/logs/tail/{id}, entregues a todos os inscritos.
+ * A carga no Elasticsearch depende do número de tails distintos, não do número de telas abertas.
+ *
+ * Logs indexados com atraso podem chegar com @timestamp anterior ao último visto; por isso a busca
+ * recua uma janela de atraso e descarta os ids já publicados. Tails sem inscritos são encerrados
+ * após um período de carência.
+ */
+@Service
+@Slf4j
+public class LogTailService {
+
+    public static final String PREFIXO_TOPICO = "/topic/logs/tail/";
+
+    private final LogService logService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SimpUserRegistry userRegistry;
+    // Thread própria: as buscas no Elasticsearch não podem atrasar as tarefas do @Scheduled
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "log-tail");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<String, Tail> tails = new ConcurrentHashMap<>();
+
+    private final long intervaloMs;
+    private final long atrasoMs;
+    private final long carenciaMs;
+    private final int tamanhoPagina;
+    private final int logsIniciais;
+    private final int maxTails;
+
+    public LogTailService(
+            LogService logService,
+            SimpMessagingTemplate messagingTemplate,
+            SimpUserRegistry userRegistry,
+            @Value("${radares.logs.tail.intervalo-ms:2000}") long intervaloMs,
+            @Value("${radares.logs.tail.atraso-ms:5000}") long atrasoMs,
+            @Value("${radares.logs.tail.carencia-ms:30000}") long carenciaMs,
+            @Value("${radares.logs.tail.tamanho-pagina:200}") int tamanhoPagina,
+            @Value("${radares.logs.tail.logs-iniciais:50}") int logsIniciais,
+            @Value("${radares.logs.tail.max-tails:20}") int maxTails
+    ) {
+        this.logService = logService;
+        this.messagingTemplate = messagingTemplate;
+        this.userRegistry = userRegistry;
+        this.intervaloMs = intervaloMs;
+        this.atrasoMs = atrasoMs;
+        this.carenciaMs = carenciaMs;
+        this.tamanhoPagina = tamanhoPagina;
+        this.logsIniciais = logsIniciais;
+        this.maxTails = maxTails;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        poller.scheduleWithFixedDelay(this::consultarTails, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        poller.shutdownNow();
+    }
+
+    /**
+     * Abre (ou reaproveita) o tail da query. A mesma query sempre gera o mesmo destino.
+     * @throws IllegalStateException se o limite de tails distintos foi atingido.
+     */
+    public LogTailDTO abrir(String query) {
+        String consulta = query == null || query.isBlank() ? "*" : query.trim();
+        String id = idDaQuery(consulta);
+        Tail tail = tails.computeIfAbsent(id, k -> {
+            if (tails.size() >= maxTails) {
+                throw new IllegalStateException("Limite de " + maxTails + " tails de log simultâneos atingido");
+            }
+            log.info("📜 [Logs] Tail aberto para a query '{}' em {}", consulta, PREFIXO_TOPICO + k);
+            return new Tail(consulta, PREFIXO_TOPICO + k, System.currentTimeMillis());
+        });
+        return new LogTailDTO(id, tail.query, tail.destino, assinantes(tail));
+    }
+
+    /**
+     * Tails ativos com a quantidade de inscritos de cada um.
+     */
+    public List<LogTailDTO> listar() {
+        List<LogTailDTO> resultado = new ArrayList<>();
+        tails.forEach((id, tail) -> resultado.add(new LogTailDTO(id, tail.query, tail.destino, assinantes(tail))));
+        return resultado;
+    }
+
+    private void consultarTails() {
+        long agora = System.currentTimeMillis();
+        for (Map.Entry<String, Tail> entry : tails.entrySet()) {
+            Tail tail = entry.getValue();
+            try {
+                if (assinantes(tail) == 0) {
+                    // Carência conta desde a abertura ou desde que o último inscrito saiu
+                    if (tail.semAssinantesDesde == 0) {
+                        tail.semAssinantesDesde = agora;
+                    } else if (agora - tail.semAssinantesDesde >= carenciaMs) {
+                        tails.remove(entry.getKey(), tail);
+                        log.info("📜 [Logs] Tail encerrado por falta de inscritos: '{}'", tail.query);
+                    }
+                    continue;
+                }
+                tail.semAssinantesDesde = 0;
+                consultar(tail, agora);
+            } catch (Exception e) {
+                // Uma query com erro não interrompe os demais tails
+                log.warn("Falha ao consultar tail de logs '{}': {}", tail.query, e.getMessage());
+            }
+        }
+    }
+
+    private void consultar(Tail tail, long agora) {
+        List<Hit<Map>> hits;
+        if (tail.ultimoInstante < 0) {
+            // Primeira consulta: os últimos logs, para o painel não começar vazio
+            hits = new ArrayList<>(logService.buscarUltimosLogs(tail.query, logsIniciais));
+            Collections.reverse(hits);
+            tail.ultimoInstante = agora;
+        } else {
+            hits = logService.buscarLogsDepoisDe(tail.query, tail.inicioProximaBusca(atrasoMs), tamanhoPagina);
+        }
+
+        List<Map<String, Object>> novos = new ArrayList<>();
+        long maiorInstante = tail.ultimoInstante;
+        for (Hit<Map> hit : hits) {
+            long instante = !hit.sort().isEmpty() && hit.sort().get(0).isLong() ? hit.sort().get(0).longValue() : agora;
+            if (tail.publicados.putIfAbsent(hit.id(), instante) == null) {
+                novos.add((Map<String, Object>) hit.source());
+            }
+            maiorInstante = Math.max(maiorInstante, instante);
+        }
+        tail.ultimoInstante = maiorInstante;
+
+        // Página cheia só de logs já publicados: avança o início para não ficar preso na janela de atraso
+        tail.avancoForcado = novos.isEmpty() && hits.size() >= tamanhoPagina
+                ? maiorInstante - 1
+                : -1;
+
+        long corte = tail.ultimoInstante - atrasoMs;
+        tail.publicados.values().removeIf(instante -> instante < corte);
+
+        if (!novos.isEmpty()) {
+            messagingTemplate.convertAndSend(tail.destino, novos);
+        }
+    }
+
+    private int assinantes(Tail tail) {
+        return userRegistry.findSubscriptions(s -> tail.destino.equals(s.getDestination())).size();
+    }
+
+    private static String idDaQuery(String query) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(query.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Estado de um tail. Só a thread do poller altera os campos de consulta.
+     */
+    private static final class Tail {
+        private final String query;
+        private final String destino;
+        // id do documento -> @timestamp, dos logs publicados dentro da janela de atraso
+        private final Map<String, Long> publicados = new HashMap<>();
+        private long ultimoInstante = -1;
+        private long avancoForcado = -1;
+        private volatile long semAssinantesDesde;
+
+        private Tail(String query, String destino, long abertoEm) {
+            this.query = query;
+            this.destino = destino;
+            this.semAssinantesDesde = abertoEm;
+        }
+
+        private long inicioProximaBusca(long atrasoMs) {
+            return avancoForcado >= 0 ? avancoForcado : ultimoInstante - atrasoMs;
+        }
+    }
+}
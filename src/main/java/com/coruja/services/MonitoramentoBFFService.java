@@ -1,22 +1,42 @@
 package com.coruja.services;
 
+import com.coruja.config.CacheConfig;
 import com.coruja.dto.AlertaPassagemDTO;
 import com.coruja.dto.PageAlertaPassagemDTO;
 import com.coruja.dto.PagePlacaMonitoradaDTO;
 import com.coruja.dto.PlacaMonitoradaDTO;
+import com.coruja.util.BloomFilter;
+import com.coruja.util.PassagemUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.*;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 @Service
 @Slf4j
@@ -24,6 +44,16 @@ public class MonitoramentoBFFService {
 
     private final RestTemplate restTemplate;
     private final CircuitBreakerFactory circuitBreakerFactory;
+    private final ObjectMapper objectMapper;
+
+    // Índice local das placas monitoradas ativas, para marcar passagens sem chamar o serviço de monitoramento
+    private volatile IndicePlacas indicePlacas = IndicePlacas.criar(List.of(), 0.01);
+    // Alterações recebidas durante uma recarga são reaplicadas no índice novo para não se perderem
+    private final Queue<Alteracao> alteracoesDuranteRecarga = new ConcurrentLinkedQueue<>();
+    private volatile boolean recarregando;
+
+    private final int tamanhoPaginaCarga;
+    private final double taxaFalsoPositivo;
 
 //    @Value("${microservico.monitoramento.url}")
 //    private String monitoramentoUrl;
@@ -31,11 +61,28 @@ public class MonitoramentoBFFService {
     //private static final String MONITORAMENTO_SERVICE_ID = "MICROSERVICO-MONITORAMENTO";
     private static final String MONITORAMENTO_SERVICE_ID = "localhost:8089";
 
-    public MonitoramentoBFFService(RestTemplate restTemplate, CircuitBreakerFactory cbFactory) {
+    public MonitoramentoBFFService(
+            RestTemplate restTemplate,
+            CircuitBreakerFactory cbFactory,
+            ObjectMapper objectMapper,
+            @Value("${radares.monitoramento.tamanho-pagina-carga:1000}") int tamanhoPaginaCarga,
+            @Value("${radares.monitoramento.taxa-falso-positivo:0.01}") double taxaFalsoPositivo
+    ) {
         this.restTemplate = restTemplate;
         this.circuitBreakerFactory = cbFactory;
+        this.objectMapper = objectMapper;
+        this.tamanhoPaginaCarga = tamanhoPaginaCarga;
+        this.taxaFalsoPositivo = taxaFalsoPositivo;
     }
 
+    /**
+     * Página de placas monitoradas. Servida do near cache; respostas de fallback não são cacheadas.
+     */
+    @Cacheable(
+            cacheNames = CacheConfig.MONITORAMENTO_PLACAS,
+            key = "#pageable.pageNumber + '-' + #pageable.pageSize",
+            unless = "!(#result instanceof T(com.coruja.dto.PagePlacaMonitoradaDTO))"
+    )
     public PageImpl<? extends Object> listarMonitorados(Pageable pageable) {
         // 4. ALTERADO: A URL agora é construída com o NOME DO SERVIÇO. O "http://" é importante.
         String url = UriComponentsBuilder.fromUriString("http://" + MONITORAMENTO_SERVICE_ID + "/api/monitoramento")
@@ -68,6 +115,7 @@ public class MonitoramentoBFFService {
         );
     }
 
+    @Cacheable(cacheNames = CacheConfig.MONITORAMENTO_PLACA, key = "#id", unless = "#result == null")
     public PlacaMonitoradaDTO buscarPorId(Long id) {
         String url = "http://" + MONITORAMENTO_SERVICE_ID + "/api/monitoramento/" + id;
 
@@ -88,12 +136,16 @@ public class MonitoramentoBFFService {
         );
     }
 
+    @Caching(
+            put = @CachePut(cacheNames = CacheConfig.MONITORAMENTO_PLACA, key = "#result.id", unless = "#result == null || #result.id == null"),
+            evict = @CacheEvict(cacheNames = CacheConfig.MONITORAMENTO_PLACAS, allEntries = true)
+    )
     public PlacaMonitoradaDTO criarMonitorado(PlacaMonitoradaDTO dto) {
         String url = "http://" + MONITORAMENTO_SERVICE_ID + "/api/monitoramento";
 
         CircuitBreaker circuitBreaker = circuitBreakerFactory.create("monitoramentoService");
 
-        return circuitBreaker.run(
+        PlacaMonitoradaDTO criado = circuitBreaker.run(
                 () -> {
                     HttpHeaders headers = new HttpHeaders();
                     headers.setContentType(MediaType.APPLICATION_JSON);
@@ -111,14 +163,22 @@ public class MonitoramentoBFFService {
                     throw new RuntimeException("Falha ao criar monitoramento. Serviço indisponível.");
                 }
         );
+        if (criado != null) {
+            aplicarAlteracao(criado, false);
+        }
+        return criado;
     }
 
+    @Caching(
+            put = @CachePut(cacheNames = CacheConfig.MONITORAMENTO_PLACA, key = "#id", unless = "#result == null"),
+            evict = @CacheEvict(cacheNames = CacheConfig.MONITORAMENTO_PLACAS, allEntries = true)
+    )
     public PlacaMonitoradaDTO atualizarMonitorado(Long id, PlacaMonitoradaDTO dto) {
         String url = "http://" + MONITORAMENTO_SERVICE_ID + "/api/monitoramento/" + id;
 
         CircuitBreaker circuitBreaker = circuitBreakerFactory.create("monitoramentoService");
 
-        return circuitBreaker.run(
+        PlacaMonitoradaDTO atualizado = circuitBreaker.run(
                 () -> {
                     HttpHeaders headers = new HttpHeaders();
                     headers.setContentType(MediaType.APPLICATION_JSON);
@@ -137,8 +197,16 @@ public class MonitoramentoBFFService {
                     throw new RuntimeException("Falha ao atualizar monitoramento. Serviço indisponível.");
                 }
         );
+        if (atualizado != null) {
+            aplicarAlteracao(atualizado, false);
+        }
+        return atualizado;
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.MONITORAMENTO_PLACA, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.MONITORAMENTO_PLACAS, allEntries = true)
+    })
     public void deletarMonitorado(Long id) {
         String url = "http://" + MONITORAMENTO_SERVICE_ID + "/api/monitoramento/" + id;
 
@@ -154,8 +222,19 @@ public class MonitoramentoBFFService {
                     throw new RuntimeException("Falha ao deletar monitoramento. Serviço indisponível.");
                 }
         );
+        PlacaMonitoradaDTO removido = new PlacaMonitoradaDTO();
+        removido.setId(id);
+        aplicarAlteracao(removido, true);
     }
 
+    /**
+     * Página de alertas. Servida do near cache, invalidado a cada alerta confirmado recebido pelo RabbitMQ.
+     */
+    @Cacheable(
+            cacheNames = CacheConfig.MONITORAMENTO_ALERTAS,
+            key = "#pageable.pageNumber + '-' + #pageable.pageSize + '-' + #pageable.sort",
+            unless = "!(#result instanceof T(com.coruja.dto.PageAlertaPassagemDTO))"
+    )
     public Page<AlertaPassagemDTO> listarAlertas(Pageable pageable) {
         UriComponentsBuilder builder = UriComponentsBuilder
                 .fromUriString("http://" + MONITORAMENTO_SERVICE_ID + "/api/monitoramento/alertas")
@@ -189,4 +268,144 @@ public class MonitoramentoBFFService {
         );
     }
 
+    /**
+     * Descarta as páginas de alertas em cache. Chamado quando um alerta confirmado chega pelo RabbitMQ.
+     */
+    @CacheEvict(cacheNames = CacheConfig.MONITORAMENTO_ALERTAS, allEntries = true)
+    public void invalidarAlertas() {
+        log.debug("Cache de alertas invalidado");
+    }
+
+    // =========================================================================
+    // ÍNDICE LOCAL DE PLACAS MONITORADAS
+    // =========================================================================
+
+    /**
+     * Verifica se a placa está entre as monitoradas ativas, sem chamada remota.
+     * O filtro de Bloom descarta quase todas as placas não monitoradas; o conjunto exato elimina os falsos positivos.
+     */
+    public boolean isPlacaMonitorada(String placa) {
+        String normalizada = PassagemUtils.normalizarPlaca(placa);
+        IndicePlacas indice = indicePlacas;
+        return !normalizada.isEmpty()
+                && indice.bloom().talvezContenha(normalizada)
+                && indice.placas().contains(normalizada);
+    }
+
+    /**
+     * Recarrega em segundo plano todas as placas monitoradas ativas e troca o índice de uma vez.
+     * Também reconstrói o filtro de Bloom, que não suporta remoção.
+     * Se o serviço de monitoramento estiver indisponível, o índice atual é mantido.
+     */
+    @Scheduled(
+            initialDelayString = "${radares.monitoramento.recarga-inicial-ms:5000}",
+            fixedDelayString = "${radares.monitoramento.recarga-ms:300000}"
+    )
+    public void recarregarPlacasAtivas() {
+        CircuitBreaker circuitBreaker = circuitBreakerFactory.create("monitoramentoService");
+        recarregando = true;
+        try {
+            List<PlacaMonitoradaDTO> ativas = new ArrayList<>();
+            int pagina = 0;
+            while (true) {
+                String url = UriComponentsBuilder.fromUriString("http://" + MONITORAMENTO_SERVICE_ID + "/api/monitoramento")
+                        .queryParam("page", pagina)
+                        .queryParam("size", tamanhoPaginaCarga)
+                        .toUriString();
+                PagePlacaMonitoradaDTO resposta = circuitBreaker.run(
+                        () -> restTemplate.getForObject(url, PagePlacaMonitoradaDTO.class),
+                        throwable -> {
+                            log.warn("⚠️ Falha ao carregar placas monitoradas: {}", throwable.getMessage());
+                            return null;
+                        }
+                );
+                if (resposta == null) {
+                    return;
+                }
+                for (PlacaMonitoradaDTO dto : resposta.getContent()) {
+                    if (dto.isStatusAtivo()) {
+                        ativas.add(dto);
+                    }
+                }
+                if (resposta.isLast() || resposta.getContent().isEmpty()) {
+                    break;
+                }
+                pagina++;
+            }
+
+            IndicePlacas novo = IndicePlacas.criar(ativas, taxaFalsoPositivo);
+            indicePlacas = novo;
+            log.info("🎯 {} placas monitoradas ativas carregadas no índice local ({} hashes, {} KB)",
+                    novo.placas().size(), novo.bloom().getQuantidadeHashes(), novo.bloom().getQuantidadeBits() / 8 / 1024);
+        } finally {
+            recarregando = false;
+            Alteracao alteracao;
+            while ((alteracao = alteracoesDuranteRecarga.poll()) != null) {
+                aplicar(indicePlacas, alteracao.placa(), alteracao.removida());
+            }
+        }
+    }
+
+    /**
+     * Recebe as alterações de cadastro publicadas pelo serviço de monitoramento
+     * (routing keys monitoramento.placa.criada | atualizada | removida).
+     */
+    @RabbitListener(queues = "#{monitoramentoPlacasQueue.name}")
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.MONITORAMENTO_PLACA, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.MONITORAMENTO_PLACAS, allEntries = true)
+    })
+    public void receberAlteracaoPlaca(String mensagem, @Header(AmqpHeaders.RECEIVED_ROUTING_KEY) String routingKey) {
+        try {
+            PlacaMonitoradaDTO dto = objectMapper.readValue(mensagem, PlacaMonitoradaDTO.class);
+            boolean removida = routingKey != null && routingKey.endsWith(".removida");
+            aplicarAlteracao(dto, removida);
+            log.info("🎯 Alteração de placa monitorada recebida ({}): {}", routingKey, dto.getPlaca());
+        } catch (Exception e) {
+            log.error("Erro ao processar alteração de placa monitorada. Mensagem: '{}'", mensagem, e);
+        }
+    }
+
+    private void aplicarAlteracao(PlacaMonitoradaDTO dto, boolean removida) {
+        aplicar(indicePlacas, dto, removida);
+        if (recarregando) {
+            alteracoesDuranteRecarga.add(new Alteracao(dto, removida));
+        }
+    }
+
+    private static void aplicar(IndicePlacas indice, PlacaMonitoradaDTO dto, boolean removida) {
+        String placa = PassagemUtils.normalizarPlaca(dto.getPlaca());
+        boolean ativa = !removida && dto.isStatusAtivo() && !placa.isEmpty();
+        String anterior = null;
+        if (dto.getId() != null) {
+            anterior = ativa ? indice.placaPorId().put(dto.getId(), placa) : indice.placaPorId().remove(dto.getId());
+        }
+        // Placa trocada no cadastro ou remoção que informa só o id
+        if (anterior != null && !anterior.equals(placa)) {
+            indice.placas().remove(anterior);
+        }
+        if (ativa) {
+            // Bloom antes do conjunto: quem encontra a placa no conjunto sempre passa pelo pré-filtro
+            indice.bloom().adicionar(placa);
+            indice.placas().add(placa);
+        } else if (!placa.isEmpty()) {
+            indice.placas().remove(placa);
+        }
+    }
+
+    private record Alteracao(PlacaMonitoradaDTO placa, boolean removida) {
+    }
+
+    private record IndicePlacas(BloomFilter bloom, Set<String> placas, Map<Long, String> placaPorId) {
+
+        private static IndicePlacas criar(List<PlacaMonitoradaDTO> ativas, double taxaFalsoPositivo) {
+            // Folga para as placas cadastradas até a próxima recarga sem degradar a taxa de falso positivo
+            BloomFilter bloom = new BloomFilter(Math.max(ativas.size() * 2L, 1000), taxaFalsoPositivo);
+            IndicePlacas indice = new IndicePlacas(bloom, ConcurrentHashMap.newKeySet(), new ConcurrentHashMap<>());
+            for (PlacaMonitoradaDTO dto : ativas) {
+                aplicar(indice, dto, false);
+            }
+            return indice;
+        }
+    }
 }
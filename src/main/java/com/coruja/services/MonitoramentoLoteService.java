@@ -0,0 +1,251 @@
+package com.coruja.services;
+
+import com.coruja.dto.MonitoramentoLoteItemDTO;
+import com.coruja.dto.MonitoramentoLoteRespostaDTO;
+import com.coruja.dto.MonitoramentoLoteResultadoDTO;
+import com.coruja.dto.PlacaMonitoradaDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Operações em lote (criar/atualizar/remover) sobre placas monitoradas.
+ *
+ * Cada item passa pelo {@link MonitoramentoBFFService} (circuit breaker, near cache e índice local),
+ * mas os itens rodam em paralelo num pool de tamanho fixo, limitando a carga sobre o serviço de monitoramento.
+ * Uma falha em um item não interrompe os demais: o resultado de cada um é devolvido na ordem da entrada.
+ */
+@Service
+@Slf4j
+public class MonitoramentoLoteService {
+
+    public static final String CRIAR = "CRIAR";
+    public static final String ATUALIZAR = "ATUALIZAR";
+    public static final String REMOVER = "REMOVER";
+
+    private final MonitoramentoBFFService monitoramentoService;
+    private final ExecutorService executorService;
+    private final int maxItens;
+
+    public MonitoramentoLoteService(
+            MonitoramentoBFFService monitoramentoService,
+            @Value("${radares.monitoramento.lote.paralelismo:16}") int paralelismo,
+            @Value("${radares.monitoramento.lote.max-itens:10000}") int maxItens
+    ) {
+        this.monitoramentoService = monitoramentoService;
+        this.executorService = Executors.newFixedThreadPool(paralelismo);
+        this.maxItens = maxItens;
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executorService.shutdown();
+    }
+
+    /**
+     * Executa o lote.
+     * @param podeRemover Se false, itens REMOVER são recusados (remoção exige perfil ADMIN).
+     * @throws IllegalArgumentException se o lote excede o máximo de itens configurado.
+     */
+    public MonitoramentoLoteRespostaDTO executar(List<MonitoramentoLoteItemDTO> itens, boolean podeRemover) {
+        if (itens.size() > maxItens) {
+            throw new IllegalArgumentException("Lote com " + itens.size() + " itens excede o máximo de " + maxItens);
+        }
+        long inicio = System.currentTimeMillis();
+
+        List<CompletableFuture<MonitoramentoLoteResultadoDTO>> futures = new ArrayList<>(itens.size());
+        for (int i = 0; i < itens.size(); i++) {
+            int indice = i;
+            MonitoramentoLoteItemDTO item = itens.get(i);
+            futures.add(CompletableFuture.supplyAsync(() -> executarItem(indice, item, podeRemover), executorService));
+        }
+        List<MonitoramentoLoteResultadoDTO> resultados = futures.stream().map(CompletableFuture::join).toList();
+
+        int sucessos = (int) resultados.stream().filter(MonitoramentoLoteResultadoDTO::isSucesso).count();
+        long duracao = System.currentTimeMillis() - inicio;
+        log.info("📦 Lote de monitoramento: {} itens, {} sucessos, {} falhas em {} ms",
+                resultados.size(), sucessos, resultados.size() - sucessos, duracao);
+        return new MonitoramentoLoteRespostaDTO(resultados.size(), sucessos, resultados.size() - sucessos, duracao, resultados);
+    }
+
+    /**
+     * Lê itens de um CSV com cabeçalho. Separador vírgula ou ponto e vírgula (detectado pelo cabeçalho).
+     * Colunas reconhecidas: operacao, id, placa, marcaModelo, cor, motivo, statusAtivo, observacao, interessado.
+     * Um id não numérico não interrompe a leitura: o item é marcado e recusado individualmente na execução.
+     * @throws IllegalArgumentException se o cabeçalho não tem coluna placa nem id.
+     */
+    public List<MonitoramentoLoteItemDTO> lerCsv(InputStream entrada) throws IOException {
+        BufferedReader leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        String cabecalho = leitor.readLine();
+        if (cabecalho == null) {
+            return List.of();
+        }
+        if (cabecalho.startsWith("\uFEFF")) {
+            cabecalho = cabecalho.substring(1);
+        }
+        char separador = cabecalho.indexOf(';') >= 0 ? ';' : ',';
+
+        Map<String, Integer> colunas = new HashMap<>();
+        List<String> nomes = dividir(cabecalho, separador);
+        for (int i = 0; i < nomes.size(); i++) {
+            colunas.put(nomes.get(i).toLowerCase().replaceAll("[^a-z]", ""), i);
+        }
+        if (!colunas.containsKey("placa") && !colunas.containsKey("id")) {
+            throw new IllegalArgumentException("CSV sem coluna 'placa' ou 'id' no cabeçalho");
+        }
+
+        List<MonitoramentoLoteItemDTO> itens = new ArrayList<>();
+        String linha;
+        while ((linha = leitor.readLine()) != null) {
+            if (linha.isBlank()) {
+                continue;
+            }
+            List<String> valores = dividir(linha, separador);
+            MonitoramentoLoteItemDTO item = new MonitoramentoLoteItemDTO();
+            item.setOperacao(valor(valores, colunas, "operacao"));
+            String id = valor(valores, colunas, "id");
+            item.setId(paraLong(id));
+            if (id != null && item.getId() == null) {
+                item.setErroLeitura("Id inválido: " + id);
+            }
+            item.setPlaca(valor(valores, colunas, "placa"));
+            item.setMarcaModelo(valor(valores, colunas, "marcamodelo"));
+            item.setCor(valor(valores, colunas, "cor"));
+            item.setMotivo(valor(valores, colunas, "motivo"));
+            item.setStatusAtivo(paraBoolean(valor(valores, colunas, "statusativo")));
+            item.setObservacao(valor(valores, colunas, "observacao"));
+            item.setInteressado(valor(valores, colunas, "interessado"));
+            itens.add(item);
+        }
+        return itens;
+    }
+
+    private MonitoramentoLoteResultadoDTO executarItem(int indice, MonitoramentoLoteItemDTO item, boolean podeRemover) {
+        String operacao = item.getOperacao() == null || item.getOperacao().isBlank()
+                ? CRIAR
+                : item.getOperacao().trim().toUpperCase();
+        if (item.getErroLeitura() != null) {
+            return falha(indice, operacao, item, item.getErroLeitura());
+        }
+        try {
+            switch (operacao) {
+                case CRIAR -> {
+                    if (item.getPlaca() == null || item.getPlaca().isBlank()) {
+                        return falha(indice, operacao, item, "Placa obrigatória para CRIAR");
+                    }
+                    PlacaMonitoradaDTO criado = monitoramentoService.criarMonitorado(item.paraPlacaMonitorada());
+                    return sucesso(indice, operacao, item, criado);
+                }
+                case ATUALIZAR -> {
+                    if (item.getId() == null) {
+                        return falha(indice, operacao, item, "Id obrigatório para ATUALIZAR");
+                    }
+                    // Atualização parcial: só as colunas presentes no item substituem o registro atual
+                    PlacaMonitoradaDTO atual = monitoramentoService.buscarPorId(item.getId());
+                    if (atual == null) {
+                        return falha(indice, operacao, item, "Placa monitorada não encontrada: id " + item.getId());
+                    }
+                    PlacaMonitoradaDTO atualizado = monitoramentoService.atualizarMonitorado(item.getId(), item.mesclarCom(atual));
+                    return sucesso(indice, operacao, item, atualizado);
+                }
+                case REMOVER -> {
+                    if (!podeRemover) {
+                        return falha(indice, operacao, item, "Remoção permitida apenas para ADMIN");
+                    }
+                    if (item.getId() == null) {
+                        return falha(indice, operacao, item, "Id obrigatório para REMOVER");
+                    }
+                    monitoramentoService.deletarMonitorado(item.getId());
+                    return sucesso(indice, operacao, item, null);
+                }
+                default -> {
+                    return falha(indice, operacao, item, "Operação inválida: " + operacao);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Falha no item {} do lote ({} {}): {}", indice, operacao, item.getPlaca(), e.getMessage());
+            return falha(indice, operacao, item, e.getMessage());
+        }
+    }
+
+    private static MonitoramentoLoteResultadoDTO sucesso(int indice, String operacao, MonitoramentoLoteItemDTO item,
+                                                         PlacaMonitoradaDTO resposta) {
+        String placa = resposta != null && resposta.getPlaca() != null ? resposta.getPlaca() : item.getPlaca();
+        Long id = resposta != null && resposta.getId() != null ? resposta.getId() : item.getId();
+        return new MonitoramentoLoteResultadoDTO(indice, operacao, placa, id, true, null);
+    }
+
+    private static MonitoramentoLoteResultadoDTO falha(int indice, String operacao, MonitoramentoLoteItemDTO item, String erro) {
+        return new MonitoramentoLoteResultadoDTO(indice, operacao, item.getPlaca(), item.getId(), false, erro);
+    }
+
+    /**
+     * Divide uma linha CSV respeitando campos entre aspas ("a, b") e aspas escapadas ("").
+     */
+    private static List<String> dividir(String linha, char separador) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (c == '"') {
+                if (entreAspas && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    atual.append('"');
+                    i++;
+                } else {
+                    entreAspas = !entreAspas;
+                }
+            } else if (c == separador && !entreAspas) {
+                campos.add(atual.toString().trim());
+                atual.setLength(0);
+            } else {
+                atual.append(c);
+            }
+        }
+        campos.add(atual.toString().trim());
+        return campos;
+    }
+
+    private static String valor(List<String> valores, Map<String, Integer> colunas, String coluna) {
+        Integer posicao = colunas.get(coluna);
+        if (posicao == null || posicao >= valores.size() || valores.get(posicao).isEmpty()) {
+            return null;
+        }
+        return valores.get(posicao);
+    }
+
+    private static Long paraLong(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(valor);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Boolean paraBoolean(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        return switch (valor.toLowerCase()) {
+            case "true", "1", "sim", "s", "ativo" -> true;
+            default -> false;
+        };
+    }
+}
@@ -0,0 +1,339 @@
+package com.coruja.services;
+
+import com.coruja.dto.RadarDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Journal binário das passagens recebidas, em segmentos de tamanho fixo mapeados em memória.
+ *
+ * O listener do RabbitMQ apenas enfileira a passagem; uma thread dedicada serializa e grava
+ * no segmento atual, rotacionando quando ele enche e apagando os mais antigos.
+ * No restart o {@link JournalReplayService} relê o final do journal para reconstruir o estado em memória.
+ *
+ * Formato de cada registro: [int tamanho][int crc32][payload]. Tamanho 0 marca o fim dos dados do segmento
+ * (o arquivo mapeado nasce zerado) e um CRC inválido indica registro incompleto, encerrando a leitura.
+ */
+@Service
+@Slf4j
+public class PassagemJournal implements PassagemListener {
+
+    private static final String PREFIXO = "passagens-";
+    private static final String SUFIXO = ".jnl";
+    private static final int CABECALHO = 8;
+    private static final int TAMANHO_MAXIMO_REGISTRO = 4096;
+
+    private final boolean habilitado;
+    private final Path diretorio;
+    private final long tamanhoSegmento;
+    private final int maxSegmentos;
+    private final BlockingQueue<Registro> fila;
+    private final AtomicLong descartadas = new AtomicLong();
+
+    private volatile boolean ativo;
+    private Thread escritor;
+
+    // Estado abaixo é acessado somente pela thread escritora
+    private final ByteBuffer rascunho = ByteBuffer.allocate(TAMANHO_MAXIMO_REGISTRO);
+    private final CRC32 crc = new CRC32();
+    private FileChannel canal;
+    private MappedByteBuffer segmento;
+    private long indiceSegmento;
+
+    public PassagemJournal(
+            @Value("${radares.journal.habilitado:true}") boolean habilitado,
+            @Value("${radares.journal.diretorio:./data/journal}") String diretorio,
+            @Value("${radares.journal.tamanho-segmento-mb:32}") int tamanhoSegmentoMb,
+            @Value("${radares.journal.max-segmentos:8}") int maxSegmentos,
+            @Value("${radares.journal.capacidade-fila:65536}") int capacidadeFila
+    ) {
+        this.habilitado = habilitado;
+        this.diretorio = Paths.get(diretorio);
+        this.tamanhoSegmento = tamanhoSegmentoMb * 1024L * 1024L;
+        this.maxSegmentos = maxSegmentos;
+        this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+    }
+
+    @PostConstruct
+    public void iniciar() throws IOException {
+        if (!habilitado) {
+            log.info("Journal de passagens desabilitado");
+            return;
+        }
+        Files.createDirectories(diretorio);
+        indiceSegmento = listarSegmentos().stream().mapToLong(PassagemJournal::indice).max().orElse(0L);
+        ativo = true;
+        escritor = new Thread(this::loopEscrita, "passagem-journal");
+        escritor.setDaemon(true);
+        escritor.start();
+        log.info("📼 Journal de passagens em {} (segmentos de {} MB, máximo {})",
+                diretorio.toAbsolutePath(), tamanhoSegmento / (1024 * 1024), maxSegmentos);
+    }
+
+    @Override
+    public void onPassagem(RadarDTO radar) {
+        if (!ativo) {
+            return;
+        }
+        // Nunca bloqueia o listener: com a fila cheia a passagem fica fora do journal
+        if (!fila.offer(new Registro(radar, System.currentTimeMillis()))) {
+            long total = descartadas.incrementAndGet();
+            if (total % 1000 == 1) {
+                log.warn("Fila do journal cheia, {} passagens não gravadas até agora", total);
+            }
+        }
+    }
+
+    @Override
+    public void onPassagemRestaurada(RadarDTO radar) {
+        // Passagens vindas do próprio journal não são regravadas
+    }
+
+    /**
+     * Relê os segmentos em ordem e entrega ao consumidor as passagens recebidas a partir de {@code desdeMillis}.
+     * Segmentos que terminam antes desse instante são ignorados sem leitura.
+     * @return Quantidade de passagens entregues.
+     */
+    public int reproduzir(long desdeMillis, Consumer<RadarDTO> consumidor) {
+        if (!habilitado) {
+            return 0;
+        }
+        int total = 0;
+        List<Path> segmentos = listarSegmentos();
+        for (int i = 0; i < segmentos.size(); i++) {
+            Path arquivo = segmentos.get(i);
+            try {
+                // Se o segmento seguinte já começa antes da janela, este está inteiro fora dela
+                if (i + 1 < segmentos.size() && primeiroInstante(segmentos.get(i + 1)) < desdeMillis) {
+                    continue;
+                }
+                total += reproduzirSegmento(arquivo, desdeMillis, consumidor);
+            } catch (Exception e) {
+                log.error("Erro ao reproduzir segmento {} do journal: {}", arquivo.getFileName(), e.getMessage());
+            }
+        }
+        return total;
+    }
+
+    @PreDestroy
+    public void parar() throws InterruptedException {
+        ativo = false;
+        if (escritor != null) {
+            escritor.join(5000);
+        }
+    }
+
+    // =========================================================================
+    // ESCRITA (thread dedicada)
+    // =========================================================================
+
+    private void loopEscrita() {
+        while (ativo || !fila.isEmpty()) {
+            try {
+                Registro registro = fila.poll(500, TimeUnit.MILLISECONDS);
+                if (registro != null) {
+                    escrever(registro);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Erro ao gravar passagem no journal: {}", e.getMessage());
+            }
+        }
+        fecharSegmento();
+    }
+
+    private void escrever(Registro registro) throws IOException {
+        rascunho.clear();
+        rascunho.putLong(registro.recebidoEm());
+        RadarDTO radar = registro.radar();
+        rascunho.putLong(radar.getData() != null ? radar.getData().toEpochDay() : Long.MIN_VALUE);
+        rascunho.putInt(radar.getHora() != null ? radar.getHora().toSecondOfDay() : -1);
+        putString(radar.getConcessionaria());
+        putString(radar.getPlaca());
+        putString(radar.getPraca());
+        putString(radar.getRodovia());
+        putString(radar.getKm());
+        putString(radar.getSentido());
+        rascunho.flip();
+
+        int tamanho = rascunho.remaining();
+        // Sempre sobram 4 bytes zerados após o último registro para marcar o fim dos dados
+        if (segmento == null || segmento.remaining() < CABECALHO + tamanho + 4) {
+            rotacionar();
+        }
+        crc.reset();
+        crc.update(rascunho.array(), 0, tamanho);
+        segmento.putInt(tamanho);
+        segmento.putInt((int) crc.getValue());
+        segmento.put(rascunho.array(), 0, tamanho);
+    }
+
+    private void putString(String valor) {
+        if (valor == null) {
+            rascunho.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+        int tamanho = Math.min(bytes.length, 512);
+        rascunho.putShort((short) tamanho);
+        rascunho.put(bytes, 0, tamanho);
+    }
+
+    private void rotacionar() throws IOException {
+        fecharSegmento();
+        indiceSegmento++;
+        Path arquivo = diretorio.resolve(String.format("%s%012d%s", PREFIXO, indiceSegmento, SUFIXO));
+        canal = FileChannel.open(arquivo, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segmento = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanhoSegmento);
+        log.debug("📼 Novo segmento do journal: {}", arquivo.getFileName());
+        apagarSegmentosAntigos();
+    }
+
+    private void fecharSegmento() {
+        if (segmento == null) {
+            return;
+        }
+        try {
+            segmento.force();
+            canal.close();
+        } catch (IOException e) {
+            log.error("Erro ao fechar segmento do journal: {}", e.getMessage());
+        }
+        segmento = null;
+        canal = null;
+    }
+
+    private void apagarSegmentosAntigos() {
+        List<Path> segmentos = listarSegmentos();
+        for (int i = 0; i < segmentos.size() - maxSegmentos; i++) {
+            try {
+                Files.deleteIfExists(segmentos.get(i));
+            } catch (IOException e) {
+                log.warn("Não foi possível apagar segmento antigo {}: {}", segmentos.get(i).getFileName(), e.getMessage());
+            }
+        }
+    }
+
+    // =========================================================================
+    // LEITURA
+    // =========================================================================
+
+    private int reproduzirSegmento(Path arquivo, long desdeMillis, Consumer<RadarDTO> consumidor) throws IOException {
+        int total = 0;
+        try (FileChannel leitura = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            MappedByteBuffer dados = leitura.map(FileChannel.MapMode.READ_ONLY, 0, leitura.size());
+            CRC32 verificador = new CRC32();
+            while (dados.remaining() >= CABECALHO) {
+                int tamanho = dados.getInt();
+                if (tamanho <= 0 || tamanho > TAMANHO_MAXIMO_REGISTRO || tamanho > dados.remaining() - 4) {
+                    break;
+                }
+                int crcEsperado = dados.getInt();
+                ByteBuffer payload = dados.slice(dados.position(), tamanho);
+                verificador.reset();
+                verificador.update(payload.duplicate());
+                if ((int) verificador.getValue() != crcEsperado) {
+                    log.warn("Registro corrompido no segmento {}, leitura interrompida", arquivo.getFileName());
+                    break;
+                }
+                dados.position(dados.position() + tamanho);
+
+                if (payload.getLong() < desdeMillis) {
+                    continue;
+                }
+                consumidor.accept(lerRadar(payload));
+                total++;
+            }
+        }
+        return total;
+    }
+
+    private long primeiroInstante(Path arquivo) throws IOException {
+        try (FileChannel leitura = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            if (leitura.size() < CABECALHO + Long.BYTES) {
+                return Long.MAX_VALUE;
+            }
+            MappedByteBuffer dados = leitura.map(FileChannel.MapMode.READ_ONLY, 0, CABECALHO + Long.BYTES);
+            return dados.getInt() > 0 ? dados.getLong(CABECALHO) : Long.MAX_VALUE;
+        }
+    }
+
+    private static RadarDTO lerRadar(ByteBuffer payload) {
+        long epochDay = payload.getLong();
+        int segundoDoDia = payload.getInt();
+        RadarDTO radar = new RadarDTO();
+        radar.setData(epochDay != Long.MIN_VALUE ? LocalDate.ofEpochDay(epochDay) : null);
+        radar.setHora(segundoDoDia >= 0 ? LocalTime.ofSecondOfDay(segundoDoDia) : null);
+        radar.setConcessionaria(getString(payload));
+        radar.setPlaca(getString(payload));
+        radar.setPraca(getString(payload));
+        radar.setRodovia(getString(payload));
+        radar.setKm(getString(payload));
+        radar.setSentido(getString(payload));
+        return radar;
+    }
+
+    private static String getString(ByteBuffer payload) {
+        short tamanho = payload.getShort();
+        if (tamanho < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[tamanho];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private List<Path> listarSegmentos() {
+        if (!Files.isDirectory(diretorio)) {
+            return List.of();
+        }
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            List<Path> segmentos = new ArrayList<>(arquivos
+                    .filter(p -> p.getFileName().toString().startsWith(PREFIXO) && p.getFileName().toString().endsWith(SUFIXO))
+                    .toList());
+            segmentos.sort((a, b) -> Long.compare(indice(a), indice(b)));
+            return segmentos;
+        } catch (IOException e) {
+            log.error("Erro ao listar segmentos do journal: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    private static long indice(Path arquivo) {
+        String nome = arquivo.getFileName().toString();
+        try {
+            return Long.parseLong(nome.substring(PREFIXO.length(), nome.length() - SUFIXO.length()));
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    private record Registro(RadarDTO radar, long recebidoEm) {
+    }
+}
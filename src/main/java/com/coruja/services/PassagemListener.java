@@ -0,0 +1,20 @@
+package com.coruja.services;
+
+import com.coruja.dto.RadarDTO;
+
+/**
+ * Contrato para componentes que consomem cada passagem já interpretada pelo {@link RealtimeUpdateService}.
+ * As implementações rodam na thread do listener do RabbitMQ: devem ser O(1) por passagem e nunca bloquear.
+ */
+public interface PassagemListener {
+
+    void onPassagem(RadarDTO radar);
+
+    /**
+     * Passagem reconstruída a partir do journal durante o restart (antes de atender clientes).
+     * Por padrão é tratada como uma passagem normal; sobrescreva quando o instante de recebimento importar.
+     */
+    default void onPassagemRestaurada(RadarDTO radar) {
+        onPassagem(radar);
+    }
+}
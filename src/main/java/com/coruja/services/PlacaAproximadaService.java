@@ -0,0 +1,290 @@
+package com.coruja.services;
+
+import com.coruja.dto.PlacaCandidataDTO;
+import com.coruja.dto.RadarDTO;
+import com.coruja.util.PassagemUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Índice de placas vistas recentemente, tolerante às confusões do OCR.
+ *
+ * Cada placa é reduzida a uma forma canônica em que caracteres confundíveis viram o mesmo símbolo
+ * (O/Q -> 0, I -> 1, B -> 8). Placas com a mesma forma canônica diferem só por confusões de OCR.
+ * Para erros além disso (caractere trocado, faltando ou sobrando), as formas canônicas são indexadas
+ * por trigramas: só as que compartilham trigramas suficientes com a consulta têm a distância calculada.
+ *
+ * As candidatas são depois pesquisadas por placa exata nos shards, em vez de uma busca curinga.
+ */
+@Service
+@Slf4j
+public class PlacaAproximadaService implements PassagemListener {
+
+    private static final int Q = 3;
+
+    // forma canônica -> placas (normalizadas) com essa forma
+    private final Map<String, GrupoCanonico> grupos = new ConcurrentHashMap<>();
+    // trigrama -> formas canônicas que o contêm
+    private final Map<String, Set<String>> trigramas = new ConcurrentHashMap<>();
+    private final AtomicInteger quantidadePlacas = new AtomicInteger();
+
+    private final long janelaMs;
+    private final int maxPlacas;
+    private final int distanciaMaxima;
+
+    public PlacaAproximadaService(
+            @Value("${radares.placa-aproximada.janela-horas:24}") long janelaHoras,
+            @Value("${radares.placa-aproximada.max-placas:200000}") int maxPlacas,
+            @Value("${radares.placa-aproximada.distancia-maxima:1}") int distanciaMaxima
+    ) {
+        this.janelaMs = janelaHoras * 3_600_000;
+        this.maxPlacas = maxPlacas;
+        this.distanciaMaxima = distanciaMaxima;
+    }
+
+    /**
+     * Forma canônica da placa: normalizada e com os caracteres que o OCR confunde unificados.
+     */
+    public static String canonica(String placa) {
+        String normalizada = PassagemUtils.normalizarPlaca(placa);
+        char[] chars = normalizada.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = switch (chars[i]) {
+                case 'O', 'Q' -> '0';
+                case 'I' -> '1';
+                case 'B' -> '8';
+                default -> chars[i];
+            };
+        }
+        return new String(chars);
+    }
+
+    @Override
+    public void onPassagem(RadarDTO radar) {
+        registrar(radar, System.currentTimeMillis());
+    }
+
+    /**
+     * No restart a recência vem do instante da passagem, não do momento da reprodução.
+     */
+    @Override
+    public void onPassagemRestaurada(RadarDTO radar) {
+        long instante = PassagemUtils.instante(radar);
+        if (instante > 0) {
+            registrar(radar, instante);
+        }
+    }
+
+    private void registrar(RadarDTO radar, long instante) {
+        String placa = PassagemUtils.normalizarPlaca(radar.getPlaca());
+        if (placa.isEmpty()) {
+            return;
+        }
+        String canonica = canonica(placa);
+        Vista vista = new Vista(radar.getConcessionaria(), instante);
+        // compute serializa a criação/remoção do grupo com a manutenção dos trigramas da mesma forma canônica
+        grupos.compute(canonica, (chave, grupo) -> {
+            if (grupo == null) {
+                grupo = new GrupoCanonico();
+                for (String trigrama : trigramas(chave)) {
+                    trigramas.computeIfAbsent(trigrama, k -> ConcurrentHashMap.newKeySet()).add(chave);
+                }
+            }
+            Vista anterior = grupo.placas.get(placa);
+            if (anterior == null) {
+                quantidadePlacas.incrementAndGet();
+            }
+            if (anterior == null || anterior.instante < instante) {
+                grupo.placas.put(placa, vista);
+            }
+            return grupo;
+        });
+    }
+
+    /**
+     * Candidatas para a placa consultada, vistas dentro da janela, da mais provável para a menos provável:
+     * menor distância de edição entre formas canônicas, depois menos confusões de OCR, depois a mais recente.
+     * A própria placa consultada não entra na lista.
+     */
+    public List<PlacaCandidataDTO> candidatas(String placa, int limite) {
+        String normalizada = PassagemUtils.normalizarPlaca(placa);
+        if (normalizada.length() < Q || limite <= 0) {
+            return List.of();
+        }
+        String canonica = canonica(normalizada);
+
+        // Lema dos q-gramas: cada edição destrói no máximo Q trigramas da consulta
+        List<String> daConsulta = trigramas(canonica);
+        int minimoComum = daConsulta.size() - Q * distanciaMaxima;
+        Map<String, Integer> comuns = new HashMap<>();
+        for (String trigrama : daConsulta) {
+            Set<String> formas = trigramas.get(trigrama);
+            if (formas != null) {
+                for (String forma : formas) {
+                    comuns.merge(forma, 1, Integer::sum);
+                }
+            }
+        }
+        // Formas curtas demais para o lema ainda entram se forem idênticas
+        comuns.putIfAbsent(canonica, daConsulta.size());
+
+        long limiteJanela = System.currentTimeMillis() - janelaMs;
+        List<PlacaCandidataDTO> resultado = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : comuns.entrySet()) {
+            if (entry.getValue() < minimoComum) {
+                continue;
+            }
+            String forma = entry.getKey();
+            int distancia = distancia(canonica, forma, distanciaMaxima);
+            if (distancia > distanciaMaxima) {
+                continue;
+            }
+            GrupoCanonico grupo = grupos.get(forma);
+            if (grupo == null) {
+                continue;
+            }
+            for (Map.Entry<String, Vista> placaVista : grupo.placas.entrySet()) {
+                Vista vista = placaVista.getValue();
+                if (vista.instante < limiteJanela || placaVista.getKey().equals(normalizada)) {
+                    continue;
+                }
+                resultado.add(new PlacaCandidataDTO(
+                        placaVista.getKey(),
+                        distancia,
+                        confusoes(normalizada, placaVista.getKey()),
+                        vista.concessionaria,
+                        LocalDateTime.ofInstant(Instant.ofEpochMilli(vista.instante), PassagemUtils.zona())
+                ));
+            }
+        }
+        resultado.sort(Comparator.comparingInt(PlacaCandidataDTO::getDistancia)
+                .thenComparingInt(PlacaCandidataDTO::getConfusoes)
+                .thenComparing(PlacaCandidataDTO::getUltimaPassagem, Comparator.reverseOrder()));
+        return resultado.size() > limite ? new ArrayList<>(resultado.subList(0, limite)) : resultado;
+    }
+
+    /**
+     * Remove placas fora da janela e, se o índice passou do limite, as menos recentes.
+     * Grupos que ficam vazios saem do índice de trigramas.
+     */
+    @Scheduled(fixedDelayString = "${radares.placa-aproximada.limpeza-ms:60000}")
+    public void limparPlacasAntigas() {
+        long limiteJanela = System.currentTimeMillis() - janelaMs;
+        int excedente = quantidadePlacas.get() - maxPlacas;
+        if (excedente > 0) {
+            long[] instantes = grupos.values().stream()
+                    .flatMap(g -> g.placas.values().stream())
+                    .mapToLong(Vista::instante)
+                    .sorted()
+                    .toArray();
+            if (excedente <= instantes.length) {
+                limiteJanela = Math.max(limiteJanela, instantes[excedente - 1] + 1);
+            }
+        }
+        long corte = limiteJanela;
+        int antes = quantidadePlacas.get();
+        for (String canonica : grupos.keySet()) {
+            grupos.computeIfPresent(canonica, (chave, grupo) -> {
+                grupo.placas.entrySet().removeIf(e -> {
+                    boolean antiga = e.getValue().instante < corte;
+                    if (antiga) {
+                        quantidadePlacas.decrementAndGet();
+                    }
+                    return antiga;
+                });
+                if (!grupo.placas.isEmpty()) {
+                    return grupo;
+                }
+                for (String trigrama : trigramas(chave)) {
+                    trigramas.computeIfPresent(trigrama, (t, formas) -> {
+                        formas.remove(chave);
+                        return formas.isEmpty() ? null : formas;
+                    });
+                }
+                return null;
+            });
+        }
+        int removidas = antes - quantidadePlacas.get();
+        if (removidas > 0) {
+            log.info("🧹 [Placa aproximada] {} placas removidas do índice; {} restantes", removidas, quantidadePlacas.get());
+        }
+    }
+
+    /**
+     * Trigramas da forma canônica com marcadores de início e fim, para que a borda também conte.
+     */
+    private static List<String> trigramas(String canonica) {
+        String marcada = "^" + canonica + "$";
+        Set<String> resultado = new LinkedHashSet<>();
+        for (int i = 0; i + Q <= marcada.length(); i++) {
+            resultado.add(marcada.substring(i, i + Q));
+        }
+        return new ArrayList<>(resultado);
+    }
+
+    /**
+     * Distância de Levenshtein, interrompida assim que passa do máximo (retorna máximo + 1).
+     */
+    static int distancia(String a, String b, int maximo) {
+        if (Math.abs(a.length() - b.length()) > maximo) {
+            return maximo + 1;
+        }
+        int[] anterior = new int[b.length() + 1];
+        int[] atual = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            anterior[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            atual[0] = i;
+            int menorDaLinha = atual[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int custo = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                atual[j] = Math.min(Math.min(atual[j - 1] + 1, anterior[j] + 1), anterior[j - 1] + custo);
+                menorDaLinha = Math.min(menorDaLinha, atual[j]);
+            }
+            if (menorDaLinha > maximo) {
+                return maximo + 1;
+            }
+            int[] troca = anterior;
+            anterior = atual;
+            atual = troca;
+        }
+        return Math.min(anterior[b.length()], maximo + 1);
+    }
+
+    /**
+     * Posições alinhadas em que as placas diferem mas têm a mesma forma canônica.
+     */
+    private static int confusoes(String a, String b) {
+        int confusoes = 0;
+        for (int i = 0; i < Math.min(a.length(), b.length()); i++) {
+            char x = a.charAt(i);
+            char y = b.charAt(i);
+            if (x != y && canonica(String.valueOf(x)).equals(canonica(String.valueOf(y)))) {
+                confusoes++;
+            }
+        }
+        return confusoes;
+    }
+
+    private static final class GrupoCanonico {
+        private final Map<String, Vista> placas = new ConcurrentHashMap<>();
+    }
+
+    private record Vista(String concessionaria, long instante) {
+    }
+}
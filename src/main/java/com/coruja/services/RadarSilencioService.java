@@ -0,0 +1,270 @@
+package com.coruja.services;
+
+import com.coruja.dto.RadarDTO;
+import com.coruja.dto.RadarStatusEventoDTO;
+import com.coruja.util.HashedTimerWheel;
+import com.coruja.util.PassagemUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Detecta radares/praças que pararam de enviar passagens.
+ *
+ * Cada ponto de captura aprende sua cadência (média móvel exponencial do intervalo entre passagens)
+ * e mantém um único prazo na {@link HashedTimerWheel}. Uma nova passagem só adia o prazo em memória;
+ * quando o timer dispara, o prazo é conferido e, se ainda estiver no futuro, é re-agendado.
+ * Assim o custo por passagem é O(1) e não há varredura periódica de todos os pontos.
+ */
+@Service
+@Slf4j
+public class RadarSilencioService implements PassagemListener {
+
+    public static final String TOPICO_STATUS = "/topic/radar-status";
+    public static final String SILENCIOSO = "SILENCIOSO";
+    public static final String RECUPERADO = "RECUPERADO";
+
+    // Peso da amostra mais recente na média móvel do intervalo entre passagens
+    private static final double ALFA = 0.2;
+    // Amostras necessárias antes de confiar na cadência aprendida
+    private static final int MIN_AMOSTRAS = 3;
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final HashedTimerWheel<PontoEstado> wheel;
+    private final Map<String, PontoEstado> pontos = new ConcurrentHashMap<>();
+    private final Deque<RadarStatusEventoDTO> eventosRecentes = new ArrayDeque<>();
+
+    private final double fator;
+    private final long silencioMinimoMs;
+    private final long silencioMaximoMs;
+    private final long silencioInicialMs;
+    private final int maxEventos;
+
+    public RadarSilencioService(
+            SimpMessagingTemplate messagingTemplate,
+            @Value("${radares.silencio.tick-ms:1000}") long tickMs,
+            @Value("${radares.silencio.fator:5.0}") double fator,
+            @Value("${radares.silencio.minimo-segundos:120}") long silencioMinimoSegundos,
+            @Value("${radares.silencio.maximo-segundos:21600}") long silencioMaximoSegundos,
+            @Value("${radares.silencio.inicial-segundos:900}") long silencioInicialSegundos,
+            @Value("${radares.silencio.max-eventos:500}") int maxEventos
+    ) {
+        this.messagingTemplate = messagingTemplate;
+        this.wheel = new HashedTimerWheel<>(tickMs, 512, System.currentTimeMillis());
+        this.fator = fator;
+        this.silencioMinimoMs = silencioMinimoSegundos * 1000;
+        this.silencioMaximoMs = silencioMaximoSegundos * 1000;
+        this.silencioInicialMs = silencioInicialSegundos * 1000;
+        this.maxEventos = maxEventos;
+    }
+
+    @Override
+    public void onPassagem(RadarDTO radar) {
+        long agora = System.currentTimeMillis();
+        PontoEstado estado = pontos.computeIfAbsent(PassagemUtils.chavePonto(radar), k -> new PontoEstado(radar));
+
+        boolean recuperado;
+        long novoAgendamento = -1;
+        synchronized (estado) {
+            recuperado = estado.silencioso;
+            // O intervalo que encerra um silêncio não representa a cadência normal do ponto
+            if (estado.ultimaPassagem > 0 && !recuperado) {
+                long intervalo = agora - estado.ultimaPassagem;
+                estado.intervaloMedio = estado.amostras == 0
+                        ? intervalo
+                        : (long) (ALFA * intervalo + (1 - ALFA) * estado.intervaloMedio);
+                estado.amostras++;
+            }
+            estado.ultimaPassagem = agora;
+            estado.prazo = agora + limiteSilencio(estado);
+            estado.silencioso = false;
+            if (!estado.agendado) {
+                estado.agendado = true;
+                novoAgendamento = estado.prazo;
+            }
+        }
+
+        if (novoAgendamento > 0) {
+            wheel.schedule(estado, novoAgendamento);
+        }
+        if (recuperado) {
+            RadarStatusEventoDTO evento = criarEvento(RECUPERADO, estado, agora);
+            log.info("🔊 [Radar] Ponto voltou a enviar passagens: {}", estado.chave);
+            publicar(evento);
+        }
+    }
+
+    /**
+     * No restart só registra o ponto e sua última passagem conhecida: os intervalos reproduzidos
+     * do journal não refletem a cadência real, então não alimentam a média.
+     *
+     * O prazo conta a partir do restart, não do horário da câmera: enquanto o serviço esteve fora
+     * nenhuma passagem foi recebida, e armar pelo horário antigo dispararia uma rajada de SILENCIOSO
+     * logo após a subida.
+     */
+    @Override
+    public void onPassagemRestaurada(RadarDTO radar) {
+        long instante = PassagemUtils.instante(radar);
+        if (instante < 0) {
+            return;
+        }
+        long agora = System.currentTimeMillis();
+        PontoEstado estado = pontos.computeIfAbsent(PassagemUtils.chavePonto(radar), k -> new PontoEstado(radar));
+        long novoAgendamento = -1;
+        synchronized (estado) {
+            estado.ultimaPassagem = Math.max(estado.ultimaPassagem, instante);
+            estado.prazo = Math.max(estado.ultimaPassagem, agora) + limiteSilencio(estado);
+            if (!estado.agendado) {
+                estado.agendado = true;
+                novoAgendamento = estado.prazo;
+            }
+        }
+        if (novoAgendamento > 0) {
+            wheel.schedule(estado, novoAgendamento);
+        }
+    }
+
+    /**
+     * Avança a roda de temporização. Só os pontos cujo prazo caiu neste tick são examinados.
+     */
+    @Scheduled(fixedRateString = "${radares.silencio.tick-ms:1000}")
+    public void verificarPrazos() {
+        long agora = System.currentTimeMillis();
+        for (PontoEstado estado : wheel.advance(agora)) {
+            boolean silenciou = false;
+            long rearmar = -1;
+            synchronized (estado) {
+                if (estado.prazo > agora) {
+                    // Chegaram passagens depois do agendamento: apenas empurra o timer
+                    rearmar = estado.prazo;
+                } else {
+                    estado.agendado = false;
+                    if (!estado.silencioso) {
+                        estado.silencioso = true;
+                        silenciou = true;
+                    }
+                }
+            }
+            if (rearmar > 0) {
+                wheel.schedule(estado, rearmar);
+            }
+            if (silenciou) {
+                RadarStatusEventoDTO evento = criarEvento(SILENCIOSO, estado, agora);
+                log.warn("🔇 [Radar] Ponto sem passagens há {}s: {}", evento.getSilencioSegundos(), estado.chave);
+                publicar(evento);
+            }
+        }
+    }
+
+    /**
+     * Pontos atualmente em silêncio, com a duração do silêncio até agora.
+     */
+    public List<RadarStatusEventoDTO> listarSilenciosos() {
+        long agora = System.currentTimeMillis();
+        List<RadarStatusEventoDTO> silenciosos = new ArrayList<>();
+        for (PontoEstado estado : pontos.values()) {
+            synchronized (estado) {
+                if (estado.silencioso) {
+                    silenciosos.add(criarEvento(SILENCIOSO, estado, agora));
+                }
+            }
+        }
+        return silenciosos;
+    }
+
+    /**
+     * Últimos eventos de silêncio/recuperação, do mais recente para o mais antigo.
+     */
+    public List<RadarStatusEventoDTO> listarEventosRecentes(int limite) {
+        List<RadarStatusEventoDTO> resultado = new ArrayList<>();
+        synchronized (eventosRecentes) {
+            Iterator<RadarStatusEventoDTO> it = eventosRecentes.descendingIterator();
+            while (it.hasNext() && resultado.size() < limite) {
+                resultado.add(it.next());
+            }
+        }
+        return resultado;
+    }
+
+    private long limiteSilencio(PontoEstado estado) {
+        if (estado.amostras < MIN_AMOSTRAS) {
+            return silencioInicialMs;
+        }
+        long esperado = (long) (estado.intervaloMedio * fator);
+        return Math.min(Math.max(esperado, silencioMinimoMs), silencioMaximoMs);
+    }
+
+    private void publicar(RadarStatusEventoDTO evento) {
+        synchronized (eventosRecentes) {
+            eventosRecentes.addLast(evento);
+            while (eventosRecentes.size() > maxEventos) {
+                eventosRecentes.removeFirst();
+            }
+        }
+        try {
+            messagingTemplate.convertAndSend(TOPICO_STATUS, evento);
+        } catch (Exception e) {
+            log.error("Erro ao enviar evento de status de radar via WebSocket: {}", e.getMessage());
+        }
+    }
+
+    private RadarStatusEventoDTO criarEvento(String tipo, PontoEstado estado, long agora) {
+        long silencio = SILENCIOSO.equals(tipo) ? (agora - estado.ultimaPassagem) / 1000 : 0;
+        return new RadarStatusEventoDTO(
+                tipo,
+                estado.concessionaria,
+                estado.praca,
+                estado.rodovia,
+                estado.km,
+                estado.sentido,
+                paraDataHora(estado.ultimaPassagem),
+                silencio,
+                estado.intervaloMedio / 1000,
+                paraDataHora(agora)
+        );
+    }
+
+    private static LocalDateTime paraDataHora(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), PassagemUtils.zona());
+    }
+
+    /**
+     * Estado de um ponto de captura. Campos mutáveis protegidos pelo monitor do próprio objeto.
+     */
+    private static final class PontoEstado {
+        private final String chave;
+        private final String concessionaria;
+        private final String praca;
+        private final String rodovia;
+        private final String km;
+        private final String sentido;
+
+        private long ultimaPassagem;
+        private long intervaloMedio;
+        private int amostras;
+        private long prazo;
+        private boolean agendado;
+        private boolean silencioso;
+
+        private PontoEstado(RadarDTO radar) {
+            this.chave = PassagemUtils.chavePonto(radar);
+            this.concessionaria = radar.getConcessionaria();
+            this.praca = radar.getPraca();
+            this.rodovia = radar.getRodovia();
+            this.km = radar.getKm();
+            this.sentido = radar.getSentido();
+        }
+    }
+}
@@ -1,15 +1,13 @@
 package com.coruja.services;
 
 import com.coruja.dto.*;
-import jakarta.annotation.PostConstruct;
+import com.coruja.util.PassagemUtils;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
 
-import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
@@ -24,6 +22,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,7 +31,9 @@ public class RadarsBFFService {
 
     private final RestTemplate restTemplate;
     private final RealtimeUpdateService realtimeUpdateService;
-    private final Map<String, String> serviceUrlMap = new HashMap<>();
+    private final ConcessionariaRegistry concessionariaRegistry;
+    private final CatalogoService catalogoService;
+    private final PlacaAproximadaService placaAproximadaService;
     private final CircuitBreakerFactory circuitBreakerFactory;
     private final ExecutorService executorService;
 
@@ -41,31 +42,21 @@ public class RadarsBFFService {
     public RadarsBFFService(
             RestTemplate restTemplate,
             RealtimeUpdateService realtimeUpdateService,
-            CircuitBreakerFactory circuitBreakerFactory
+            CircuitBreakerFactory circuitBreakerFactory,
+            ConcessionariaRegistry concessionariaRegistry,
+            CatalogoService catalogoService,
+            PlacaAproximadaService placaAproximadaService
     ) {
         this.restTemplate = restTemplate;
         this.realtimeUpdateService = realtimeUpdateService;
+        this.concessionariaRegistry = concessionariaRegistry;
+        this.catalogoService = catalogoService;
+        this.placaAproximadaService = placaAproximadaService;
         this.circuitBreakerFactory = circuitBreakerFactory;
         // Thread pool para chamadas paralelas aos microserviços
         this.executorService = Executors.newFixedThreadPool(10);
     }
 
-    /**
-     * NOVO: Este método é executado uma vez após a construção do serviço
-     * para inicializar nosso mapa de serviços.
-     */
-    @PostConstruct
-    public void init() {
-        log.info("Inicializando mapa de URLs dos serviços de radares...");
-        // Mapeie para os NOMES DE SERVIÇO (spring.application.name)
-        // Por padrão, o Eureka registra os nomes em MAIÚSCULAS.
-        serviceUrlMap.put("cart", "MICROSERVICO-RADAR-CART");
-        serviceUrlMap.put("eixo", "MICROSERVICO-RADAR-EIXO");
-        serviceUrlMap.put("entrevias", "MICROSERVICO-RADAR-ENTREVIAS");
-        serviceUrlMap.put("rondon", "MICROSSERVICO-RADAR-RONDON");
-        log.info("Mapa de serviços carregado: {}", serviceUrlMap);
-    }
-
     /**
      * Método unificado para buscar dados paginados. Filtra por concessionárias se a lista for fornecida,
      * ou busca em todas se a lista for nula ou vazia.
@@ -85,11 +76,11 @@ public class RadarsBFFService {
         final List<String> urlsParaChamar;
 
         if (CollectionUtils.isEmpty(concessionarias)) {
-            urlsParaChamar = new ArrayList<>(serviceUrlMap.values());
+            urlsParaChamar = concessionariaRegistry.getServicos();
             log.info("Busca agregada em todos os {} serviços.", urlsParaChamar.size());
         } else {
             urlsParaChamar = concessionarias.stream()
-                    .map(nome -> serviceUrlMap.get(nome.toLowerCase()))
+                    .map(concessionariaRegistry::getServico)
                     .filter(Objects::nonNull)
                     .collect(Collectors.toList());
             log.info("Busca direcionada para as concessionárias: {}", concessionarias);
@@ -126,6 +117,48 @@ public class RadarsBFFService {
         return aggregatePages(pages, pageable);
     }
 
+    /**
+     * Busca por placa tolerante a erros de OCR.
+     * As candidatas vêm do índice local de placas vistas recentemente; a placa consultada e as
+     * primeiras candidatas são pesquisadas por placa exata em todos os shards, numa única rodada paralela.
+     */
+    public BuscaAproximadaDTO buscarPorPlacaAproximada(String placa, int maxCandidatas, Pageable pageable) {
+        List<PlacaCandidataDTO> candidatas = placaAproximadaService.candidatas(placa, maxCandidatas);
+
+        List<String> placasPesquisadas = new ArrayList<>();
+        placasPesquisadas.add(PassagemUtils.normalizarPlaca(placa));
+        candidatas.forEach(c -> placasPesquisadas.add(c.getPlaca()));
+
+        // Cada shard devolve no máximo o necessário para montar a página pedida
+        Pageable paginaPorShard = PageRequest.of(0, (pageable.getPageNumber() + 1) * pageable.getPageSize());
+        List<CompletableFuture<RadarPageDTO>> futures = new ArrayList<>();
+        for (String placaPesquisada : placasPesquisadas) {
+            for (String baseUrl : concessionariaRegistry.getServicos()) {
+                futures.add(CompletableFuture.supplyAsync(
+                        () -> fetchPageFromMicroservice(
+                                baseUrl, placaPesquisada, null, null, null, null,
+                                null, null, null, paginaPorShard
+                        ),
+                        executorService
+                ));
+            }
+        }
+
+        List<RadarPageDTO> pages = futures.stream()
+                .map(future -> {
+                    try {
+                        return future.get(10, TimeUnit.SECONDS);
+                    } catch (Exception e) {
+                        log.error("Erro na busca aproximada de placa: {}", e.getMessage());
+                        return new RadarPageDTO(Collections.emptyList(), new PageMetadata(0, 0, 0, 0));
+                    }
+                })
+                .collect(Collectors.toList());
+
+        log.info("🔎 Busca aproximada de {}: {} placas pesquisadas em {} chamadas", placa, placasPesquisadas.size(), futures.size());
+        return new BuscaAproximadaDTO(placa, placasPesquisadas, candidatas, aggregatePages(pages, pageable));
+    }
+
     /**
      * Busca TODOS os registros que correspondem a um filtro, para exportação.
      */
@@ -143,10 +176,10 @@ public class RadarsBFFService {
         final List<String> urlsParaChamar;
 
         if (CollectionUtils.isEmpty(concessionarias)) {
-            urlsParaChamar = new ArrayList<>(serviceUrlMap.values());
+            urlsParaChamar = concessionariaRegistry.getServicos();
         } else {
             urlsParaChamar = concessionarias.stream()
-                    .map(nome -> serviceUrlMap.get(nome.toLowerCase()))
+                    .map(concessionariaRegistry::getServico)
                     .filter(Objects::nonNull)
                     .collect(Collectors.toList());
         }
@@ -196,70 +229,31 @@ public class RadarsBFFService {
     }
 
     /**
-     * Busca as opções de filtro disponíveis para uma concessionária.
+     * Ressincroniza um cliente de tempo real a partir da última sequência que ele recebeu.
      */
-    @Cacheable(value = "radares-bff-filtros", key = "#nomeConcessionaria")
-    public FilterOptionsDTO getFilterOptionsForConcessionaria(String nomeConcessionaria) {
-        String baseUrl = serviceUrlMap.get(nomeConcessionaria.toLowerCase());
-        if (baseUrl == null) {
-            log.warn("Concessionária '{}' não encontrada no mapa de serviços", nomeConcessionaria);
-            return new FilterOptionsDTO(List.of(), List.of(), List.of(), List.of());
-        }
-
-        String url = "http://" + baseUrl + "/radares/opcoes-filtro";
-        log.info("BFF buscando opções de filtro em: {}", url);
-
-        CircuitBreaker circuitBreaker = circuitBreakerFactory.create("filterOptions");
+    public RealtimeSyncDTO sincronizarTempoReal(Long desde, String epoca) {
+        return realtimeUpdateService.sincronizar(desde, epoca);
+    }
 
-        return circuitBreaker.run(
-                () -> {
-                    try {
-                        ResponseEntity<FilterOptionsDTO> response = restTemplate.getForEntity(
-                                url,
-                                FilterOptionsDTO.class
-                        );
-                        return response.getBody() != null
-                                ? response.getBody()
-                                : new FilterOptionsDTO(List.of(), List.of(), List.of(), List.of());
-                    } catch (Exception e) {
-                        log.error("Erro ao buscar opções de filtro: {}", e.getMessage());
-                        throw e;
-                    }
-                },
-                throwable -> {
-                    log.warn("Circuit Breaker ativo para filtros de {}", nomeConcessionaria);
-                    return new FilterOptionsDTO(List.of(), List.of(), List.of(), List.of());
-                }
-        );
+    /**
+     * Opções de filtro disponíveis para uma concessionária, servidas pelo catálogo em memória.
+     */
+    public FilterOptionsDTO getFilterOptionsForConcessionaria(String nomeConcessionaria) {
+        return catalogoService.getOpcoesFiltro(nomeConcessionaria);
     }
 
     /**
-     * Busca os KMs disponíveis para uma rodovia específica.
+     * Busca os KMs disponíveis para uma rodovia específica, a partir do catálogo em memória.
      */
     public List<String> getKmsForRodoviaByConcessionaria(String nomeConcessionaria, String rodovia) {
-        String baseUrl = serviceUrlMap.get(nomeConcessionaria.toLowerCase());
-        if (baseUrl == null) {
-            return Collections.emptyList();
-        }
+        return catalogoService.getKms(nomeConcessionaria, rodovia);
+    }
 
-        String url = UriComponentsBuilder.fromHttpUrl("http://" + baseUrl + "/radares/kms-por-rodovia")
-                .queryParam("rodovia", rodovia)
-                .toUriString();
-
-        log.info("BFF buscando KMs por rodovia em: {}", url);
-
-        try {
-            ResponseEntity<List<String>> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    null,
-                    new ParameterizedTypeReference<List<String>>() {}
-            );
-            return response.getBody() != null ? response.getBody() : Collections.emptyList();
-        } catch (Exception e) {
-            log.error("Erro ao buscar KMs para rodovia '{}': {}", rodovia, e.getMessage());
-            return Collections.emptyList();
-        }
+    /**
+     * Catálogo de filtros de todas as concessionárias.
+     */
+    public List<CatalogoConcessionariaDTO> getCatalogo() {
+        return catalogoService.listar();
     }
 
 
@@ -388,10 +382,41 @@ public class RadarsBFFService {
         return allRadars;
     }
 
+    /**
+     * Aquecimento: a mesma rodada paralela no pool das buscas e a mesma agregação, com as páginas
+     * dos shards vindas de fontes locais em vez dos microsserviços. Sem log por chamada.
+     */
+    RadarPageDTO agregarEmParalelo(List<Supplier<RadarPageDTO>> shards, Pageable pageable) {
+        List<CompletableFuture<RadarPageDTO>> futures = shards.stream()
+                .map(shard -> CompletableFuture.supplyAsync(shard, executorService))
+                .collect(Collectors.toList());
+        List<RadarPageDTO> pages = futures.stream()
+                .map(future -> {
+                    try {
+                        return future.get(10, TimeUnit.SECONDS);
+                    } catch (Exception e) {
+                        return new RadarPageDTO(Collections.emptyList(), new PageMetadata(0, 0, 0, 0));
+                    }
+                })
+                .collect(Collectors.toList());
+        return combinarPaginas(pages, pageable);
+    }
+
     /**
      * Agrega múltiplas páginas de diferentes serviços em uma única página.
      */
     private RadarPageDTO aggregatePages(List<RadarPageDTO> pages, Pageable pageable) {
+        RadarPageDTO resultado = combinarPaginas(pages, pageable);
+        log.info("Agregação: {} elementos totais, {} retornados",
+                resultado.getPage().getTotalElements(), resultado.getContent().size());
+        return resultado;
+    }
+
+    /**
+     * Combina as páginas dos shards: concatena, ordena da passagem mais recente para a mais antiga,
+     * soma os totais e recorta a página pedida. Sem estado nem log (usado também pelos benchmarks).
+     */
+    public static RadarPageDTO combinarPaginas(List<RadarPageDTO> pages, Pageable pageable) {
         // Combina todo o conteúdo
         List<RadarDTO> combinedContent = pages.stream()
                 .filter(p -> p != null && p.getContent() != null)
@@ -427,9 +452,6 @@ public class RadarsBFFService {
                 totalPages
         );
 
-        log.info("Agregação: {} elementos totais, {} combinados, {} retornados",
-                totalElements, combinedContent.size(), paginatedContent.size());
-
         return new RadarPageDTO(paginatedContent, metadata);
     }
 }
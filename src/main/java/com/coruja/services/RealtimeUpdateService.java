@@ -2,16 +2,22 @@ package com.coruja.services;
 
 import com.coruja.config.RabbitMQConfig;
 import com.coruja.dto.RadarDTO;
+import com.coruja.dto.RealtimeDeltaDTO;
+import com.coruja.dto.RealtimeSyncDTO;
+import com.coruja.util.RadarMensagemParser;
+import com.coruja.util.SequencedRingBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDate;
-import java.time.LocalTime;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -20,6 +26,10 @@ public class RealtimeUpdateService {
 
     private static final Logger logger = LoggerFactory.getLogger(RealtimeUpdateService.class);
 
+    // Headers STOMP com a sequência de cada broadcast e a época (instância) que a gerou
+    public static final String HEADER_SEQUENCIA = "seq";
+    public static final String HEADER_EPOCA = "seq-epoca";
+
     // Ferramenta do Spring para enviar mensagens para os clientes WebSocket
     private final SimpMessagingTemplate messagingTemplate;
 
@@ -27,9 +37,35 @@ public class RealtimeUpdateService {
     // Usamos ConcurrentHashMap para segurança em ambientes com múltiplas threads.
     private final Map<String, RadarDTO> lastRadarByConcessionaria = new ConcurrentHashMap<>();
 
+    // Componentes que processam cada passagem (detecção de silêncio, estatísticas, etc.)
+    private final List<PassagemListener> passagemListeners;
+
+    // Índice local das placas monitoradas (consultado a cada passagem) e near cache de alertas
+    private final MonitoramentoBFFService monitoramentoService;
+
+    // Roteamento dos alertas confirmados por usuário interessado
+    private final AlertaFanoutService alertaFanoutService;
+
+    // Log limitado dos últimos broadcasts, numerados em sequência, para ressincronizar clientes
+    private final SequencedRingBuffer<RealtimeDeltaDTO> deltaLog;
+    // Serializa numeração e envio: sem ele duas threads podem publicar seq 6 antes de seq 5
+    private final Object envioLock = new Object();
+    // Identifica esta instância: após um restart a sequência recomeça e o cliente precisa de snapshot
+    private final String epoca = Long.toString(System.currentTimeMillis(), 36);
+
     @Autowired
-    public RealtimeUpdateService(SimpMessagingTemplate messagingTemplate) {
+    public RealtimeUpdateService(
+            SimpMessagingTemplate messagingTemplate,
+            List<PassagemListener> passagemListeners,
+            MonitoramentoBFFService monitoramentoService,
+            AlertaFanoutService alertaFanoutService,
+            @Value("${radares.realtime.delta-log-capacidade:10000}") int deltaLogCapacidade
+    ) {
         this.messagingTemplate = messagingTemplate;
+        this.passagemListeners = passagemListeners;
+        this.monitoramentoService = monitoramentoService;
+        this.alertaFanoutService = alertaFanoutService;
+        this.deltaLog = new SequencedRingBuffer<>(deltaLogCapacidade);
     }
 
     // Este método "ouve" a fila que recebe os dados de todos os radares
@@ -37,88 +73,26 @@ public class RealtimeUpdateService {
     public void receiveRadarMessage(String message) {
         logger.info("Mensagem recebida do RabbitMQ: {}", message);
         try {
-            if (message == null || message.isBlank()) {
-                logger.warn("Mensagem vazia recebida do RabbitMQ. Ignorando.");
+            RadarDTO radarData;
+            try {
+                radarData = RadarMensagemParser.parse(message);
+            } catch (IllegalArgumentException e) {
+                // Mensagem vazia, malformada ou de concessionária desconhecida: ignora
+                logger.warn("{}. Mensagem ignorada: {}", e.getMessage(), message);
                 return;
             }
 
-            String[] parts = message.split("\\|");
-            if (parts.length < 4) { // Validação mínima (Concessionária, Data, Hora, Placa)
-                logger.warn("Mensagem malformada recebida, número de partes insuficiente. Mensagem: {}", message);
-                return;
-            }
-
-            RadarDTO radarData = new RadarDTO();
-            String concessionaria = parts[0].toUpperCase();
-
-            // Usamos um switch para lidar com os diferentes formatos de cada concessionária
-            switch (concessionaria) {
-                case "RONDON":
-                    if (parts.length >= 7) {
-                        radarData.setConcessionaria("Rondon");
-                        radarData.setData(LocalDate.parse(parts[1]));
-                        radarData.setHora(LocalTime.parse(parts[2]));
-                        radarData.setPlaca(parts[3]);
-                        radarData.setRodovia(parts[4]);
-                        radarData.setKm(parts[5]);
-                        radarData.setSentido(parts[6]);
-                        radarData.setPraca("N/A"); // Rondon não envia praça neste formato
-                    }
-                    break;
-
-                case "ENTREVIAS":
-                    if (parts.length >= 8) {
-                        radarData.setConcessionaria("Entrevias");
-                        radarData.setData(LocalDate.parse(parts[1]));
-                        radarData.setHora(LocalTime.parse(parts[2]));
-                        radarData.setPlaca(parts[3]);
-                        radarData.setPraca(parts[4]);
-                        radarData.setRodovia(parts[5]);
-                        radarData.setKm(parts[6]);
-                        radarData.setSentido(parts[7]);
-                    }
-                    break;
-
-                case "CART":
-                    if (parts.length >= 8) {
-                        radarData.setConcessionaria("Cart");
-                        radarData.setData(LocalDate.parse(parts[1]));
-                        radarData.setHora(LocalTime.parse(parts[2]));
-                        radarData.setPlaca(parts[3]);
-                        radarData.setPraca(parts[4]);
-                        radarData.setRodovia(parts[5]);
-                        radarData.setKm(parts[6]);
-                        radarData.setSentido(parts[7]);
-                    }
-                    break;
-
-                case "EIXO":
-                    // Adicione aqui a lógica de mapeamento para CART e EIXO se forem diferentes
-                    // Assumindo que eles também usam o formato de 8 partes como o Entrevias
-                    if (parts.length >= 8) {
-                        radarData.setConcessionaria(concessionaria);
-                        radarData.setData(LocalDate.parse(parts[1]));
-                        radarData.setHora(LocalTime.parse(parts[2]));
-                        radarData.setPlaca(parts[3]);
-                        radarData.setPraca(parts[4]);
-                        radarData.setRodovia(parts[5]);
-                        radarData.setKm(parts[6]);
-                        radarData.setSentido(parts[7]);
-                    }
-                    break;
-
-                default:
-                    logger.warn("Formato de mensagem desconhecido para a concessionária: {}", concessionaria);
-                    return; // Pula para a próxima mensagem
-            }
-
             // Se o objeto foi populado (placa não é nula), envia para o WebSocket
-            if (radarData.getPlaca() != null) {
+            if (radarData != null && radarData.getPlaca() != null) {
+                // 0. Marca a passagem de placa monitorada já no mesmo frame enviado ao frontend.
+                radarData.setMonitorada(monitoramentoService.isPlacaMonitorada(radarData.getPlaca()));
                 // 1. Guarda o último radar no nosso mapa interno.
                 lastRadarByConcessionaria.put(radarData.getConcessionaria().toUpperCase(), radarData);
                 // 2. Envia para o frontend via WebSocket.
-                messagingTemplate.convertAndSend("/topic/last-radar", radarData);
+                broadcast("/topic/last-radar", radarData);
                 logger.info("Último radar da {} enviado para o frontend via WebSocket.", radarData.getConcessionaria());
+                // 3. Repassa a passagem para os consumidores internos.
+                notificarListeners(radarData);
             }
 
         } catch (Exception e) {
@@ -126,6 +100,35 @@ public class RealtimeUpdateService {
         }
     }
 
+    /**
+     * Reconstrói o estado em memória a partir de uma passagem lida do journal no restart.
+     * Não envia nada pelo WebSocket nem gera sequência: os clientes ainda não estão conectados.
+     */
+    public void restaurarPassagem(RadarDTO radarData) {
+        if (radarData.getPlaca() == null || radarData.getConcessionaria() == null) {
+            return;
+        }
+        lastRadarByConcessionaria.put(radarData.getConcessionaria().toUpperCase(), radarData);
+        for (PassagemListener listener : passagemListeners) {
+            try {
+                listener.onPassagemRestaurada(radarData);
+            } catch (Exception e) {
+                logger.error("Erro ao restaurar passagem em {}: {}", listener.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    private void notificarListeners(RadarDTO radarData) {
+        for (PassagemListener listener : passagemListeners) {
+            try {
+                listener.onPassagem(radarData);
+            } catch (Exception e) {
+                // Um consumidor com falha não pode impedir os demais nem o envio ao frontend
+                logger.error("Erro no processamento da passagem por {}: {}", listener.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
     // Método público para que outros serviços possam buscar o estado atual.
     public Map<String, RadarDTO> getLatestRadars() {
         return lastRadarByConcessionaria;
@@ -135,13 +138,67 @@ public class RealtimeUpdateService {
     // ##         NOVO LISTENER PARA ALERTAS CONFIRMADOS            ##
     // =============================================================
     /**
-     * Ouve a fila de alertas que já foram validados pelo serviço de monitoramento
-     * e os retransmite para um tópico WebSocket exclusivo da tela de monitoramento.
+     * Ouve a fila de alertas que já foram validados pelo serviço de monitoramento.
+     * O alerta é interpretado uma vez, repetições são descartadas e a entrega vai para os
+     * interessados (/user/queue/confirmed-alerts) e, por padrão, também para o tópico compartilhado,
+     * sempre com o JSON original recebido.
      */
     @RabbitListener(queues = "alertas_confirmados_queue")
     public void receiveConfirmedAlert(String alertaJson) {
         logger.info("Alerta confirmado recebido do RabbitMQ: {}", alertaJson);
-        // Retransmite para um NOVO tópico do WebSocket
-        messagingTemplate.convertAndSend("/topic/confirmed-alerts", alertaJson);
+        AlertaFanoutService.AlertaRecebido alerta;
+        try {
+            alerta = alertaFanoutService.interpretar(alertaJson);
+        } catch (Exception e) {
+            // Formato inesperado: mantém o comportamento antigo para não perder o alerta
+            logger.warn("Alerta em formato inesperado, retransmitindo sem roteamento: {}", e.getMessage());
+            monitoramentoService.invalidarAlertas();
+            broadcast("/topic/confirmed-alerts", alertaJson);
+            return;
+        }
+
+        boolean difundir = alertaFanoutService.rotear(alerta);
+        // A lista de alertas mudou: a próxima leitura busca no serviço de monitoramento
+        monitoramentoService.invalidarAlertas();
+        if (difundir) {
+            broadcast("/topic/confirmed-alerts", alertaJson);
+        }
+    }
+
+    /**
+     * Ressincroniza um cliente que reconectou.
+     * Se a época e a sequência informadas ainda estão na janela retida, devolve só os deltas perdidos;
+     * senão devolve um snapshot completo dos últimos radares.
+     *
+     * O cliente deve se inscrever nos tópicos ANTES de chamar este método e descartar mensagens
+     * com header "seq" menor ou igual à sequência devolvida.
+     */
+    public RealtimeSyncDTO sincronizar(Long desde, String epocaCliente) {
+        if (desde != null && epoca.equals(epocaCliente)) {
+            List<RealtimeDeltaDTO> deltas = deltaLog.desde(desde);
+            if (deltas != null) {
+                long sequencia = deltas.isEmpty() ? desde : deltas.get(deltas.size() - 1).getSequencia();
+                return new RealtimeSyncDTO(epoca, sequencia, false, List.of(), deltas);
+            }
+        }
+        // A sequência é lida antes do mapa: o snapshot pode conter algo mais novo, mas nunca perde nada
+        long sequencia = deltaLog.getUltimaSequencia();
+        return new RealtimeSyncDTO(epoca, sequencia, true, new ArrayList<>(lastRadarByConcessionaria.values()), List.of());
+    }
+
+    /**
+     * Envia para o tópico carimbando a mensagem com a próxima sequência e registrando-a no log de deltas.
+     * A sequência é atribuída e a mensagem entregue ao broker na mesma seção crítica, então os frames
+     * saem na ordem das sequências (o broker preserva a ordem de publicação, ver WebSocketConfig).
+     */
+    private void broadcast(String destino, Object payload) {
+        synchronized (envioLock) {
+            RealtimeDeltaDTO delta = deltaLog.append(seq -> new RealtimeDeltaDTO(seq, destino, payload, LocalDateTime.now()));
+            Map<String, Object> headers = Map.of(
+                    HEADER_SEQUENCIA, delta.getSequencia(),
+                    HEADER_EPOCA, epoca
+            );
+            messagingTemplate.convertAndSend(destino, payload, headers);
+        }
     }
 }
@@ -0,0 +1,330 @@
+package com.coruja.services;
+
+import com.coruja.dto.RadarDTO;
+import com.coruja.dto.TrajetoriaDTO;
+import com.coruja.dto.TrechoEstatisticaDTO;
+import com.coruja.dto.TrechoPercorridoDTO;
+import com.coruja.util.PassagemUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Calcula trajetórias e velocidade média por trecho a partir de passagens consecutivas da mesma placa.
+ *
+ * Cada placa guarda apenas a última posição (rodovia, km e instante) e os últimos trechos percorridos.
+ * Uma nova passagem na mesma rodovia, em outro km, gera um trecho cujo tempo e velocidade atualizam
+ * a estatística móvel do trecho em O(1). Velocidades muito acima da média do trecho ou fisicamente
+ * impossíveis são publicadas em /topic/trechos/outliers.
+ *
+ * Placas sem passagens dentro do tempo de inatividade são descartadas pelo Caffeine, assim como
+ * trechos que deixaram de ser percorridos, mantendo a memória limitada.
+ */
+@Service
+@Slf4j
+public class TrajetoriaService implements PassagemListener {
+
+    public static final String TOPICO_OUTLIERS = "/topic/trechos/outliers";
+    public static final String DESVIO = "DESVIO";
+    public static final String VELOCIDADE_IMPOSSIVEL = "VELOCIDADE_IMPOSSIVEL";
+
+    // Peso da travessia mais recente na média móvel do trecho
+    private static final double ALFA = 0.05;
+    // Piso do desvio padrão, para trechos com velocidades muito homogêneas não gerarem alertas por poucos km/h
+    private static final double DESVIO_MINIMO_KMH = 5.0;
+    private static final int MAX_TRECHOS_POR_PLACA = 10;
+    private static final double MS_POR_HORA = 3_600_000.0;
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final Cache<String, EstadoPlaca> estados;
+    private final Cache<String, EstatisticaTrecho> trechos;
+    private final Deque<TrechoPercorridoDTO> outliersRecentes = new ArrayDeque<>();
+
+    private final long intervaloMaximoMs;
+    private final double distanciaMinimaKm;
+    private final double velocidadeImpossivelKmh;
+    private final double desvios;
+    private final int minimoAmostras;
+    private final int maxOutliers;
+
+    public TrajetoriaService(
+            SimpMessagingTemplate messagingTemplate,
+            @Value("${radares.trajetoria.inatividade-minutos:180}") long inatividadeMinutos,
+            @Value("${radares.trajetoria.max-placas:500000}") long maxPlacas,
+            @Value("${radares.trajetoria.retencao-trechos-dias:7}") long retencaoTrechosDias,
+            @Value("${radares.trajetoria.max-trechos:50000}") long maxTrechos,
+            @Value("${radares.trajetoria.intervalo-maximo-minutos:120}") long intervaloMaximoMinutos,
+            @Value("${radares.trajetoria.distancia-minima-km:0.5}") double distanciaMinimaKm,
+            @Value("${radares.trajetoria.velocidade-impossivel-kmh:250}") double velocidadeImpossivelKmh,
+            @Value("${radares.trajetoria.desvios:3.0}") double desvios,
+            @Value("${radares.trajetoria.minimo-amostras:30}") int minimoAmostras,
+            @Value("${radares.trajetoria.max-outliers:500}") int maxOutliers
+    ) {
+        this.messagingTemplate = messagingTemplate;
+        this.estados = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(inatividadeMinutos))
+                .maximumSize(maxPlacas)
+                .build();
+        this.trechos = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofDays(retencaoTrechosDias))
+                .maximumSize(maxTrechos)
+                .build();
+        this.intervaloMaximoMs = intervaloMaximoMinutos * 60_000L;
+        this.distanciaMinimaKm = distanciaMinimaKm;
+        this.velocidadeImpossivelKmh = velocidadeImpossivelKmh;
+        this.desvios = desvios;
+        this.minimoAmostras = minimoAmostras;
+        this.maxOutliers = maxOutliers;
+    }
+
+    @Override
+    public void onPassagem(RadarDTO radar) {
+        processar(radar, true);
+    }
+
+    @Override
+    public void onPassagemRestaurada(RadarDTO radar) {
+        // Reconstrói posições e estatísticas sem republicar outliers antigos
+        processar(radar, false);
+    }
+
+    /**
+     * Última posição e trechos recentes da placa, ou null se ela não passou dentro do tempo de inatividade.
+     */
+    public TrajetoriaDTO consultarTrajetoria(String placa) {
+        String normalizada = PassagemUtils.normalizarPlaca(placa);
+        EstadoPlaca estado = estados.getIfPresent(normalizada);
+        if (estado == null) {
+            return null;
+        }
+        synchronized (estado) {
+            return new TrajetoriaDTO(normalizada, estado.ultimaPassagem, new ArrayList<>(estado.trechos));
+        }
+    }
+
+    /**
+     * Estatísticas dos trechos conhecidos, opcionalmente filtradas por rodovia.
+     * @return Trechos do mais para o menos percorrido.
+     */
+    public List<TrechoEstatisticaDTO> listarTrechos(String rodovia, int minimoAmostras) {
+        String filtro = rodovia != null && !rodovia.isBlank() ? normalizarRodovia(rodovia) : null;
+        List<TrechoEstatisticaDTO> resultado = new ArrayList<>();
+        for (EstatisticaTrecho trecho : trechos.asMap().values()) {
+            if (filtro != null && !filtro.equals(trecho.chaveRodovia)) {
+                continue;
+            }
+            TrechoEstatisticaDTO dto = trecho.resumo();
+            if (dto.getAmostras() >= minimoAmostras) {
+                resultado.add(dto);
+            }
+        }
+        resultado.sort(Comparator.comparingLong(TrechoEstatisticaDTO::getAmostras).reversed());
+        return resultado;
+    }
+
+    /**
+     * Últimos trechos marcados como outlier, do mais recente para o mais antigo.
+     */
+    public List<TrechoPercorridoDTO> listarOutliers(int limite) {
+        List<TrechoPercorridoDTO> resultado = new ArrayList<>();
+        synchronized (outliersRecentes) {
+            Iterator<TrechoPercorridoDTO> it = outliersRecentes.descendingIterator();
+            while (it.hasNext() && resultado.size() < limite) {
+                resultado.add(it.next());
+            }
+        }
+        return resultado;
+    }
+
+    private void processar(RadarDTO radar, boolean publicar) {
+        String placa = PassagemUtils.normalizarPlaca(radar.getPlaca());
+        long instante = PassagemUtils.instante(radar);
+        if (placa.isEmpty() || instante < 0) {
+            return;
+        }
+        double km = PassagemUtils.kmNumerico(radar.getKm());
+        String rodovia = normalizarRodovia(radar.getRodovia());
+
+        TrechoPercorridoDTO[] percorrido = new TrechoPercorridoDTO[1];
+        estados.asMap().compute(placa, (k, estado) -> {
+            if (estado == null) {
+                estado = new EstadoPlaca();
+            } else if (instante <= estado.instante) {
+                // Passagem atrasada ou duplicada: a posição atual já é mais nova
+                return estado;
+            } else {
+                percorrido[0] = calcularTrecho(placa, estado, radar, instante, km, rodovia);
+            }
+            estado.atualizar(radar, instante, km, rodovia, percorrido[0]);
+            return estado;
+        });
+
+        TrechoPercorridoDTO trecho = percorrido[0];
+        if (publicar && trecho != null && trecho.getOutlier() != null) {
+            publicarOutlier(trecho);
+        }
+    }
+
+    private TrechoPercorridoDTO calcularTrecho(String placa, EstadoPlaca anterior, RadarDTO radar,
+                                               long instante, double km, String rodovia) {
+        if (Double.isNaN(km) || Double.isNaN(anterior.km) || rodovia.isEmpty() || !rodovia.equals(anterior.rodovia)) {
+            return null;
+        }
+        long tempoMs = instante - anterior.instante;
+        double distancia = Math.abs(km - anterior.km);
+        if (tempoMs > intervaloMaximoMs || distancia < distanciaMinimaKm) {
+            return null;
+        }
+        double velocidade = distancia / (tempoMs / MS_POR_HORA);
+        String kmOrigem = anterior.ultimaPassagem.getKm();
+
+        EstatisticaTrecho estatistica = trechos.get(rodovia + '|' + kmOrigem + '>' + radar.getKm(),
+                k -> new EstatisticaTrecho(rodovia, radar.getRodovia(), kmOrigem, radar.getKm(), distancia));
+        String outlier;
+        Double mediaTrecho;
+        synchronized (estatistica) {
+            boolean confiavel = estatistica.amostras >= minimoAmostras;
+            mediaTrecho = confiavel ? arredondar(estatistica.media) : null;
+            if (velocidade > velocidadeImpossivelKmh) {
+                outlier = VELOCIDADE_IMPOSSIVEL;
+            } else {
+                double desvio = Math.max(Math.sqrt(estatistica.variancia), DESVIO_MINIMO_KMH);
+                // Só velocidades acima da média: travessias lentas costumam ser paradas no caminho
+                outlier = confiavel && velocidade - estatistica.media > desvios * desvio ? DESVIO : null;
+                estatistica.registrar(velocidade, tempoMs);
+            }
+        }
+
+        return new TrechoPercorridoDTO(
+                placa,
+                radar.getConcessionaria(),
+                radar.getRodovia(),
+                kmOrigem,
+                radar.getKm(),
+                radar.getSentido(),
+                paraDataHora(anterior.instante),
+                paraDataHora(instante),
+                arredondar(distancia),
+                tempoMs / 1000,
+                arredondar(velocidade),
+                mediaTrecho,
+                outlier
+        );
+    }
+
+    private void publicarOutlier(TrechoPercorridoDTO trecho) {
+        synchronized (outliersRecentes) {
+            outliersRecentes.addLast(trecho);
+            while (outliersRecentes.size() > maxOutliers) {
+                outliersRecentes.removeFirst();
+            }
+        }
+        log.info("🏎️ [Trecho] {} da placa {} em {} (km {} -> {}): {} km/h",
+                trecho.getOutlier(), trecho.getPlaca(), trecho.getRodovia(),
+                trecho.getKmOrigem(), trecho.getKmDestino(), trecho.getVelocidadeKmh());
+        try {
+            messagingTemplate.convertAndSend(TOPICO_OUTLIERS, trecho);
+        } catch (Exception e) {
+            log.error("Erro ao enviar outlier de trecho via WebSocket: {}", e.getMessage());
+        }
+    }
+
+    private static String normalizarRodovia(String rodovia) {
+        // "SP-310", "SP 310" e "sp310" representam a mesma rodovia
+        return PassagemUtils.normalizarPlaca(rodovia);
+    }
+
+    private static double arredondar(double valor) {
+        return Math.round(valor * 10) / 10.0;
+    }
+
+    private static LocalDateTime paraDataHora(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), PassagemUtils.zona());
+    }
+
+    /**
+     * Última posição conhecida de uma placa. Campos protegidos pelo monitor do próprio objeto.
+     */
+    private static final class EstadoPlaca {
+        private RadarDTO ultimaPassagem;
+        private long instante;
+        private double km;
+        private String rodovia;
+        private final Deque<TrechoPercorridoDTO> trechos = new ArrayDeque<>();
+
+        private synchronized void atualizar(RadarDTO radar, long instante, double km, String rodovia,
+                                            TrechoPercorridoDTO percorrido) {
+            this.ultimaPassagem = radar;
+            this.instante = instante;
+            this.km = km;
+            this.rodovia = rodovia;
+            if (percorrido != null) {
+                trechos.addLast(percorrido);
+                if (trechos.size() > MAX_TRECHOS_POR_PLACA) {
+                    trechos.removeFirst();
+                }
+            }
+        }
+    }
+
+    /**
+     * Média e variância móveis (exponenciais) da velocidade de um trecho. Campos protegidos pelo monitor do objeto.
+     */
+    private static final class EstatisticaTrecho {
+        private final String chaveRodovia;
+        private final String rodovia;
+        private final String kmOrigem;
+        private final String kmDestino;
+        private final double distanciaKm;
+
+        private long amostras;
+        private double media;
+        private double variancia;
+        private double tempoMedioMs;
+
+        private EstatisticaTrecho(String chaveRodovia, String rodovia, String kmOrigem, String kmDestino, double distanciaKm) {
+            this.chaveRodovia = chaveRodovia;
+            this.rodovia = rodovia;
+            this.kmOrigem = kmOrigem;
+            this.kmDestino = kmDestino;
+            this.distanciaKm = distanciaKm;
+        }
+
+        private void registrar(double velocidade, long tempoMs) {
+            amostras++;
+            // Nas primeiras amostras equivale à média simples; depois passa a ponderar as recentes
+            double peso = Math.max(ALFA, 1.0 / amostras);
+            double diferenca = velocidade - media;
+            double incremento = peso * diferenca;
+            media += incremento;
+            variancia = (1 - peso) * (variancia + diferenca * incremento);
+            tempoMedioMs += peso * (tempoMs - tempoMedioMs);
+        }
+
+        private synchronized TrechoEstatisticaDTO resumo() {
+            return new TrechoEstatisticaDTO(
+                    rodovia,
+                    kmOrigem,
+                    kmDestino,
+                    arredondar(distanciaKm),
+                    amostras,
+                    arredondar(media),
+                    arredondar(Math.sqrt(variancia)),
+                    (long) (tempoMedioMs / 1000)
+            );
+        }
+    }
+}
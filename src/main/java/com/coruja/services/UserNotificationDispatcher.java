@@ -0,0 +1,81 @@
+package com.coruja.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entrega de mensagens a um usuário específico pelos destinos /user/... do STOMP.
+ *
+ * O {@link SimpUserRegistry} indexa usuário -> sessões, então a entrega custa O(sessões do usuário)
+ * em vez de casar um tópico público contra todas as inscrições. Usuários sem sessão aberta
+ * são descartados antes de qualquer resolução de destino.
+ *
+ * Métricas: radares.notificacoes.entrega (timer por resultado) e radares.websocket.usuarios/sessoes (gauges).
+ */
+@Component
+@Slf4j
+public class UserNotificationDispatcher {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SimpUserRegistry userRegistry;
+    private final Timer entregues;
+    private final Counter semSessao;
+    private final Counter falhas;
+
+    public UserNotificationDispatcher(SimpMessagingTemplate messagingTemplate,
+                                      SimpUserRegistry userRegistry,
+                                      MeterRegistry meterRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.userRegistry = userRegistry;
+        this.entregues = Timer.builder("radares.notificacoes.entrega")
+                .description("Tempo de entrega de mensagens direcionadas a um usuário")
+                .tag("resultado", "entregue")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.semSessao = Counter.builder("radares.notificacoes.sem-sessao")
+                .description("Mensagens para usuários sem sessão WebSocket aberta")
+                .register(meterRegistry);
+        this.falhas = Counter.builder("radares.notificacoes.falhas")
+                .description("Falhas na entrega de mensagens direcionadas")
+                .register(meterRegistry);
+        Gauge.builder("radares.websocket.usuarios", userRegistry, SimpUserRegistry::getUserCount)
+                .description("Usuários com sessão WebSocket aberta")
+                .register(meterRegistry);
+        Gauge.builder("radares.websocket.sessoes", userRegistry,
+                        registry -> registry.getUsers().stream().mapToInt(u -> u.getSessions().size()).sum())
+                .description("Sessões WebSocket autenticadas")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Envia para /user/{usuario}{destino} em todas as sessões do usuário.
+     * @return false se o usuário não tem sessão aberta ou o envio falhou.
+     */
+    public boolean enviar(String usuario, String destino, Object payload) {
+        SimpUser user = userRegistry.getUser(usuario);
+        if (user == null || !user.hasSessions()) {
+            semSessao.increment();
+            log.debug("Usuário {} sem sessão WebSocket, mensagem para {} descartada", usuario, destino);
+            return false;
+        }
+        long inicio = System.nanoTime();
+        try {
+            messagingTemplate.convertAndSendToUser(usuario, destino, payload);
+            entregues.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            return true;
+        } catch (Exception e) {
+            falhas.increment();
+            log.error("Erro ao enviar mensagem para o usuário {}: {}", usuario, e.getMessage());
+            return false;
+        }
+    }
+}
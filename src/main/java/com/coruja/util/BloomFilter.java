@@ -0,0 +1,85 @@
+package com.coruja.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom para strings: responde "com certeza não está" ou "talvez esteja".
+ *
+ * Usado como pré-filtro barato antes de um conjunto exato: a grande maioria das consultas
+ * (placas não monitoradas) termina aqui, com poucos acessos a um array de bits e sem tocar no conjunto.
+ * Inserções são thread-safe (CAS por palavra); não há remoção, então o filtro é reconstruído
+ * periodicamente a partir da fonte.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long quantidadeBits;
+    private final int quantidadeHashes;
+
+    /**
+     * @param elementosEsperados Quantidade de elementos prevista.
+     * @param taxaFalsoPositivo Taxa de falso positivo desejada para essa quantidade (ex.: 0.01).
+     */
+    public BloomFilter(long elementosEsperados, double taxaFalsoPositivo) {
+        long n = Math.max(elementosEsperados, 1);
+        long m = (long) Math.ceil(-n * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        int palavras = (int) Math.max(1, (m + 63) / 64);
+        this.bits = new AtomicLongArray(palavras);
+        this.quantidadeBits = palavras * 64L;
+        this.quantidadeHashes = (int) Math.max(1, Math.round((double) quantidadeBits / n * Math.log(2)));
+    }
+
+    public void adicionar(String valor) {
+        long h1 = hash(valor);
+        long h2 = misturar(h1);
+        for (int i = 0; i < quantidadeHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, quantidadeBits);
+            int palavra = (int) (bit >>> 6);
+            long mascara = 1L << (bit & 63);
+            long atual;
+            do {
+                atual = bits.get(palavra);
+                if ((atual & mascara) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(palavra, atual, atual | mascara));
+        }
+    }
+
+    public boolean talvezContenha(String valor) {
+        long h1 = hash(valor);
+        long h2 = misturar(h1);
+        for (int i = 0; i < quantidadeHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, quantidadeBits);
+            if ((bits.get((int) (bit >>> 6)) & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getQuantidadeHashes() {
+        return quantidadeHashes;
+    }
+
+    public long getQuantidadeBits() {
+        return quantidadeBits;
+    }
+
+    // FNV-1a de 64 bits sobre os caracteres
+    private static long hash(String valor) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < valor.length(); i++) {
+            h ^= valor.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // Finalizador do SplitMix64; o resultado ímpar garante que os k índices percorram posições distintas
+    private static long misturar(long h) {
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return (h ^ (h >>> 31)) | 1L;
+    }
+}
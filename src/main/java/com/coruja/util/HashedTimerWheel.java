@@ -0,0 +1,139 @@
+package com.coruja.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Roda de temporização com hash (hashed timer wheel).
+ *
+ * Agendar e cancelar custam O(1): cada timeout entra no balde correspondente ao seu tick
+ * e guarda quantas voltas completas da roda ainda faltam. A cada avanço só o balde do tick
+ * atual é percorrido, então não existe varredura periódica de todos os agendamentos.
+ *
+ * Não usa threads próprias: quem chama {@link #advance(long)} define a cadência.
+ */
+public class HashedTimerWheel<T> {
+
+    private final long tickMillis;
+    private final Timeout<T>[] wheel;
+    private final int mask;
+    private final long startMillis;
+
+    // Próximo tick a ser processado
+    private long currentTick;
+    private int pending;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimerWheel(long tickMillis, int ticksPerWheel, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis deve ser positivo");
+        }
+        int size = Integer.highestOneBit(Math.max(ticksPerWheel, 2) - 1) << 1;
+        this.tickMillis = tickMillis;
+        this.wheel = (Timeout<T>[]) new Timeout[size];
+        this.mask = size - 1;
+        this.startMillis = startMillis;
+    }
+
+    /**
+     * Agenda um payload para expirar em {@code deadlineMillis}.
+     * Prazos no passado expiram no próximo avanço.
+     */
+    public synchronized Timeout<T> schedule(T payload, long deadlineMillis) {
+        long deadlineTick = Math.max((deadlineMillis - startMillis + tickMillis - 1) / tickMillis, currentTick);
+        Timeout<T> timeout = new Timeout<>(payload, deadlineMillis);
+        timeout.remainingRounds = (deadlineTick - currentTick) / wheel.length;
+        timeout.bucket = (int) (deadlineTick & mask);
+        link(timeout);
+        pending++;
+        return timeout;
+    }
+
+    /**
+     * Cancela um timeout ainda pendente. Retorna false se ele já expirou ou foi cancelado.
+     */
+    public synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout == null || timeout.bucket < 0) {
+            return false;
+        }
+        unlink(timeout);
+        pending--;
+        return true;
+    }
+
+    /**
+     * Processa todos os ticks até {@code nowMillis} e devolve os payloads expirados.
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        long targetTick = (nowMillis - startMillis) / tickMillis;
+        List<T> expired = new ArrayList<>();
+        while (currentTick <= targetTick) {
+            Timeout<T> node = wheel[(int) (currentTick & mask)];
+            while (node != null) {
+                Timeout<T> next = node.next;
+                if (node.remainingRounds <= 0) {
+                    unlink(node);
+                    pending--;
+                    expired.add(node.payload);
+                } else {
+                    node.remainingRounds--;
+                }
+                node = next;
+            }
+            currentTick++;
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return pending;
+    }
+
+    private void link(Timeout<T> timeout) {
+        Timeout<T> head = wheel[timeout.bucket];
+        timeout.next = head;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        wheel[timeout.bucket] = timeout;
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            wheel[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.bucket = -1;
+    }
+
+    /**
+     * Handle de um agendamento. Só é manipulado sob o lock da roda.
+     */
+    public static final class Timeout<T> {
+        private final T payload;
+        private final long deadlineMillis;
+        private long remainingRounds;
+        private int bucket = -1;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(T payload, long deadlineMillis) {
+            this.payload = payload;
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+
+        public long getDeadlineMillis() {
+            return deadlineMillis;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.coruja.util;
+
+import com.coruja.dto.RadarDTO;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Funções auxiliares compartilhadas pelos componentes que processam o fluxo de passagens.
+ */
+public final class PassagemUtils {
+
+    private static final ZoneId ZONA = ZoneId.of("America/Sao_Paulo");
+
+    private PassagemUtils() {
+    }
+
+    /**
+     * Identifica um ponto de captura (radar/praça) de forma única.
+     * Formato: CONCESSIONARIA|praca|rodovia|km|sentido
+     */
+    public static String chavePonto(RadarDTO radar) {
+        return valor(radar.getConcessionaria()).toUpperCase() + '|'
+                + valor(radar.getPraca()) + '|'
+                + valor(radar.getRodovia()) + '|'
+                + valor(radar.getKm()) + '|'
+                + valor(radar.getSentido());
+    }
+
+    /**
+     * Converte data/hora da passagem em epoch millis (fuso das concessionárias).
+     * Retorna -1 quando a passagem não possui data ou hora.
+     */
+    public static long instante(RadarDTO radar) {
+        if (radar.getData() == null || radar.getHora() == null) {
+            return -1L;
+        }
+        return LocalDateTime.of(radar.getData(), radar.getHora()).atZone(ZONA).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Remove espaços, hífens e demais caracteres não alfanuméricos e coloca em maiúsculas.
+     */
+    public static String normalizarPlaca(String placa) {
+        if (placa == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(placa.length());
+        for (int i = 0; i < placa.length(); i++) {
+            char c = placa.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toUpperCase(c));
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Normaliza um texto livre para comparação: remove acentos, coloca em minúsculas e troca
+     * pontuação por espaço simples. Ex.: "Praça  São-José" -> "praca sao jose".
+     */
+    public static String normalizarTexto(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcento = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(semAcento.length());
+        boolean espaco = false;
+        for (int i = 0; i < semAcento.length(); i++) {
+            char c = semAcento.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (espaco && sb.length() > 0) {
+                    sb.append(' ');
+                }
+                sb.append(Character.toLowerCase(c));
+                espaco = false;
+            } else {
+                espaco = true;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Converte o marco quilométrico em número. Aceita "123,4", "123.4", "123+400" e prefixos como "KM 123+400".
+     * Retorna {@link Double#NaN} quando o valor não é reconhecido.
+     */
+    public static double kmNumerico(String km) {
+        if (km == null) {
+            return Double.NaN;
+        }
+        StringBuilder sb = new StringBuilder(km.length());
+        for (int i = 0; i < km.length(); i++) {
+            char c = km.charAt(i);
+            if (Character.isDigit(c) || c == '+' || c == ',' || c == '.') {
+                sb.append(c == ',' ? '.' : c);
+            }
+        }
+        String valor = sb.toString();
+        try {
+            int mais = valor.indexOf('+');
+            if (mais >= 0) {
+                // Notação de marco: km + metros
+                double metros = mais + 1 < valor.length() ? Double.parseDouble(valor.substring(mais + 1)) : 0;
+                return Double.parseDouble(valor.substring(0, mais)) + metros / 1000.0;
+            }
+            return valor.isEmpty() ? Double.NaN : Double.parseDouble(valor);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    public static ZoneId zona() {
+        return ZONA;
+    }
+
+    private static String valor(String s) {
+        return s != null ? s : "";
+    }
+}
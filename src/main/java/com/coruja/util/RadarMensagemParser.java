@@ -0,0 +1,79 @@
+package com.coruja.util;
+
+import com.coruja.dto.RadarDTO;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Interpreta as mensagens de passagem publicadas pelas concessionárias na fila de radares.
+ *
+ * Formato: campos separados por "|", começando pela concessionária, data e hora.
+ * Rondon: CONCESSIONARIA|data|hora|placa|rodovia|km|sentido (sem praça).
+ * Cart, Entrevias e Eixo: CONCESSIONARIA|data|hora|placa|praca|rodovia|km|sentido.
+ */
+public final class RadarMensagemParser {
+
+    private RadarMensagemParser() {
+    }
+
+    /**
+     * Converte a mensagem em passagem.
+     * @return a passagem, ou null se a concessionária é conhecida mas a mensagem não traz todos os campos.
+     * @throws IllegalArgumentException se a mensagem está vazia, tem menos de 4 partes ou a concessionária é desconhecida.
+     * @throws java.time.format.DateTimeParseException se a data ou a hora são inválidas.
+     */
+    public static RadarDTO parse(String message) {
+        if (message == null || message.isBlank()) {
+            throw new IllegalArgumentException("Mensagem vazia");
+        }
+
+        String[] parts = message.split("\\|");
+        if (parts.length < 4) { // Validação mínima (Concessionária, Data, Hora, Placa)
+            throw new IllegalArgumentException("Mensagem malformada, número de partes insuficiente");
+        }
+
+        String concessionaria = parts[0].toUpperCase();
+
+        // Usamos um switch para lidar com os diferentes formatos de cada concessionária
+        return switch (concessionaria) {
+            case "RONDON" -> {
+                if (parts.length < 7) {
+                    yield null;
+                }
+                RadarDTO radarData = inicio("Rondon", parts);
+                radarData.setRodovia(parts[4]);
+                radarData.setKm(parts[5]);
+                radarData.setSentido(parts[6]);
+                radarData.setPraca("N/A"); // Rondon não envia praça neste formato
+                yield radarData;
+            }
+            case "ENTREVIAS" -> comPraca("Entrevias", parts);
+            case "CART" -> comPraca("Cart", parts);
+            // Eixo usa o formato de 8 partes como o Entrevias; o nome segue como veio na mensagem
+            case "EIXO" -> comPraca(concessionaria, parts);
+            default -> throw new IllegalArgumentException("Formato de mensagem desconhecido para a concessionária: " + concessionaria);
+        };
+    }
+
+    private static RadarDTO comPraca(String concessionaria, String[] parts) {
+        if (parts.length < 8) {
+            return null;
+        }
+        RadarDTO radarData = inicio(concessionaria, parts);
+        radarData.setPraca(parts[4]);
+        radarData.setRodovia(parts[5]);
+        radarData.setKm(parts[6]);
+        radarData.setSentido(parts[7]);
+        return radarData;
+    }
+
+    private static RadarDTO inicio(String concessionaria, String[] parts) {
+        RadarDTO radarData = new RadarDTO();
+        radarData.setConcessionaria(concessionaria);
+        radarData.setData(LocalDate.parse(parts[1]));
+        radarData.setHora(LocalTime.parse(parts[2]));
+        radarData.setPlaca(parts[3]);
+        return radarData;
+    }
+}
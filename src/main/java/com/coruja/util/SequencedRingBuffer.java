@@ -0,0 +1,72 @@
+package com.coruja.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * Buffer circular de tamanho fixo que numera cada item com uma sequência monotônica.
+ *
+ * Permite responder "tudo depois da sequência N" enquanto N ainda estiver dentro da janela
+ * retida; fora dela o chamador precisa recorrer a um snapshot completo.
+ */
+public class SequencedRingBuffer<T> {
+
+    private final Object[] itens;
+    private long ultimaSequencia;
+
+    public SequencedRingBuffer(int capacidade) {
+        if (capacidade <= 0) {
+            throw new IllegalArgumentException("capacidade deve ser positiva");
+        }
+        this.itens = new Object[capacidade];
+    }
+
+    /**
+     * Gera a próxima sequência, cria o item com ela e o grava no buffer de forma atômica.
+     */
+    public synchronized T append(LongFunction<T> fabrica) {
+        long sequencia = ultimaSequencia + 1;
+        T item = fabrica.apply(sequencia);
+        itens[(int) (sequencia % itens.length)] = item;
+        ultimaSequencia = sequencia;
+        return item;
+    }
+
+    /**
+     * Itens com sequência maior que {@code sequencia}, em ordem.
+     * Retorna null quando a sequência pedida já saiu da janela retida (ou é desconhecida).
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized List<T> desde(long sequencia) {
+        if (sequencia < primeiraRetida() - 1 || sequencia > ultimaSequencia) {
+            return null;
+        }
+        if (sequencia == ultimaSequencia) {
+            return Collections.emptyList();
+        }
+        List<T> resultado = new ArrayList<>((int) (ultimaSequencia - sequencia));
+        for (long s = sequencia + 1; s <= ultimaSequencia; s++) {
+            resultado.add((T) itens[(int) (s % itens.length)]);
+        }
+        return resultado;
+    }
+
+    /**
+     * Os últimos {@code limite} itens, do mais antigo para o mais recente.
+     */
+    public synchronized List<T> ultimos(int limite) {
+        long inicio = Math.max(primeiraRetida(), ultimaSequencia - limite + 1);
+        List<T> resultado = desde(inicio - 1);
+        return resultado != null ? resultado : Collections.emptyList();
+    }
+
+    public synchronized long getUltimaSequencia() {
+        return ultimaSequencia;
+    }
+
+    private long primeiraRetida() {
+        return Math.max(1, ultimaSequencia - itens.length + 1);
+    }
+}
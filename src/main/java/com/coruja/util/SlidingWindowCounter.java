@@ -0,0 +1,87 @@
+package com.coruja.util;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contador em janela deslizante com baldes de tamanho fixo (ex.: um balde por minuto).
+ *
+ * Incrementos são lock-free: cada balde é um {@link LongAdder} (contadores em faixas, sem disputa
+ * entre threads) e a virada de período troca o balde inteiro via CAS. Um incremento que chega para
+ * um período já reciclado por um mais novo está fora da janela e é descartado.
+ */
+public class SlidingWindowCounter {
+
+    private final long periodoMillis;
+    private final int janela;
+    private final AtomicReferenceArray<Balde> baldes;
+
+    /**
+     * @param periodoMillis Duração de cada balde.
+     * @param janela Quantidade de períodos completos que precisam ficar disponíveis para consulta.
+     */
+    public SlidingWindowCounter(long periodoMillis, int janela) {
+        this.periodoMillis = periodoMillis;
+        this.janela = janela;
+        // +2: período corrente e uma folga para o período que está virando
+        this.baldes = new AtomicReferenceArray<>(janela + 2);
+    }
+
+    public long periodo(long epochMillis) {
+        return Math.floorDiv(epochMillis, periodoMillis);
+    }
+
+    public void incrementar(long epochMillis) {
+        long periodo = periodo(epochMillis);
+        int idx = (int) Math.floorMod(periodo, (long) baldes.length());
+        while (true) {
+            Balde atual = baldes.get(idx);
+            if (atual != null && atual.periodo == periodo) {
+                atual.contagem.increment();
+                return;
+            }
+            if (atual != null && atual.periodo > periodo) {
+                return;
+            }
+            Balde novo = new Balde(periodo);
+            if (baldes.compareAndSet(idx, atual, novo)) {
+                novo.contagem.increment();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Contagem de um período específico (0 se ele não está mais, ou nunca esteve, na janela).
+     */
+    public long contagem(long periodo) {
+        Balde balde = baldes.get((int) Math.floorMod(periodo, (long) baldes.length()));
+        return balde != null && balde.periodo == periodo ? balde.contagem.sum() : 0L;
+    }
+
+    /**
+     * Contagens dos {@code quantidade} períodos completos anteriores a {@code periodoAtual},
+     * do mais antigo para o mais recente.
+     */
+    public long[] serie(long periodoAtual, int quantidade) {
+        int n = Math.min(quantidade, janela);
+        long[] serie = new long[n];
+        for (int i = 0; i < n; i++) {
+            serie[i] = contagem(periodoAtual - n + i);
+        }
+        return serie;
+    }
+
+    public long getPeriodoMillis() {
+        return periodoMillis;
+    }
+
+    private static final class Balde {
+        private final long periodo;
+        private final LongAdder contagem = new LongAdder();
+
+        private Balde(long periodo) {
+            this.periodo = periodo;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+-- Agregados de fluxo de veículos por concessionária/praça/rodovia.
+-- fluxo_minuto é gravado a partir dos contadores em memória; fluxo_hora e fluxo_dia são
+-- obtidos por downsampling (minuto -> hora -> dia).
+
+CREATE TABLE IF NOT EXISTS fluxo_minuto (
+    chave          VARCHAR(300) NOT NULL,
+    concessionaria VARCHAR(60),
+    praca          VARCHAR(150),
+    rodovia        VARCHAR(60),
+    inicio         TIMESTAMP    NOT NULL,
+    veiculos       BIGINT       NOT NULL,
+    PRIMARY KEY (chave, inicio)
+);
+CREATE INDEX IF NOT EXISTS idx_fluxo_minuto_inicio ON fluxo_minuto (inicio);
+
+CREATE TABLE IF NOT EXISTS fluxo_hora (
+    chave          VARCHAR(300) NOT NULL,
+    concessionaria VARCHAR(60),
+    praca          VARCHAR(150),
+    rodovia        VARCHAR(60),
+    inicio         TIMESTAMP    NOT NULL,
+    veiculos       BIGINT       NOT NULL,
+    PRIMARY KEY (chave, inicio)
+);
+CREATE INDEX IF NOT EXISTS idx_fluxo_hora_inicio ON fluxo_hora (inicio);
+
+CREATE TABLE IF NOT EXISTS fluxo_dia (
+    chave          VARCHAR(300) NOT NULL,
+    concessionaria VARCHAR(60),
+    praca          VARCHAR(150),
+    rodovia        VARCHAR(60),
+    inicio         TIMESTAMP    NOT NULL,
+    veiculos       BIGINT       NOT NULL,
+    PRIMARY KEY (chave, inicio)
+);
+CREATE INDEX IF NOT EXISTS idx_fluxo_dia_inicio ON fluxo_dia (inicio);
@@ -0,0 +1,61 @@
+package com.coruja.benchmark;
+
+import com.coruja.dto.RadarPageDTO;
+import com.coruja.services.RadarsBFFService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agregação das páginas dos shards (RadarsBFFService.combinarPaginas, o núcleo do aggregatePages):
+ * concatenação, ordenação por data/hora e recorte da página, por número de shards e tamanho da página.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AggregatePagesBenchmark {
+
+    @Param({"2", "4", "8"})
+    private int shards;
+
+    @Param({"20", "100", "500"})
+    private int tamanhoPagina;
+
+    private List<RadarPageDTO> paginas;
+    private Pageable primeiraPagina;
+    private Pageable paginaProfunda;
+
+    @Setup
+    public void preparar() {
+        paginas = BenchmarkData.paginasDosShards(shards, tamanhoPagina);
+        primeiraPagina = PageRequest.of(0, tamanhoPagina);
+        // Página do meio do conteúdo combinado: o skip percorre metade da lista ordenada
+        paginaProfunda = PageRequest.of(shards / 2, tamanhoPagina);
+    }
+
+    @Benchmark
+    public RadarPageDTO primeiraPagina() {
+        return RadarsBFFService.combinarPaginas(paginas, primeiraPagina);
+    }
+
+    @Benchmark
+    public RadarPageDTO paginaProfunda() {
+        return RadarsBFFService.combinarPaginas(paginas, paginaProfunda);
+    }
+}
@@ -0,0 +1,132 @@
+package com.coruja.benchmark;
+
+import com.coruja.config.RestTemplateConfig;
+import com.coruja.dto.PageMetadata;
+import com.coruja.dto.PlacaMonitoradaDTO;
+import com.coruja.dto.RadarDTO;
+import com.coruja.dto.RadarPageDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Geradores de dados sintéticos dos benchmarks.
+ * Tudo parte de uma semente fixa: a mesma chamada gera sempre os mesmos dados, em qualquer máquina,
+ * para que resultados de execuções diferentes sejam comparáveis.
+ */
+final class BenchmarkData {
+
+    static final long SEMENTE = 42L;
+
+    private static final String[] CONCESSIONARIAS = {"Cart", "Eixo", "Entrevias", "Rondon"};
+    private static final String[] SENTIDOS = {"Norte", "Sul", "Leste", "Oeste"};
+    private static final String LETRAS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * ObjectMapper configurado como o da aplicação (RestTemplate e MVC).
+     */
+    static ObjectMapper objectMapper() {
+        return new RestTemplateConfig().objectMapper();
+    }
+
+    static Random random(long salt) {
+        return new Random(SEMENTE ^ salt);
+    }
+
+    static RadarDTO radar(Random random, String concessionaria) {
+        RadarDTO radar = new RadarDTO();
+        radar.setId(random.nextLong(1, Long.MAX_VALUE));
+        radar.setConcessionaria(concessionaria);
+        radar.setData(LocalDate.of(2024, 1, 1).plusDays(random.nextInt(365)));
+        radar.setHora(LocalTime.ofSecondOfDay(random.nextInt(86_400)));
+        radar.setPlaca(placa(random));
+        radar.setPraca("P" + random.nextInt(20));
+        radar.setRodovia("SP-" + (100 + random.nextInt(300)));
+        radar.setKm(Integer.toString(random.nextInt(500)));
+        radar.setSentido(SENTIDOS[random.nextInt(SENTIDOS.length)]);
+        return radar;
+    }
+
+    static String placa(Random random) {
+        StringBuilder placa = new StringBuilder(7);
+        for (int i = 0; i < 3; i++) {
+            placa.append(LETRAS.charAt(random.nextInt(LETRAS.length())));
+        }
+        return placa.append(random.nextInt(10))
+                .append(LETRAS.charAt(random.nextInt(LETRAS.length())))
+                .append(random.nextInt(10))
+                .append(random.nextInt(10))
+                .toString();
+    }
+
+    /**
+     * Uma página por shard, como devolvida pelos microsserviços das concessionárias.
+     */
+    static List<RadarPageDTO> paginasDosShards(int shards, int tamanhoPagina) {
+        Random random = random(shards * 31L + tamanhoPagina);
+        List<RadarPageDTO> paginas = new ArrayList<>(shards);
+        for (int s = 0; s < shards; s++) {
+            String concessionaria = CONCESSIONARIAS[s % CONCESSIONARIAS.length];
+            List<RadarDTO> conteudo = new ArrayList<>(tamanhoPagina);
+            for (int i = 0; i < tamanhoPagina; i++) {
+                conteudo.add(radar(random, concessionaria));
+            }
+            long total = tamanhoPagina * 50L;
+            paginas.add(new RadarPageDTO(conteudo, new PageMetadata(0, tamanhoPagina, total, 50)));
+        }
+        return paginas;
+    }
+
+    /**
+     * Mensagens da fila de radares, nos formatos de cada concessionária, em ordem embaralhada.
+     */
+    static String[] mensagens(int quantidade) {
+        Random random = random(quantidade);
+        String[] mensagens = new String[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            String concessionaria = CONCESSIONARIAS[random.nextInt(CONCESSIONARIAS.length)];
+            RadarDTO radar = radar(random, concessionaria);
+            String base = concessionaria.toUpperCase() + '|' + radar.getData() + '|' + radar.getHora() + '|' + radar.getPlaca();
+            mensagens[i] = "Rondon".equals(concessionaria)
+                    ? base + '|' + radar.getRodovia() + '|' + radar.getKm() + '|' + radar.getSentido()
+                    : base + '|' + radar.getPraca() + '|' + radar.getRodovia() + '|' + radar.getKm() + '|' + radar.getSentido();
+        }
+        return mensagens;
+    }
+
+    /**
+     * Página de placas monitoradas no formato Page do Spring (content, pageable, sort...),
+     * como devolvida pelo microsserviço de monitoramento.
+     */
+    static byte[] paginaMonitoradasJson(ObjectMapper mapper, int tamanhoPagina) throws Exception {
+        Random random = random(tamanhoPagina * 17L);
+        List<PlacaMonitoradaDTO> conteudo = new ArrayList<>(tamanhoPagina);
+        for (int i = 0; i < tamanhoPagina; i++) {
+            LocalDateTime criada = LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(random.nextInt(500_000));
+            conteudo.add(new PlacaMonitoradaDTO((long) i + 1, placa(random), "Modelo " + random.nextInt(100), "Prata",
+                    "Furto", true, "Observação " + i, "usuario" + random.nextInt(10), criada, criada));
+        }
+        ObjectNode pagina = mapper.createObjectNode();
+        pagina.set("content", mapper.valueToTree(conteudo));
+        pagina.putObject("pageable").put("pageNumber", 0).put("pageSize", tamanhoPagina);
+        pagina.put("last", false);
+        pagina.put("totalPages", 10);
+        pagina.put("totalElements", tamanhoPagina * 10L);
+        pagina.put("size", tamanhoPagina);
+        pagina.put("number", 0);
+        pagina.putObject("sort").put("sorted", false).put("unsorted", true).put("empty", true);
+        pagina.put("first", true);
+        pagina.put("numberOfElements", tamanhoPagina);
+        pagina.put("empty", false);
+        return mapper.writeValueAsBytes(pagina);
+    }
+}
@@ -0,0 +1,129 @@
+package com.coruja.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Relatório comparando o resultado do JMH (formato JSON) com uma baseline gravada antes.
+ *
+ * Uso: BenchmarkReport resultado.json baseline.json relatorio.md [tolerancia-%]
+ * Cada benchmark (nome + parâmetros) é comparado pelo score; variação acima da tolerância
+ * e fora do erro das duas medições é marcada como regressão ou melhora.
+ * Sem baseline, o relatório só lista os resultados; para fixar a baseline basta copiar o resultado.
+ */
+public final class BenchmarkReport {
+
+    private static final double TOLERANCIA_PADRAO = 10.0;
+
+    private BenchmarkReport() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Uso: BenchmarkReport <resultado.json> <baseline.json> <relatorio.md> [tolerancia-%]");
+            System.exit(2);
+        }
+        Path resultado = Path.of(args[0]);
+        Path baseline = Path.of(args[1]);
+        Path relatorio = Path.of(args[2]);
+        double tolerancia = args.length > 3 ? Double.parseDouble(args[3]) : TOLERANCIA_PADRAO;
+
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, Medicao> atuais = ler(mapper, resultado);
+        Map<String, Medicao> anteriores = Files.exists(baseline) ? ler(mapper, baseline) : Map.of();
+
+        StringBuilder md = new StringBuilder("# Benchmarks\n\n");
+        if (anteriores.isEmpty()) {
+            md.append("Sem baseline em `").append(baseline).append("`: copie `").append(resultado)
+                    .append("` para lá para fixar estes números.\n\n");
+        } else {
+            md.append("Baseline: `").append(baseline).append("` | tolerância: ")
+                    .append(formatar(tolerancia)).append("%\n\n");
+        }
+        md.append("| Benchmark | Unidade | Baseline | Atual | Variação | Situação |\n");
+        md.append("|---|---|---:|---:|---:|---|\n");
+
+        int regressoes = 0;
+        for (Map.Entry<String, Medicao> entry : atuais.entrySet()) {
+            Medicao atual = entry.getValue();
+            Medicao anterior = anteriores.get(entry.getKey());
+            String situacao = "nova";
+            String variacao = "-";
+            if (anterior != null) {
+                double percentual = (atual.score - anterior.score) / anterior.score * 100;
+                // Em modos de vazão (ops/tempo) maior é melhor; em tempo médio, menor é melhor
+                double piora = atual.maiorMelhor ? -percentual : percentual;
+                boolean foraDoErro = Math.abs(atual.score - anterior.score) > atual.erro + anterior.erro;
+                situacao = !foraDoErro || Math.abs(piora) <= tolerancia ? "ok" : piora > 0 ? "REGRESSÃO" : "melhora";
+                if ("REGRESSÃO".equals(situacao)) {
+                    regressoes++;
+                }
+                variacao = (percentual >= 0 ? "+" : "") + formatar(percentual) + "%";
+            }
+            md.append("| ").append(entry.getKey())
+                    .append(" | ").append(atual.unidade)
+                    .append(" | ").append(anterior != null ? anterior.descrever() : "-")
+                    .append(" | ").append(atual.descrever())
+                    .append(" | ").append(variacao)
+                    .append(" | ").append(situacao)
+                    .append(" |\n");
+        }
+        for (String removido : anteriores.keySet()) {
+            if (!atuais.containsKey(removido)) {
+                md.append("| ").append(removido).append(" | - | ").append(anteriores.get(removido).descrever())
+                        .append(" | - | - | ausente |\n");
+            }
+        }
+
+        Files.writeString(relatorio, md);
+        System.out.print(md);
+        System.out.println();
+        System.out.println(regressoes == 0 ? "Nenhuma regressão." : regressoes + " regressão(ões) acima da tolerância.");
+    }
+
+    private static Map<String, Medicao> ler(ObjectMapper mapper, Path arquivo) throws IOException {
+        Map<String, Medicao> medicoes = new LinkedHashMap<>();
+        for (JsonNode benchmark : mapper.readTree(arquivo.toFile())) {
+            StringBuilder nome = new StringBuilder(benchmark.path("benchmark").asText()
+                    .replace("com.coruja.benchmark.", ""));
+            Iterator<Map.Entry<String, JsonNode>> params = benchmark.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                nome.append(nome.indexOf("[") < 0 ? " [" : ", ").append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            if (nome.indexOf("[") >= 0) {
+                nome.append(']');
+            }
+            JsonNode metrica = benchmark.path("primaryMetric");
+            String unidade = metrica.path("scoreUnit").asText();
+            // Com uma única iteração o JMH grava o erro como "NaN"
+            double erro = metrica.path("scoreError").asDouble(0);
+            medicoes.put(nome.toString(), new Medicao(
+                    metrica.path("score").asDouble(),
+                    Double.isNaN(erro) ? 0 : erro,
+                    unidade,
+                    unidade.startsWith("ops/")
+            ));
+        }
+        return medicoes;
+    }
+
+    private static String formatar(double valor) {
+        return String.format(Locale.ROOT, "%.2f", valor);
+    }
+
+    private record Medicao(double score, double erro, String unidade, boolean maiorMelhor) {
+
+        private String descrever() {
+            return formatar(score) + " ± " + formatar(erro);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.coruja.benchmark;
+
+import com.coruja.dto.PagePlacaMonitoradaDTO;
+import com.coruja.dto.RadarDTO;
+import com.coruja.dto.RadarPageDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Desserialização das respostas dos microsserviços com o ObjectMapper da aplicação:
+ * RadarDTO isolado, página de radares de um shard e página do Spring (PageImpl com @JsonCreator).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonDeserializacaoBenchmark {
+
+    @Param({"20", "100", "500"})
+    private int tamanhoPagina;
+
+    private ObjectMapper mapper;
+    private byte[] radarJson;
+    private byte[] paginaRadaresJson;
+    private byte[] paginaMonitoradasJson;
+
+    @Setup
+    public void preparar() throws Exception {
+        mapper = BenchmarkData.objectMapper();
+        RadarPageDTO pagina = BenchmarkData.paginasDosShards(1, tamanhoPagina).get(0);
+        radarJson = mapper.writeValueAsBytes(pagina.getContent().get(0));
+        paginaRadaresJson = mapper.writeValueAsBytes(pagina);
+        paginaMonitoradasJson = BenchmarkData.paginaMonitoradasJson(mapper, tamanhoPagina);
+    }
+
+    @Benchmark
+    public RadarDTO radar() throws Exception {
+        return mapper.readValue(radarJson, RadarDTO.class);
+    }
+
+    @Benchmark
+    public RadarPageDTO paginaRadares() throws Exception {
+        return mapper.readValue(paginaRadaresJson, RadarPageDTO.class);
+    }
+
+    @Benchmark
+    public PagePlacaMonitoradaDTO paginaMonitoradas() throws Exception {
+        return mapper.readValue(paginaMonitoradasJson, PagePlacaMonitoradaDTO.class);
+    }
+}
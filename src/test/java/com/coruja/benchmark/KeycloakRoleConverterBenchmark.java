@@ -0,0 +1,114 @@
+package com.coruja.benchmark;
+
+import com.coruja.config.KeycloakRoleConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a conversão de roles antiga (lista nova de authorities a cada token) com a memorizada.
+ *
+ * Os tokens simulam usuários distintos com poucos conjuntos de roles, como no Keycloak:
+ * cada token tem a sua própria lista de roles, com o mesmo conteúdo de outros tokens.
+ *
+ * Execução: mvn -Pbenchmark verify -Djmh.incluir=KeycloakRoleConverter, ou o main pela IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeycloakRoleConverterBenchmark {
+
+    private static final List<List<String>> CONJUNTOS = List.of(
+            List.of("user", "offline_access", "uma_authorization"),
+            List.of("user", "admin", "offline_access", "uma_authorization"),
+            List.of("user", "default-roles-coruja", "offline_access", "uma_authorization")
+    );
+    private static final int TOKENS = 1024;
+
+    private final KeycloakRoleConverter converter = new KeycloakRoleConverter();
+    private Jwt[] tokens;
+    private int proximo;
+
+    @Setup
+    public void preparar() {
+        tokens = new Jwt[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            List<String> roles = new ArrayList<>(CONJUNTOS.get(i % CONJUNTOS.size()));
+            tokens[i] = Jwt.withTokenValue("token-" + i)
+                    .header("alg", "RS256")
+                    .subject("usuario-" + i)
+                    .issuedAt(Instant.EPOCH)
+                    .expiresAt(Instant.EPOCH.plusSeconds(300))
+                    .claim("realm_access", Map.of("roles", roles))
+                    .build();
+        }
+    }
+
+    private Jwt proximoToken() {
+        Jwt jwt = tokens[proximo];
+        proximo = (proximo + 1) % TOKENS;
+        return jwt;
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> conversaoSemCache() {
+        return conversaoAntiga(proximoToken());
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> conversaoMemorizada() {
+        return converter.convert(proximoToken());
+    }
+
+    /**
+     * Conversão como era feita antes da memorização: uma authority nova por role, a cada token.
+     */
+    @SuppressWarnings("unchecked")
+    private static Collection<GrantedAuthority> conversaoAntiga(Jwt jwt) {
+        Map<String, Object> realmAccess = jwt.getClaimAsMap("realm_access");
+        List<String> roles = null;
+        if (realmAccess != null && realmAccess.containsKey("roles")) {
+            roles = (List<String>) realmAccess.get("roles");
+        }
+        if (roles == null || roles.isEmpty()) {
+            roles = jwt.getClaimAsStringList("roles");
+        }
+        if (roles == null) {
+            return List.of();
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (String role : roles) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()));
+        }
+        return authorities;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(KeycloakRoleConverterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
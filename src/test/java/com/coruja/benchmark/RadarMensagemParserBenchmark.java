@@ -0,0 +1,46 @@
+package com.coruja.benchmark;
+
+import com.coruja.dto.RadarDTO;
+import com.coruja.util.RadarMensagemParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interpretação das mensagens da fila de radares (o parser usado pelo receiveRadarMessage),
+ * com os formatos das quatro concessionárias misturados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RadarMensagemParserBenchmark {
+
+    private static final int MENSAGENS = 1024;
+
+    private String[] mensagens;
+    private int proxima;
+
+    @Setup
+    public void preparar() {
+        mensagens = BenchmarkData.mensagens(MENSAGENS);
+    }
+
+    @Benchmark
+    public RadarDTO parse() {
+        String mensagem = mensagens[proxima];
+        proxima = (proxima + 1) % MENSAGENS;
+        return RadarMensagemParser.parse(mensagem);
+    }
+}
@@ -0,0 +1,81 @@
+package com.coruja.benchmark;
+
+import com.coruja.dto.RadarDTO;
+import com.coruja.dto.RadarPageDTO;
+import com.coruja.dto.RealtimeDeltaDTO;
+import com.coruja.services.RealtimeUpdateService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Codificação de um broadcast do WebSocket como o broker faz: payload convertido em JSON
+ * (MappingJackson2MessageConverter com o ObjectMapper da aplicação) e frame STOMP MESSAGE
+ * com os headers de sequência. Mede a passagem isolada (/topic/last-radar) e o snapshot da ressincronização.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebSocketPayloadBenchmark {
+
+    private final StompEncoder encoder = new StompEncoder();
+    private MappingJackson2MessageConverter converter;
+    private RadarDTO passagem;
+    private List<RealtimeDeltaDTO> deltas;
+    private long sequencia;
+
+    @Setup
+    public void preparar() {
+        converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(BenchmarkData.objectMapper());
+        RadarPageDTO pagina = BenchmarkData.paginasDosShards(1, 100).get(0);
+        passagem = pagina.getContent().get(0);
+        deltas = pagina.getContent().stream()
+                .map(radar -> new RealtimeDeltaDTO(radar.getId(), "/topic/last-radar", radar, LocalDateTime.of(2024, 1, 1, 0, 0)))
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] passagem() {
+        return codificar("/topic/last-radar", passagem);
+    }
+
+    @Benchmark
+    public byte[] ressincronizacao() {
+        return codificar("/user/queue/realtime-sync", deltas);
+    }
+
+    private byte[] codificar(String destino, Object payload) {
+        StompHeaderAccessor headers = StompHeaderAccessor.create(StompCommand.MESSAGE);
+        headers.setDestination(destino);
+        headers.setSubscriptionId("sub-0");
+        headers.setMessageId(Long.toString(++sequencia));
+        headers.setNativeHeader(RealtimeUpdateService.HEADER_SEQUENCIA, Long.toString(sequencia));
+        headers.setNativeHeader(RealtimeUpdateService.HEADER_EPOCA, "benchmark");
+        headers.setLeaveMutable(true);
+
+        Message<?> json = converter.toMessage(payload, headers.getMessageHeaders());
+        Message<byte[]> frame = MessageBuilder.createMessage((byte[]) json.getPayload(), headers.getMessageHeaders());
+        return encoder.encode(frame);
+    }
+}
@@ -0,0 +1,71 @@
+package com.coruja.config;
+
+import com.coruja.dto.PagePlacaMonitoradaDTO;
+import com.coruja.dto.RadarDTO;
+import com.coruja.dto.RadarPageDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.data.domain.PageImpl;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Smoke test dos hints da imagem nativa.
+ * Confere o registro dos hints e desserializa as respostas dos microsserviços de radares e monitoramento.
+ * Na JVM a desserialização garante que as amostras continuam válidas; em modo nativo (mvn -PnativeTest test)
+ * ela só funciona se a reflexão estiver registrada.
+ */
+class NativeRuntimeHintsTest {
+
+    private static final String PAGINA_RADARES = """
+            {"content":[{"id":1,"data":"2024-05-10","hora":"08:15:30","placa":"ABC1D23","praca":"P1",
+            "rodovia":"SP-270","km":"120","sentido":"Leste","concessionaria":"cart"}],
+            "page":{"size":20,"number":0,"totalElements":1,"totalPages":1}}
+            """;
+
+    private static final String PAGINA_MONITORADAS = """
+            {"content":[{"id":7,"placa":"ABC1D23","motivo":"Furto","statusAtivo":true,
+            "createdAt":"2024-05-10T08:15:30"}],"number":0,"size":20,"totalElements":1,
+            "pageable":{"pageNumber":0},"last":true,"totalPages":1,"sort":{"sorted":false},
+            "first":true,"numberOfElements":1}
+            """;
+
+    @Test
+    void registraHintsDosDtosEDasPaginas() {
+        RuntimeHints hints = new RuntimeHints();
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertThat(RuntimeHintsPredicates.reflection().onType(RadarDTO.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(RadarPageDTO.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(PagePlacaMonitoradaDTO.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(PageImpl.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("com.coruja.services.LogService$Cursor"))).accepts(hints);
+    }
+
+    @Test
+    void desserializaPaginas() throws Exception {
+        ObjectMapper mapper = new RestTemplateConfig().objectMapper();
+
+        RadarPageDTO radares = mapper.readValue(PAGINA_RADARES, RadarPageDTO.class);
+        assertThat(radares.getContent()).hasSize(1);
+        assertThat(radares.getContent().get(0).getData()).isEqualTo(LocalDate.of(2024, 5, 10));
+        assertThat(radares.getContent().get(0).getHora()).isEqualTo(LocalTime.of(8, 15, 30));
+
+        PagePlacaMonitoradaDTO monitoradas = mapper.readValue(PAGINA_MONITORADAS, PagePlacaMonitoradaDTO.class);
+        assertThat(monitoradas.getTotalElements()).isEqualTo(1);
+        assertThat(monitoradas.getContent().get(0).isStatusAtivo()).isTrue();
+
+        // O caminho de volta também passa pela reflexão: a página é reenviada ao frontend
+        assertThat(mapper.writeValueAsString(monitoradas)).contains("\"placa\":\"ABC1D23\"");
+    }
+}
@@ -0,0 +1,88 @@
+package com.coruja.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WebSocketAuthInterceptorTest {
+
+    private final WebSocketAuthInterceptor interceptor = new WebSocketAuthInterceptor(null, null, "sub");
+
+    @Test
+    void recusaInscricaoNoTopicoLegadoDeNotificacoes() {
+        assertThat(inscrever("/topic/notificacoes/joao")).isNull();
+    }
+
+    @Test
+    void recusaPadroesQuePodemCasarComNotificacoes() {
+        assertThat(inscrever("/topic/**")).isNull();
+        assertThat(inscrever("/**")).isNull();
+        assertThat(inscrever("/topic/*/joao")).isNull();
+        assertThat(inscrever("/topic/notif*/*")).isNull();
+    }
+
+    @Test
+    void recusaInscricaoDiretaNasFilasDeUsuario() {
+        assertThat(inscrever("/queue/**")).isNull();
+        assertThat(inscrever("/queue/notificacoes-user*")).isNull();
+        assertThat(inscrever("/queue/notificacoes-userab12cd34")).isNull();
+        assertThat(inscrever("/queue/confirmed-alerts-user*", usuario("ROLE_ADMIN"))).isNull();
+        assertThat(inscrever("/*/notificacoes-user*")).isNull();
+    }
+
+    @Test
+    void aceitaDestinosDeUsuario() {
+        assertThat(inscrever("/user/queue/notificacoes")).isNotNull();
+        assertThat(inscrever("/user/queue/confirmed-alerts")).isNotNull();
+    }
+
+    @Test
+    void aceitaTopicosComuns() {
+        assertThat(inscrever("/topic/last-radar")).isNotNull();
+        assertThat(inscrever("/topic/confirmed-alerts")).isNotNull();
+        assertThat(inscrever("/topic/radar-status/**")).isNotNull();
+        assertThat(inscrever("/user/queue/notificacoes")).isNotNull();
+    }
+
+    @Test
+    void tailDeLogsSomenteParaAdministrador() {
+        assertThat(inscrever("/topic/logs/tail-1", usuario("ROLE_USER"))).isNull();
+        assertThat(inscrever("/topic/logs/tail-1", null)).isNull();
+        assertThat(inscrever("/topic/logs/tail-1", usuario("ROLE_ADMIN"))).isNotNull();
+    }
+
+    @Test
+    void padroesQuePodemCasarComLogsExigemAdministrador() {
+        assertThat(inscrever("/topic/*/tail-1", usuario("ROLE_USER"))).isNull();
+        assertThat(inscrever("/topic/log?/**", usuario("ROLE_USER"))).isNull();
+        assertThat(inscrever("/topic/{x}/{y}", usuario("ROLE_USER"))).isNull();
+        assertThat(inscrever("/topic/last-radar", usuario("ROLE_USER"))).isNotNull();
+    }
+
+    private static Principal usuario(String papel) {
+        return new UsernamePasswordAuthenticationToken("u1", null, List.of(new SimpleGrantedAuthority(papel)));
+    }
+
+    private Message<?> inscrever(String destino) {
+        return inscrever(destino, null);
+    }
+
+    private Message<?> inscrever(String destino, Principal usuario) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setDestination(destino);
+        accessor.setSessionId("s1");
+        accessor.setUser(usuario);
+        accessor.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        return interceptor.preSend(message, null);
+    }
+}
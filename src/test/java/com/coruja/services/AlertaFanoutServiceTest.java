@@ -0,0 +1,97 @@
+package com.coruja.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class AlertaFanoutServiceTest {
+
+    private static final String ALERTA = "{\"id\":10,\"placa\":\"ABC1D23\",\"data\":\"2026-03-10\",\"hora\":\"08:15:30\","
+            + "\"interessado\":\"Joao; maria\",\"campoNovo\":{\"x\":1}}";
+
+    private final UserNotificationDispatcher dispatcher = mock(UserNotificationDispatcher.class);
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private AlertaFanoutService novoServico(boolean difundirTodos) {
+        return new AlertaFanoutService(dispatcher, objectMapper, 10, 10, difundirTodos);
+    }
+
+    @Test
+    void enviaOJsonOriginalAosInteressadosEMantemOTopicoPorPadrao() throws Exception {
+        AlertaFanoutService service = novoServico(true);
+        AlertaFanoutService.AlertaRecebido recebido = service.interpretar(ALERTA);
+
+        assertThat(service.rotear(recebido)).isTrue();
+
+        JsonNode original = objectMapper.readTree(ALERTA);
+        verify(dispatcher).enviar("joao", AlertaFanoutService.DESTINO_USUARIO, original);
+        verify(dispatcher).enviar("maria", AlertaFanoutService.DESTINO_USUARIO, original);
+        // Datas e campos desconhecidos pelo DTO seguem como publicados
+        List<JsonNode> recentes = service.recentes("JOAO");
+        assertThat(recentes).hasSize(1);
+        assertThat(recentes.get(0).get("data").asText()).isEqualTo("2026-03-10");
+        assertThat(recentes.get(0).has("campoNovo")).isTrue();
+    }
+
+    @Test
+    void replayComDifusaoDevolveTodosOsAlertasMesmoComPrincipalSub() throws Exception {
+        AlertaFanoutService service = novoServico(true);
+        service.rotear(service.interpretar(ALERTA));
+        service.rotear(service.interpretar("{\"id\":11,\"placa\":\"XYZ9876\"}"));
+
+        // Nome STOMP padrão (claim sub): UUID do Keycloak, nunca igual a um login de interessado
+        List<JsonNode> recentes = service.recentes("3f6c2a9e-1b7d-4c1e-9a2f-5d8e7b6a4c31");
+
+        assertThat(recentes).extracting(n -> n.get("id").asLong()).containsExactly(10L, 11L);
+    }
+
+    @Test
+    void replaySemDifusaoFiltraPorInteressado() throws Exception {
+        AlertaFanoutService service = novoServico(false);
+        service.rotear(service.interpretar(ALERTA));
+        service.rotear(service.interpretar("{\"id\":11,\"placa\":\"XYZ9876\"}"));
+
+        assertThat(service.recentes("maria")).extracting(n -> n.get("id").asLong()).containsExactly(10L, 11L);
+        assertThat(service.recentes("outro")).extracting(n -> n.get("id").asLong()).containsExactly(11L);
+    }
+
+    @Test
+    void semDifundirTodosSoAlertasSemInteressadoVaoParaOTopico() throws Exception {
+        AlertaFanoutService service = novoServico(false);
+
+        assertThat(service.rotear(service.interpretar(ALERTA))).isFalse();
+        assertThat(service.rotear(service.interpretar("{\"id\":11,\"placa\":\"XYZ9876\"}"))).isTrue();
+    }
+
+    @Test
+    void redeliveryEDescartada() throws Exception {
+        AlertaFanoutService service = novoServico(true);
+
+        assertThat(service.rotear(service.interpretar(ALERTA))).isTrue();
+        assertThat(service.rotear(service.interpretar(ALERTA))).isFalse();
+
+        verify(dispatcher, times(2)).enviar(anyString(), eq(AlertaFanoutService.DESTINO_USUARIO), any());
+    }
+
+    @Test
+    void jsonQueNaoEAlertaFalhaNaInterpretacao() {
+        AlertaFanoutService service = novoServico(true);
+
+        assertThatThrownBy(() -> service.interpretar("[1,2]"))
+                .isInstanceOf(Exception.class);
+        verify(dispatcher, never()).enviar(anyString(), anyString(), any());
+    }
+}
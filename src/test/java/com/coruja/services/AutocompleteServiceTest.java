@@ -0,0 +1,79 @@
+package com.coruja.services;
+
+import com.coruja.dto.FilterOptionsDTO;
+import com.coruja.dto.RadarDTO;
+import com.coruja.dto.SugestaoDTO;
+import com.coruja.util.PassagemUtils;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AutocompleteServiceTest {
+
+    private final AutocompleteService service = new AutocompleteService(24, 100_000, 2, 256);
+    private final LocalDateTime base = LocalDateTime.now(PassagemUtils.zona()).minusHours(1).withNano(0);
+
+    @Test
+    void placasMaisRecentesDoIntervaloInteiroVemPrimeiro() {
+        // 1000 placas com o mesmo prefixo; as mais recentes são as últimas em ordem alfabética
+        for (int i = 0; i < 1000; i++) {
+            registrar(String.format("ABC%04d", i), base.plusSeconds(i));
+        }
+
+        List<String> placas = placas(service.sugerir("abc", Set.of(AutocompleteService.PLACA), 3));
+
+        assertThat(placas).containsExactly("ABC0999", "ABC0998", "ABC0997");
+    }
+
+    @Test
+    void prefixoNormalizadoEForaDaJanelaIgnorado() {
+        registrar("XYZ-1A23", base);
+        registrar("XYZ1B00", base.minusHours(30));
+        registrar("XYW0000", base);
+
+        assertThat(placas(service.sugerir("xyz 1", Set.of(AutocompleteService.PLACA), 10))).containsExactly("XYZ-1A23");
+        // Abaixo do mínimo de caracteres não há sugestão de placa
+        assertThat(service.sugerir("X", Set.of(AutocompleteService.PLACA), 10)).isEmpty();
+    }
+
+    @Test
+    void passagemRestauradaMaisAntigaNaoRegrideARecencia() {
+        registrar("DEF1234", base);
+        registrar("DEF1234", base.minusMinutes(30));
+
+        SugestaoDTO sugestao = service.sugerir("DEF", Set.of(AutocompleteService.PLACA), 1).get(0);
+        assertThat(sugestao.getUltimaPassagem()).isEqualTo(base);
+    }
+
+    @Test
+    void catalogoCasaInicioDeTextoAntesDeInicioDePalavra() {
+        service.onCatalogoAtualizado("rondon", new FilterOptionsDTO(
+                List.of("SP-300"), List.of("Praça Jaú", "Jaú Norte"), List.of(), List.of()));
+        service.onCatalogoAtualizado("eixo", new FilterOptionsDTO(
+                List.of("SP-300"), List.of("Praça Jaú"), List.of(), List.of()));
+
+        List<SugestaoDTO> sugestoes = service.sugerir("jau", Set.of(AutocompleteService.PRACA), 10);
+
+        assertThat(sugestoes).extracting(SugestaoDTO::getValor).containsExactly("Jaú Norte", "Praça Jaú");
+        assertThat(sugestoes.get(1).getConcessionarias()).containsExactly("eixo", "rondon");
+        assertThat(service.sugerir("sp3", Set.of(AutocompleteService.RODOVIA), 10))
+                .extracting(SugestaoDTO::getValor).containsExactly("SP-300");
+    }
+
+    private void registrar(String placa, LocalDateTime quando) {
+        RadarDTO radar = new RadarDTO();
+        radar.setPlaca(placa);
+        radar.setConcessionaria("rondon");
+        radar.setData(quando.toLocalDate());
+        radar.setHora(quando.toLocalTime());
+        service.onPassagemRestaurada(radar);
+    }
+
+    private static List<String> placas(List<SugestaoDTO> sugestoes) {
+        return sugestoes.stream().map(SugestaoDTO::getValor).toList();
+    }
+}
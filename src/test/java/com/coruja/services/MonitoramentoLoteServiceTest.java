@@ -0,0 +1,129 @@
+package com.coruja.services;
+
+import com.coruja.dto.MonitoramentoLoteItemDTO;
+import com.coruja.dto.MonitoramentoLoteRespostaDTO;
+import com.coruja.dto.MonitoramentoLoteResultadoDTO;
+import com.coruja.dto.PlacaMonitoradaDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MonitoramentoLoteServiceTest {
+
+    private final MonitoramentoBFFService monitoramentoService = mock(MonitoramentoBFFService.class);
+    private final MonitoramentoLoteService service = new MonitoramentoLoteService(monitoramentoService, 2, 100);
+
+    @AfterEach
+    void encerrar() {
+        service.encerrar();
+    }
+
+    @Test
+    void csvRespeitaAspasESeparadorDoCabecalho() throws IOException {
+        List<MonitoramentoLoteItemDTO> itens = ler(
+                "placa;motivo;observacao\n"
+                        + "ABC1D23;\"Roubo; furto\";\"disse \"\"urgente\"\"\"\n"
+                        + "\n"
+                        + "XYZ9876;;\n");
+
+        assertThat(itens).hasSize(2);
+        assertThat(itens.get(0).getMotivo()).isEqualTo("Roubo; furto");
+        assertThat(itens.get(0).getObservacao()).isEqualTo("disse \"urgente\"");
+        assertThat(itens.get(1).getPlaca()).isEqualTo("XYZ9876");
+        assertThat(itens.get(1).getMotivo()).isNull();
+    }
+
+    @Test
+    void csvComBomEVirgula() throws IOException {
+        List<MonitoramentoLoteItemDTO> itens = ler("\uFEFFOperacao,ID,Marca Modelo,Status Ativo\natualizar,42,\"Fiat, Uno\",nao\n");
+
+        MonitoramentoLoteItemDTO item = itens.get(0);
+        assertThat(item.getOperacao()).isEqualTo("atualizar");
+        assertThat(item.getId()).isEqualTo(42L);
+        assertThat(item.getMarcaModelo()).isEqualTo("Fiat, Uno");
+        assertThat(item.getStatusAtivo()).isFalse();
+    }
+
+    @Test
+    void csvSemColunaPlacaOuIdERecusado() {
+        assertThatThrownBy(() -> ler("motivo,cor\nx,y\n")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void idInvalidoViraErroDoItemSemChamarOServico() throws IOException {
+        List<MonitoramentoLoteItemDTO> itens = ler("operacao,id\nREMOVER,12a\nREMOVER,7\n");
+
+        MonitoramentoLoteRespostaDTO resposta = service.executar(itens, true);
+
+        MonitoramentoLoteResultadoDTO invalido = resposta.getResultados().get(0);
+        assertThat(invalido.isSucesso()).isFalse();
+        assertThat(invalido.getErro()).contains("12a");
+        assertThat(resposta.getResultados().get(1).isSucesso()).isTrue();
+        verify(monitoramentoService).deletarMonitorado(7L);
+        verify(monitoramentoService, never()).deletarMonitorado(eq(12L));
+    }
+
+    @Test
+    void atualizarMesclaSomenteColunasPresentes() throws IOException {
+        PlacaMonitoradaDTO atual = new PlacaMonitoradaDTO();
+        atual.setId(5L);
+        atual.setPlaca("ABC1D23");
+        atual.setMarcaModelo("Fiat Uno");
+        atual.setCor("Prata");
+        atual.setMotivo("Roubo");
+        atual.setStatusAtivo(false);
+        atual.setInteressado("delegacia-1");
+        when(monitoramentoService.buscarPorId(5L)).thenReturn(atual);
+        when(monitoramentoService.atualizarMonitorado(anyLong(), any())).thenAnswer(i -> i.getArgument(1));
+
+        List<MonitoramentoLoteItemDTO> itens = ler("operacao,id,cor\nATUALIZAR,5,Preto\n");
+        assertThat(service.executar(itens, false).getSucessos()).isEqualTo(1);
+
+        ArgumentCaptor<PlacaMonitoradaDTO> enviado = ArgumentCaptor.forClass(PlacaMonitoradaDTO.class);
+        verify(monitoramentoService).atualizarMonitorado(eq(5L), enviado.capture());
+        assertThat(enviado.getValue().getCor()).isEqualTo("Preto");
+        assertThat(enviado.getValue().getPlaca()).isEqualTo("ABC1D23");
+        assertThat(enviado.getValue().getMarcaModelo()).isEqualTo("Fiat Uno");
+        assertThat(enviado.getValue().getInteressado()).isEqualTo("delegacia-1");
+        // statusAtivo ausente não reativa o registro
+        assertThat(enviado.getValue().isStatusAtivo()).isFalse();
+    }
+
+    @Test
+    void criarAssumeStatusAtivo() throws IOException {
+        when(monitoramentoService.criarMonitorado(any())).thenAnswer(i -> i.getArgument(0));
+
+        service.executar(ler("placa\nABC1D23\n"), false);
+
+        ArgumentCaptor<PlacaMonitoradaDTO> enviado = ArgumentCaptor.forClass(PlacaMonitoradaDTO.class);
+        verify(monitoramentoService).criarMonitorado(enviado.capture());
+        assertThat(enviado.getValue().isStatusAtivo()).isTrue();
+    }
+
+    @Test
+    void removerExigeAdmin() throws IOException {
+        MonitoramentoLoteRespostaDTO resposta = service.executar(ler("operacao,id\nREMOVER,7\n"), false);
+
+        assertThat(resposta.getFalhas()).isEqualTo(1);
+        verify(monitoramentoService, never()).deletarMonitorado(anyLong());
+    }
+
+    private List<MonitoramentoLoteItemDTO> ler(String csv) throws IOException {
+        return service.lerCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+}
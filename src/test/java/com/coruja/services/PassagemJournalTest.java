@@ -0,0 +1,133 @@
+package com.coruja.services;
+
+import com.coruja.dto.RadarDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PassagemJournalTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void reproduzPassagensGravadas() throws Exception {
+        gravar("ABC1D23", "XYZ9876");
+
+        List<RadarDTO> lidas = reproduzir();
+
+        assertThat(lidas).extracting(RadarDTO::getPlaca).containsExactly("ABC1D23", "XYZ9876");
+        RadarDTO primeira = lidas.get(0);
+        assertThat(primeira.getData()).isEqualTo(LocalDate.of(2026, 3, 10));
+        assertThat(primeira.getHora()).isEqualTo(LocalTime.of(8, 15, 30));
+        assertThat(primeira.getConcessionaria()).isEqualTo("Rondon");
+        assertThat(primeira.getSentido()).isNull();
+    }
+
+    @Test
+    void registroComCrcInvalidoEncerraLeituraDoSegmento() throws Exception {
+        gravar("AAA1111", "BBB2222", "CCC3333");
+        Path segmento = unicoSegmento();
+
+        try (RandomAccessFile arquivo = new RandomAccessFile(segmento.toFile(), "rw")) {
+            long terceiro = 0;
+            for (int i = 0; i < 2; i++) {
+                arquivo.seek(terceiro);
+                terceiro += 8 + arquivo.readInt();
+            }
+            // Corrompe um byte no payload do terceiro registro
+            long posicao = terceiro + 8 + 20;
+            arquivo.seek(posicao);
+            int original = arquivo.read();
+            arquivo.seek(posicao);
+            arquivo.write(original ^ 0xFF);
+        }
+
+        assertThat(reproduzir()).extracting(RadarDTO::getPlaca).containsExactly("AAA1111", "BBB2222");
+    }
+
+    @Test
+    void escritaIncompletaNaoImpedeNovosSegmentosAposRestart() throws Exception {
+        gravar("AAA1111", "BBB2222");
+        Path segmento = unicoSegmento();
+
+        // Simula queda no meio da escrita: cabeçalho do próximo registro gravado, payload não
+        try (RandomAccessFile arquivo = new RandomAccessFile(segmento.toFile(), "rw")) {
+            long fim = 0;
+            for (int i = 0; i < 2; i++) {
+                arquivo.seek(fim);
+                fim += 8 + arquivo.readInt();
+            }
+            arquivo.seek(fim);
+            arquivo.writeInt(60);
+            arquivo.writeInt(0x12345678);
+        }
+
+        // Restart: a nova instância grava em um segmento novo
+        gravar("CCC3333");
+
+        assertThat(reproduzir()).extracting(RadarDTO::getPlaca).containsExactly("AAA1111", "BBB2222", "CCC3333");
+    }
+
+    @Test
+    void ignoraPassagensAnterioresAJanela() throws Exception {
+        gravar("AAA1111");
+
+        List<RadarDTO> lidas = new ArrayList<>();
+        int total = novoJournal().reproduzir(System.currentTimeMillis() + 60_000, lidas::add);
+
+        assertThat(total).isZero();
+        assertThat(lidas).isEmpty();
+    }
+
+    private void gravar(String... placas) throws Exception {
+        PassagemJournal journal = novoJournal();
+        journal.iniciar();
+        for (String placa : placas) {
+            journal.onPassagem(radar(placa));
+        }
+        journal.parar();
+    }
+
+    private List<RadarDTO> reproduzir() {
+        List<RadarDTO> lidas = new ArrayList<>();
+        int total = novoJournal().reproduzir(0, lidas::add);
+        assertThat(total).isEqualTo(lidas.size());
+        return lidas;
+    }
+
+    private PassagemJournal novoJournal() {
+        return new PassagemJournal(true, diretorio.toString(), 1, 8, 1024);
+    }
+
+    private Path unicoSegmento() throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            List<Path> segmentos = arquivos.toList();
+            assertThat(segmentos).hasSize(1);
+            return segmentos.get(0);
+        }
+    }
+
+    private static RadarDTO radar(String placa) {
+        RadarDTO radar = new RadarDTO();
+        radar.setData(LocalDate.of(2026, 3, 10));
+        radar.setHora(LocalTime.of(8, 15, 30));
+        radar.setPlaca(placa);
+        radar.setConcessionaria("Rondon");
+        radar.setPraca("Praça 1");
+        radar.setRodovia("SP-300");
+        radar.setKm("336");
+        return radar;
+    }
+}
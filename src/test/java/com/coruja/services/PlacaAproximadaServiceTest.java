@@ -0,0 +1,81 @@
+package com.coruja.services;
+
+import com.coruja.dto.PlacaCandidataDTO;
+import com.coruja.dto.RadarDTO;
+import com.coruja.util.PassagemUtils;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlacaAproximadaServiceTest {
+
+    private final PlacaAproximadaService service = new PlacaAproximadaService(24, 100_000, 1);
+    private final LocalDateTime base = LocalDateTime.now(PassagemUtils.zona()).minusHours(1).withNano(0);
+
+    @Test
+    void distanciaDeLevenshtein() {
+        assertThat(PlacaAproximadaService.distancia("ABC1234", "ABC1234", 2)).isZero();
+        assertThat(PlacaAproximadaService.distancia("ABC1234", "ABD1234", 2)).isEqualTo(1);
+        assertThat(PlacaAproximadaService.distancia("ABC1234", "ABC123", 2)).isEqualTo(1);
+        assertThat(PlacaAproximadaService.distancia("ABC1234", "XABC1234", 2)).isEqualTo(1);
+        assertThat(PlacaAproximadaService.distancia("ABC1234", "BAC1234", 2)).isEqualTo(2);
+    }
+
+    @Test
+    void distanciaAlemDoMaximoRetornaMaximoMaisUm() {
+        // Diferença de tamanho já basta para interromper
+        assertThat(PlacaAproximadaService.distancia("ABC1234", "ABC1", 1)).isEqualTo(2);
+        // Todas as posições diferentes: a linha inteira passa do máximo
+        assertThat(PlacaAproximadaService.distancia("ABC1234", "XYZ9876", 1)).isEqualTo(2);
+        // Só a última célula passa do máximo
+        assertThat(PlacaAproximadaService.distancia("ABC1234", "ABC1299", 1)).isEqualTo(2);
+        assertThat(PlacaAproximadaService.distancia("", "", 0)).isZero();
+    }
+
+    @Test
+    void formaCanonicaUnificaConfusoesDeOcr() {
+        assertThat(PlacaAproximadaService.canonica("obq-1i8")).isEqualTo("080118");
+        assertThat(PlacaAproximadaService.canonica("ABC1D23")).isEqualTo(PlacaAproximadaService.canonica("A8C1D23"));
+    }
+
+    @Test
+    void candidatasPorConfusaoEPorEdicao() {
+        registrar("ABC1D23", base);
+        registrar("A8C1D23", base.plusMinutes(1));
+        registrar("ABC1D24", base.plusMinutes(2));
+        registrar("ABC1D2", base.plusMinutes(3));
+        registrar("ABX1D99", base.plusMinutes(4));
+
+        List<PlacaCandidataDTO> candidatas = service.candidatas("ABC-1D23", 10);
+
+        // A própria placa fica de fora; confusões de OCR (distância 0) antes das edições
+        assertThat(candidatas).extracting(PlacaCandidataDTO::getPlaca)
+                .containsExactly("A8C1D23", "ABC1D2", "ABC1D24");
+        assertThat(candidatas.get(0).getDistancia()).isZero();
+        assertThat(candidatas.get(0).getConfusoes()).isEqualTo(1);
+        assertThat(candidatas.get(1).getDistancia()).isEqualTo(1);
+    }
+
+    @Test
+    void respeitaLimiteJanelaETamanhoMinimo() {
+        registrar("ABC1D24", base);
+        registrar("ABC1D25", base.plusMinutes(1));
+        registrar("ABC1D26", base.minusHours(30));
+
+        assertThat(service.candidatas("ABC1D23", 1)).extracting(PlacaCandidataDTO::getPlaca).containsExactly("ABC1D25");
+        assertThat(service.candidatas("ABC1D23", 10)).hasSize(2);
+        assertThat(service.candidatas("AB", 10)).isEmpty();
+    }
+
+    private void registrar(String placa, LocalDateTime quando) {
+        RadarDTO radar = new RadarDTO();
+        radar.setPlaca(placa);
+        radar.setConcessionaria("rondon");
+        radar.setData(quando.toLocalDate());
+        radar.setHora(quando.toLocalTime());
+        service.onPassagemRestaurada(radar);
+    }
+}
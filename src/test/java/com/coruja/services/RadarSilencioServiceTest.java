@@ -0,0 +1,48 @@
+package com.coruja.services;
+
+import com.coruja.dto.RadarDTO;
+import com.coruja.util.PassagemUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class RadarSilencioServiceTest {
+
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private final RadarSilencioService service =
+            new RadarSilencioService(messagingTemplate, 10, 5.0, 120, 21600, 900, 500);
+
+    @Test
+    void passagemRestauradaAntigaNaoDisparaSilencioNoRestart() throws InterruptedException {
+        // Última passagem do journal bem mais antiga que o limite inicial de silêncio (900 s)
+        LocalDateTime ultima = LocalDateTime.now(PassagemUtils.zona()).minusHours(2).withNano(0);
+        service.onPassagemRestaurada(radar(ultima));
+
+        Thread.sleep(50);
+        service.verificarPrazos();
+
+        assertThat(service.listarSilenciosos()).isEmpty();
+        verify(messagingTemplate, never()).convertAndSend(eq(RadarSilencioService.TOPICO_STATUS), any(Object.class));
+    }
+
+    private static RadarDTO radar(LocalDateTime quando) {
+        RadarDTO radar = new RadarDTO();
+        radar.setData(quando.toLocalDate());
+        radar.setHora(quando.toLocalTime());
+        radar.setPlaca("ABC1D23");
+        radar.setConcessionaria("Rondon");
+        radar.setPraca("Praça 1");
+        radar.setRodovia("SP-300");
+        radar.setKm("336");
+        radar.setSentido("Norte");
+        return radar;
+    }
+}
@@ -0,0 +1,87 @@
+package com.coruja.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    private static String placa(int i) {
+        return String.format("P%06d", i);
+    }
+
+    @Test
+    void semFalsoNegativo() {
+        BloomFilter filtro = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.adicionar(placa(i));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filtro.talvezContenha(placa(i))).as(placa(i)).isTrue();
+        }
+    }
+
+    @Test
+    void taxaDeFalsoPositivoProximaDaConfigurada() {
+        BloomFilter filtro = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.adicionar(placa(i));
+        }
+        int falsosPositivos = 0;
+        for (int i = 10_000; i < 110_000; i++) {
+            if (filtro.talvezContenha(placa(i))) {
+                falsosPositivos++;
+            }
+        }
+        // 1% esperado; folga para a variação do hash
+        assertThat(falsosPositivos / 100_000.0).isLessThan(0.02);
+    }
+
+    @Test
+    void filtroVazioNaoContemNada() {
+        BloomFilter filtro = new BloomFilter(100, 0.01);
+
+        assertThat(filtro.talvezContenha("ABC1D23")).isFalse();
+        assertThat(filtro.talvezContenha("")).isFalse();
+    }
+
+    @Test
+    void dimensionamento() {
+        BloomFilter filtro = new BloomFilter(1_000, 0.01);
+
+        // ~9,6 bits e ~7 hashes por elemento para 1%
+        assertThat(filtro.getQuantidadeBits()).isBetween(9_000L, 10_000L);
+        assertThat(filtro.getQuantidadeHashes()).isBetween(6, 8);
+        assertThat(filtro.getQuantidadeBits() % 64).isZero();
+    }
+
+    @Test
+    void insercoesConcorrentesNaoPerdemBits() throws InterruptedException {
+        BloomFilter filtro = new BloomFilter(80_000, 0.01);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            int base = t * 10_000;
+            executor.submit(() -> {
+                for (int i = base; i < base + 10_000; i++) {
+                    filtro.adicionar(placa(i));
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        List<String> ausentes = new ArrayList<>();
+        for (int i = 0; i < 80_000; i++) {
+            if (!filtro.talvezContenha(placa(i))) {
+                ausentes.add(placa(i));
+            }
+        }
+        assertThat(ausentes).isEmpty();
+    }
+}
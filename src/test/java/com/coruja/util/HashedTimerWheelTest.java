@@ -0,0 +1,90 @@
+package com.coruja.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HashedTimerWheelTest {
+
+    private static final long INICIO = 1_000_000L;
+
+    @Test
+    void expiraSomenteAposOPrazo() {
+        HashedTimerWheel<String> roda = new HashedTimerWheel<>(100, 8, INICIO);
+        roda.schedule("a", INICIO + 250);
+
+        assertThat(roda.advance(INICIO + 200)).isEmpty();
+        assertThat(roda.size()).isEqualTo(1);
+        assertThat(roda.advance(INICIO + 300)).containsExactly("a");
+        assertThat(roda.size()).isZero();
+        assertThat(roda.advance(INICIO + 1_000)).isEmpty();
+    }
+
+    @Test
+    void prazoAlemDeUmaVoltaEsperaAsVoltasRestantes() {
+        // 8 ticks de 100 ms: uma volta cobre 800 ms
+        HashedTimerWheel<String> roda = new HashedTimerWheel<>(100, 8, INICIO);
+        roda.schedule("longo", INICIO + 2_500);
+
+        assertThat(roda.advance(INICIO + 800)).isEmpty();
+        assertThat(roda.advance(INICIO + 1_600)).isEmpty();
+        assertThat(roda.advance(INICIO + 2_400)).isEmpty();
+        assertThat(roda.advance(INICIO + 2_500)).containsExactly("longo");
+    }
+
+    @Test
+    void prazoNoPassadoExpiraNoProximoAvanco() {
+        HashedTimerWheel<String> roda = new HashedTimerWheel<>(100, 8, INICIO);
+        roda.advance(INICIO + 1_000);
+        roda.schedule("atrasado", INICIO + 10);
+
+        assertThat(roda.advance(INICIO + 1_100)).containsExactly("atrasado");
+    }
+
+    @Test
+    void rearmarCancelaOPrazoAnterior() {
+        HashedTimerWheel<String> roda = new HashedTimerWheel<>(100, 8, INICIO);
+        HashedTimerWheel.Timeout<String> primeiro = roda.schedule("ponto", INICIO + 300);
+
+        // Nova passagem antes do prazo: cancela e agenda de novo mais adiante
+        assertThat(roda.cancel(primeiro)).isTrue();
+        roda.schedule("ponto", INICIO + 900);
+
+        assertThat(roda.advance(INICIO + 500)).isEmpty();
+        assertThat(roda.advance(INICIO + 900)).containsExactly("ponto");
+        assertThat(roda.size()).isZero();
+    }
+
+    @Test
+    void cancelarDuasVezesOuAposExpirarRetornaFalse() {
+        HashedTimerWheel<String> roda = new HashedTimerWheel<>(100, 8, INICIO);
+        HashedTimerWheel.Timeout<String> cancelado = roda.schedule("a", INICIO + 300);
+        HashedTimerWheel.Timeout<String> expirado = roda.schedule("b", INICIO + 100);
+
+        assertThat(roda.cancel(cancelado)).isTrue();
+        assertThat(roda.cancel(cancelado)).isFalse();
+        assertThat(roda.advance(INICIO + 200)).containsExactly("b");
+        assertThat(roda.cancel(expirado)).isFalse();
+        assertThat(roda.cancel(null)).isFalse();
+        assertThat(roda.size()).isZero();
+    }
+
+    @Test
+    void variosTimeoutsNoMesmoBalde() {
+        HashedTimerWheel<Integer> roda = new HashedTimerWheel<>(100, 4, INICIO);
+        for (int i = 0; i < 5; i++) {
+            roda.schedule(i, INICIO + 100);
+        }
+        HashedTimerWheel.Timeout<Integer> meio = roda.schedule(99, INICIO + 100);
+        roda.cancel(meio);
+
+        assertThat(roda.advance(INICIO + 100)).containsExactlyInAnyOrder(0, 1, 2, 3, 4);
+    }
+
+    @Test
+    void tickInvalidoELancado() {
+        assertThatThrownBy(() -> new HashedTimerWheel<String>(0, 8, INICIO))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,77 @@
+package com.coruja.util;
+
+import com.coruja.dto.RadarDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RadarMensagemParserTest {
+
+    @Test
+    void rondonSemPraca() {
+        RadarDTO radar = RadarMensagemParser.parse("RONDON|2024-05-10|08:15:30|ABC1D23|SP-300|336|Oeste");
+
+        assertThat(radar.getConcessionaria()).isEqualTo("Rondon");
+        assertThat(radar.getData()).isEqualTo(LocalDate.of(2024, 5, 10));
+        assertThat(radar.getHora()).isEqualTo(LocalTime.of(8, 15, 30));
+        assertThat(radar.getPlaca()).isEqualTo("ABC1D23");
+        assertThat(radar.getPraca()).isEqualTo("N/A");
+        assertThat(radar.getRodovia()).isEqualTo("SP-300");
+        assertThat(radar.getKm()).isEqualTo("336");
+        assertThat(radar.getSentido()).isEqualTo("Oeste");
+    }
+
+    @Test
+    void entreviasComPraca() {
+        RadarDTO radar = RadarMensagemParser.parse("entrevias|2024-05-10|23:59:59|XYZ9876|Praça 1|SP-330|250|Norte");
+
+        assertThat(radar.getConcessionaria()).isEqualTo("Entrevias");
+        assertThat(radar.getPraca()).isEqualTo("Praça 1");
+        assertThat(radar.getRodovia()).isEqualTo("SP-330");
+        assertThat(radar.getKm()).isEqualTo("250");
+        assertThat(radar.getSentido()).isEqualTo("Norte");
+    }
+
+    @Test
+    void cartComPraca() {
+        RadarDTO radar = RadarMensagemParser.parse("Cart|2024-05-10|00:00|DEF4G56|Praça 2|SP-270|120|Leste");
+
+        assertThat(radar.getConcessionaria()).isEqualTo("Cart");
+        assertThat(radar.getHora()).isEqualTo(LocalTime.MIDNIGHT);
+        assertThat(radar.getPraca()).isEqualTo("Praça 2");
+        assertThat(radar.getSentido()).isEqualTo("Leste");
+    }
+
+    @Test
+    void eixoMantemNomeEmMaiusculas() {
+        RadarDTO radar = RadarMensagemParser.parse("eixo|2024-05-10|12:00:00|GHI7J89|Praça 3|SP-310|80|Sul");
+
+        assertThat(radar.getConcessionaria()).isEqualTo("EIXO");
+        assertThat(radar.getPraca()).isEqualTo("Praça 3");
+        assertThat(radar.getRodovia()).isEqualTo("SP-310");
+    }
+
+    @Test
+    void mensagemIncompletaDeConcessionariaConhecidaRetornaNull() {
+        assertThat(RadarMensagemParser.parse("RONDON|2024-05-10|08:15:30|ABC1D23|SP-300|336")).isNull();
+        assertThat(RadarMensagemParser.parse("CART|2024-05-10|08:15:30|ABC1D23|Praça|SP-270|120")).isNull();
+    }
+
+    @Test
+    void mensagensInvalidas() {
+        assertThatThrownBy(() -> RadarMensagemParser.parse(null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RadarMensagemParser.parse("  ")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RadarMensagemParser.parse("CART|2024-05-10|08:15:30"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RadarMensagemParser.parse("OUTRA|2024-05-10|08:15:30|ABC1D23|a|b|c|d"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("OUTRA");
+        assertThatThrownBy(() -> RadarMensagemParser.parse("CART|10/05/2024|08:15:30|ABC1D23|a|b|c|d"))
+                .isInstanceOf(DateTimeParseException.class);
+    }
+}
@@ -0,0 +1,68 @@
+package com.coruja.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SequencedRingBufferTest {
+
+    private static SequencedRingBuffer<String> comItens(int capacidade, int quantidade) {
+        SequencedRingBuffer<String> buffer = new SequencedRingBuffer<>(capacidade);
+        for (int i = 0; i < quantidade; i++) {
+            buffer.append(seq -> "m" + seq);
+        }
+        return buffer;
+    }
+
+    @Test
+    void appendNumeraEmSequencia() {
+        SequencedRingBuffer<String> buffer = new SequencedRingBuffer<>(4);
+
+        assertThat(buffer.append(seq -> "m" + seq)).isEqualTo("m1");
+        assertThat(buffer.append(seq -> "m" + seq)).isEqualTo("m2");
+        assertThat(buffer.getUltimaSequencia()).isEqualTo(2);
+    }
+
+    @Test
+    void desdeDevolveSomenteOsItensPerdidos() {
+        SequencedRingBuffer<String> buffer = comItens(4, 3);
+
+        assertThat(buffer.desde(0)).containsExactly("m1", "m2", "m3");
+        assertThat(buffer.desde(1)).containsExactly("m2", "m3");
+        assertThat(buffer.desde(3)).isEmpty();
+    }
+
+    @Test
+    void lacunaForaDaJanelaExigeRessincronizacao() {
+        // Capacidade 4 com 10 itens: só m7..m10 continuam retidos
+        SequencedRingBuffer<String> buffer = comItens(4, 10);
+
+        assertThat(buffer.desde(6)).containsExactly("m7", "m8", "m9", "m10");
+        assertThat(buffer.desde(5)).isNull();
+        assertThat(buffer.desde(0)).isNull();
+    }
+
+    @Test
+    void sequenciaDoFuturoEDesconhecida() {
+        // Cliente vindo de outra época pode trazer uma sequência maior que a atual
+        SequencedRingBuffer<String> buffer = comItens(4, 2);
+
+        assertThat(buffer.desde(3)).isNull();
+    }
+
+    @Test
+    void ultimosRespeitaLimiteEJanela() {
+        SequencedRingBuffer<String> buffer = comItens(4, 10);
+
+        assertThat(buffer.ultimos(2)).containsExactly("m9", "m10");
+        assertThat(buffer.ultimos(100)).containsExactly("m7", "m8", "m9", "m10");
+        assertThat(new SequencedRingBuffer<String>(4).ultimos(3)).isEmpty();
+    }
+
+    @Test
+    void capacidadeInvalidaELancada() {
+        assertThatThrownBy(() -> new SequencedRingBuffer<String>(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,75 @@
+package com.coruja.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlidingWindowCounterTest {
+
+    private static final long MINUTO = 60_000L;
+
+    @Test
+    void contaPorPeriodo() {
+        SlidingWindowCounter contador = new SlidingWindowCounter(MINUTO, 5);
+        contador.incrementar(10 * MINUTO);
+        contador.incrementar(10 * MINUTO + 59_999);
+        contador.incrementar(11 * MINUTO);
+
+        assertThat(contador.periodo(10 * MINUTO + 59_999)).isEqualTo(10);
+        assertThat(contador.contagem(10)).isEqualTo(2);
+        assertThat(contador.contagem(11)).isEqualTo(1);
+        assertThat(contador.contagem(12)).isZero();
+    }
+
+    @Test
+    void serieDevolvePeriodosCompletosDoMaisAntigoAoMaisRecente() {
+        SlidingWindowCounter contador = new SlidingWindowCounter(MINUTO, 3);
+        for (int minuto = 1; minuto <= 4; minuto++) {
+            for (int i = 0; i < minuto; i++) {
+                contador.incrementar(minuto * MINUTO);
+            }
+        }
+
+        // Período atual (4) fica de fora: só os 3 anteriores
+        assertThat(contador.serie(4, 3)).containsExactly(1, 2, 3);
+        // Pedir mais que a janela é limitado ao tamanho da janela
+        assertThat(contador.serie(5, 10)).containsExactly(2, 3, 4);
+    }
+
+    @Test
+    void baldeRecicladoDescartaPeriodoAntigo() {
+        // janela 2 -> 4 baldes: o período 5 reaproveita o balde do período 1
+        SlidingWindowCounter contador = new SlidingWindowCounter(MINUTO, 2);
+        contador.incrementar(1 * MINUTO);
+        contador.incrementar(5 * MINUTO);
+
+        assertThat(contador.contagem(1)).isZero();
+        assertThat(contador.contagem(5)).isEqualTo(1);
+
+        // Incremento atrasado para um período já reciclado é descartado
+        contador.incrementar(1 * MINUTO);
+        assertThat(contador.contagem(1)).isZero();
+        assertThat(contador.contagem(5)).isEqualTo(1);
+    }
+
+    @Test
+    void incrementosConcorrentesNaoSePerdem() throws InterruptedException {
+        SlidingWindowCounter contador = new SlidingWindowCounter(MINUTO, 5);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    contador.incrementar(7 * MINUTO + (i % MINUTO));
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(contador.contagem(7)).isEqualTo(80_000);
+    }
+}